@@ -0,0 +1,77 @@
+package no.vibrantfounder.bachelor.ai.client;
+
+import no.vibrantfounder.bachelor.ai.config.AnthropicHttpProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens ai.anthropic.http.warmup-connections connections to the Anthropic API once the
+ * application is ready, so the first plan generation does not pay for DNS, TCP and TLS.
+ *
+ * Each connection is opened with a cheap authenticated GET (warmup-path, /v1/models) on
+ * its own virtual thread; startup never waits for it and any status, including an error,
+ * still leaves the connection in the pool. With HTTP/2 a single connection carries all
+ * calls, so 1 is enough; with HTTP/1.1 use the expected number of concurrent calls.
+ */
+@Component
+public class AnthropicConnectionWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(AnthropicConnectionWarmup.class);
+
+    private final RestClient anthropicRestClient;
+    private final AnthropicHttpProperties properties;
+
+    public AnthropicConnectionWarmup(RestClient anthropicRestClient, AnthropicHttpProperties properties) {
+        this.anthropicRestClient = anthropicRestClient;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int connections = properties.warmupConnections();
+        if (connections == 0) return;
+
+        Thread.ofVirtual().name("anthropic-warmup").start(() -> {
+            long start = System.nanoTime();
+            AtomicInteger opened = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                threads.add(Thread.ofVirtual().name("anthropic-warmup-", i).start(() -> {
+                    if (openConnection()) opened.incrementAndGet();
+                }));
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            log.info("Warmed up {}/{} Anthropic API connections in {} ms",
+                    opened.get(), connections, (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    private boolean openConnection() {
+        try {
+            anthropicRestClient.get()
+                    .uri(properties.warmupPath())
+                    .retrieve()
+                    .onStatus(status -> true, (req, res) -> { })
+                    .toBodilessEntity();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Anthropic connection warm-up failed: {}", e.getMessage());
+            return false;
+        }
+    }
+}
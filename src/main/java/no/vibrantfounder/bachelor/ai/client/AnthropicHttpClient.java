@@ -28,9 +28,10 @@ public class AnthropicHttpClient implements AnthropicClient {
                     .body(request)
                     .retrieve()
                     .onStatus(HttpStatusCode::isError, (req, res) -> {
+                        int status = res.getStatusCode().value();
                         throw new AiException(
-                                AiException.Type.PROVIDER_ERROR,
-                                "Anthropic returned HTTP " + res.getStatusCode().value()
+                                status == 429 ? AiException.Type.RATE_LIMITED : AiException.Type.PROVIDER_ERROR,
+                                "Anthropic returned HTTP " + status
                         );
                     })
                     .body(AnthropicMessageResponse.class);
@@ -0,0 +1,357 @@
+package no.vibrantfounder.bachelor.ai.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import no.vibrantfounder.bachelor.ai.config.AnthropicHttpProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClientHttpRequestFactory behind the Anthropic RestClient, on a JDK HttpClient tuned for
+ * a few long-running calls to a single host.
+ *
+ * - HTTP/2 by default: concurrent calls share one multiplexed TLS connection
+ * - connect / read / total deadline are enforced separately (see AnthropicHttpProperties);
+ *   Spring's JdkClientHttpRequestFactory only has one read timeout that spans the whole
+ *   exchange, so the timeouts here are applied on the JDK request and future directly
+ * - the client runs on its own small executor instead of the common pool
+ *
+ * Metrics (the JDK client has no pool API, so reuse is derived):
+ * - ai.anthropic.http.responses{version}  responses by negotiated protocol
+ * - ai.anthropic.http.connections          TLS connections opened (counted per SSLEngine;
+ *                                          plain http:// connections are not counted)
+ * - ai.anthropic.http.connection.reuse     1 - connections / responses
+ * - ai.anthropic.http.in_flight            requests waiting for a response
+ * - ai.anthropic.http.timeouts{type}       connect, read or deadline
+ * - executor.* {name=anthropic-http}       the client's executor
+ *
+ * Response bodies are read fully inside the deadline; Messages API responses are small JSON.
+ */
+public class AnthropicHttpTransport implements ClientHttpRequestFactory, AutoCloseable {
+
+    // Set by the JDK client itself; it rejects requests that carry them.
+    private static final Set<String> DISALLOWED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration readTimeout; // null = deadline only
+    private final Duration deadline;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter connectionsOpened;
+    private final Map<HttpClient.Version, Counter> responses = new EnumMap<>(HttpClient.Version.class);
+    private final Counter connectTimeouts;
+    private final Counter readTimeouts;
+    private final Counter deadlineTimeouts;
+
+    /**
+     * Builds the transport and registers its meters. The reuse gauge reads the finished
+     * instance, so it is registered here rather than from the constructor.
+     */
+    public static AnthropicHttpTransport create(AnthropicHttpProperties properties, Duration deadline, MeterRegistry registry) {
+        AnthropicHttpTransport transport = new AnthropicHttpTransport(properties, deadline, registry);
+        Gauge.builder("ai.anthropic.http.connection.reuse", transport, AnthropicHttpTransport::connectionReuse)
+                .description("Share of Anthropic API responses served on an already open connection")
+                .register(registry);
+        return transport;
+    }
+
+    private AnthropicHttpTransport(AnthropicHttpProperties properties, Duration deadline, MeterRegistry registry) {
+        this.deadline = deadline;
+        this.readTimeout = properties.readTimeout(deadline);
+        this.executor = Executors.newFixedThreadPool(
+                properties.executorThreads(),
+                Thread.ofPlatform().name("anthropic-http-", 1).daemon(true).factory()
+        );
+
+        this.connectionsOpened = Counter.builder("ai.anthropic.http.connections")
+                .description("TLS connections opened to the Anthropic API")
+                .register(registry);
+        for (HttpClient.Version version : HttpClient.Version.values()) {
+            responses.put(version, Counter.builder("ai.anthropic.http.responses")
+                    .description("Anthropic API responses by negotiated HTTP version")
+                    .tag("version", version.name())
+                    .register(registry));
+        }
+        this.connectTimeouts = timeoutCounter(registry, "connect");
+        this.readTimeouts = timeoutCounter(registry, "read");
+        this.deadlineTimeouts = timeoutCounter(registry, "deadline");
+        Gauge.builder("ai.anthropic.http.in_flight", inFlight, AtomicInteger::get)
+                .description("Anthropic API requests waiting for a response")
+                .register(registry);
+
+        this.client = HttpClient.newBuilder()
+                .version(properties.version())
+                .connectTimeout(properties.connectTimeout())
+                .executor(ExecutorServiceMetrics.monitor(registry, executor, "anthropic-http"))
+                .sslContext(countingSslContext(connectionsOpened))
+                .build();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new Request(uri, httpMethod);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+
+    private ClientHttpResponse send(HttpRequest request) throws IOException {
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<byte[]>> future = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        try {
+            HttpResponse<byte[]> response = future.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+            responses.get(response.version()).increment();
+            return new Response(response);
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            deadlineTimeouts.increment();
+            throw new HttpTimeoutException("Anthropic request exceeded its total deadline of " + deadline);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpConnectTimeoutException) {
+                connectTimeouts.increment();
+            } else if (cause instanceof HttpTimeoutException) {
+                readTimeouts.increment();
+            }
+            if (cause instanceof IOException io) throw io;
+            throw new IOException(cause.getMessage(), cause);
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Anthropic API");
+
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private double connectionReuse() {
+        double total = 0;
+        for (Counter counter : responses.values()) {
+            total += counter.count();
+        }
+        if (total == 0) return Double.NaN;
+        return Math.max(0, 1 - connectionsOpened.count() / total);
+    }
+
+    private static Counter timeoutCounter(MeterRegistry registry, String type) {
+        return Counter.builder("ai.anthropic.http.timeouts")
+                .description("Anthropic API requests that timed out, by phase")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    // ---------------------------
+    // Request / response adapters
+    // ---------------------------
+
+    private final class Request extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        private Request(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+            if (readTimeout != null) {
+                builder.timeout(readTimeout);
+            }
+            headers.forEach((name, values) -> {
+                if (DISALLOWED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) return;
+                for (String value : values) {
+                    builder.header(name, value);
+                }
+            });
+
+            byte[] bytes = body.toByteArray();
+            builder.method(method.name(), bytes.length == 0
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(bytes));
+
+            return send(builder.build());
+        }
+    }
+
+    private static final class Response implements ClientHttpResponse {
+
+        private final HttpResponse<byte[]> response;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private Response(HttpResponse<byte[]> response) {
+            this.response = response;
+            response.headers().map().forEach(headers::addAll);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(response.statusCode());
+        }
+
+        @Override
+        public String getStatusText() {
+            // HTTP/2 has no reason phrase and the JDK client does not expose the HTTP/1.1 one.
+            return "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(response.body() != null ? response.body() : new byte[0]);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // ---------------------------
+    // Connection counting
+    // ---------------------------
+
+    /**
+     * The default SSLContext, counting every SSLEngine it creates. The JDK client creates
+     * one engine per new TLS connection, so this is the number of connections opened.
+     */
+    private static SSLContext countingSslContext(Counter connectionsOpened) {
+        try {
+            SSLContext delegate = SSLContext.getDefault();
+            return new SSLContext(new CountingSslContextSpi(delegate, connectionsOpened), delegate.getProvider(), delegate.getProtocol()) {
+            };
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No default SSLContext available", e);
+        }
+    }
+
+    private static final class CountingSslContextSpi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+        private final Counter connectionsOpened;
+
+        private CountingSslContextSpi(SSLContext delegate, Counter connectionsOpened) {
+            this.delegate = delegate;
+            this.connectionsOpened = connectionsOpened;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) {
+            // The default context is already initialised.
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            connectionsOpened.increment();
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            connectionsOpened.increment();
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package no.vibrantfounder.bachelor.ai.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageRequest;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageResponse;
+import no.vibrantfounder.bachelor.ai.config.AnthropicReplayProperties;
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AnthropicClient that records real responses to disk or replays them offline.
+ *
+ * Recordings are keyed by a SHA-256 hash of the serialized request, one JSON file per
+ * response ({@code <hash>.json}). In replay mode an exact match is served when one
+ * exists; otherwise (unless strict) recordings are served round-robin, which is what
+ * load tests with varying inputs need.
+ */
+public class RecordReplayAnthropicClient implements AnthropicClient {
+
+    private final AnthropicClient delegate;
+    private final ObjectMapper objectMapper;
+    private final AnthropicReplayProperties properties;
+
+    private final Map<String, AnthropicMessageResponse> recordings;
+    private final List<AnthropicMessageResponse> fallback;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public RecordReplayAnthropicClient(
+            AnthropicClient delegate,
+            ObjectMapper objectMapper,
+            AnthropicReplayProperties properties
+    ) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        if (properties.mode() == AnthropicReplayProperties.Mode.REPLAY) {
+            this.recordings = loadRecordings(properties.directory());
+            this.fallback = List.copyOf(recordings.values());
+            if (fallback.isEmpty()) {
+                throw new IllegalStateException("No recordings found in " + properties.directory().toAbsolutePath());
+            }
+        } else {
+            this.recordings = Map.of();
+            this.fallback = List.of();
+        }
+    }
+
+    @Override
+    public AnthropicMessageResponse createMessage(AnthropicMessageRequest request) {
+        return switch (properties.mode()) {
+            case RECORD -> record(request);
+            case REPLAY -> replay(request);
+        };
+    }
+
+    private AnthropicMessageResponse record(AnthropicMessageRequest request) {
+        AnthropicMessageResponse response = delegate.createMessage(request);
+        try {
+            Files.createDirectories(properties.directory());
+            Path file = properties.directory().resolve(key(request) + ".json");
+            Files.writeString(file, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write recording", e);
+        }
+        return response;
+    }
+
+    private AnthropicMessageResponse replay(AnthropicMessageRequest request) {
+        simulateLatency();
+
+        AnthropicMessageResponse exact = recordings.get(key(request));
+        if (exact != null) {
+            return exact;
+        }
+        if (properties.strict()) {
+            throw new AiException(AiException.Type.PROVIDER_ERROR, "No recording for request (strict replay).");
+        }
+        return fallback.get(Math.floorMod(cursor.getAndIncrement(), fallback.size()));
+    }
+
+    private void simulateLatency() {
+        long base = properties.latency().toMillis();
+        long jitter = properties.latencyJitter().toMillis();
+        long millis = jitter > 0 ? base + ThreadLocalRandom.current().nextLong(jitter + 1) : base;
+        if (millis <= 0) return;
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiException(AiException.Type.TIMEOUT, "Replay interrupted.", e);
+        }
+    }
+
+    private String key(AnthropicMessageRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute recording key", e);
+        }
+    }
+
+    private Map<String, AnthropicMessageResponse> loadRecordings(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return Map.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(f -> f.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .collect(Collectors.toMap(
+                            f -> f.getFileName().toString().replaceFirst("\\.json$", ""),
+                            this::readRecording,
+                            (a, b) -> a,
+                            LinkedHashMap::new
+                    ));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list recordings in " + directory, e);
+        }
+    }
+
+    private AnthropicMessageResponse readRecording(Path file) {
+        try {
+            return objectMapper.readValue(Files.readString(file, StandardCharsets.UTF_8), AnthropicMessageResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording " + file, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Per-model token prices used to estimate the cost of AI calls (USD per million tokens).
+ *
+ * Estimates only: they are meant for capacity planning and dashboards, not billing.
+ */
+@ConfigurationProperties(prefix = "ai.pricing")
+public record AiPricingProperties(
+        Map<String, ModelPrice> models
+) {
+    public AiPricingProperties {
+        if (models == null) {
+            models = Map.of();
+        }
+    }
+
+    public record ModelPrice(
+            double inputPerMillion,
+            double outputPerMillion
+    ) {
+    }
+
+    /**
+     * Estimated cost in USD, or 0 if the model has no configured price.
+     */
+    public double estimateUsd(String model, long inputTokens, long outputTokens) {
+        ModelPrice price = model == null ? null : models.get(model);
+        if (price == null) {
+            return 0.0;
+        }
+        return (inputTokens * price.inputPerMillion() + outputTokens * price.outputPerMillion()) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,34 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for persisting AI call usage (table ai_call).
+ *
+ * Rows are written asynchronously in batches, so these values trade write
+ * latency against insert efficiency and memory held in the queue.
+ */
+@ConfigurationProperties(prefix = "ai.usage")
+public record AiUsageProperties(
+        Boolean enabled,
+        Integer queueCapacity,
+        Integer batchSize,
+        Duration flushInterval
+) {
+    public AiUsageProperties {
+        if (enabled == null) {
+            enabled = true;
+        }
+        if (queueCapacity == null || queueCapacity <= 0) {
+            queueCapacity = 10_000;
+        }
+        if (batchSize == null || batchSize <= 0) {
+            batchSize = 100;
+        }
+        if (flushInterval == null) {
+            flushInterval = Duration.ofSeconds(2);
+        }
+    }
+}
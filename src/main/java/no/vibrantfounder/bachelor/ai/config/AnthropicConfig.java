@@ -1,40 +1,61 @@
 package no.vibrantfounder.bachelor.ai.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import no.vibrantfounder.bachelor.ai.client.AnthropicHttpTransport;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
-import java.net.http.HttpClient;
-
 @Configuration
-@EnableConfigurationProperties(AnthropicProperties.class)
+@EnableConfigurationProperties({
+        AnthropicProperties.class, AnthropicHttpProperties.class, AiPricingProperties.class, AiUsageProperties.class
+})
 public class AnthropicConfig {
 
+    /**
+     * ai.anthropic.timeout is the total deadline per call; connect/read timeouts, HTTP version
+     * and executor come from ai.anthropic.http.*.
+     */
     @Bean
-    public RestClient anthropicRestClient(AnthropicProperties properties) {
-        HttpClient httpClient = HttpClient.newBuilder()
-                .connectTimeout(properties.timeout())
-                .build();
-
-        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
-        requestFactory.setReadTimeout(properties.timeout());
+    public AnthropicHttpTransport anthropicHttpTransport(
+            AnthropicProperties properties,
+            AnthropicHttpProperties httpProperties,
+            MeterRegistry meterRegistry
+    ) {
+        return AnthropicHttpTransport.create(httpProperties, properties.timeout(), meterRegistry);
+    }
 
+    @Bean
+    public RestClient anthropicRestClient(
+            AnthropicProperties properties,
+            AnthropicHttpTransport transport,
+            ObservationRegistry observationRegistry
+    ) {
         return RestClient.builder()
                 .baseUrl(properties.baseUrl())
-                .requestFactory(requestFactory)
+                .requestFactory(transport)
+                .observationRegistry(observationRegistry)
                 .defaultHeader("x-api-key", properties.apiKey())
                 .defaultHeader("anthropic-version", "2023-06-01")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
 
+    /**
+     * Jackson 2 mapper for AI output and stored plan JSON. findAndRegisterModules picks up
+     * jackson-datatype-jsr310 for LocalDate/LocalDateTime; dates are written as ISO strings,
+     * the same form the AI produces and the web layer returns.
+     */
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper().findAndRegisterModules();
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import org.springframework.boot.EnvironmentPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.time.Duration;
+
+/**
+ * Applies ai.anthropic.http.keep-alive as the JDK HttpClient idle timeout.
+ *
+ * The JDK connection pool reads jdk.httpclient.keepalive.timeout (seconds, used for both
+ * HTTP/1.1 and HTTP/2 connections) once, when the first HttpClient is created. Setting it
+ * from a bean would be too late if anything else created a client first, so this runs
+ * while the environment is prepared, before any bean exists. A value already given on
+ * the command line (-Djdk.httpclient.keepalive.timeout=..) wins.
+ *
+ * Registered in META-INF/spring.factories.
+ */
+public class AnthropicHttpKeepAlive implements EnvironmentPostProcessor, Ordered {
+
+    static final String SYSTEM_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (System.getProperty(SYSTEM_PROPERTY) != null) return;
+
+        Binder.get(environment)
+                .bind("ai.anthropic.http.keep-alive", Duration.class)
+                .ifBound(keepAlive -> System.setProperty(SYSTEM_PROPERTY, Long.toString(Math.max(1, keepAlive.toSeconds()))));
+    }
+
+    @Override
+    public int getOrder() {
+        // After ConfigDataEnvironmentPostProcessor, so application*.properties are visible.
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
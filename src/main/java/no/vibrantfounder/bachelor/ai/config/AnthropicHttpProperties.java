@@ -0,0 +1,67 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Transport settings for the Anthropic HTTP client (see AnthropicHttpTransport).
+ *
+ * Three separate timeouts:
+ * - connectTimeout: TCP + TLS handshake for a new connection
+ * - readTimeout: from sending the request until the response headers arrive
+ *   (unset, or not shorter than the deadline = only the deadline applies)
+ * - ai.anthropic.timeout: total deadline for the whole exchange, headers and body
+ *
+ * HTTP_2 multiplexes concurrent calls over one TLS connection per host (negotiated with
+ * ALPN, falls back to HTTP/1.1 if the server does not offer h2). keepAlive is how long an
+ * idle connection stays in the JDK pool; the JDK reads it once per JVM, so it is applied
+ * as the jdk.httpclient.keepalive.timeout system property at startup (see
+ * AnthropicHttpKeepAlive) unless that property is already set.
+ *
+ * warmupConnections > 0 opens that many connections when the application is ready,
+ * so the first plan generation does not pay for DNS + TCP + TLS.
+ */
+@ConfigurationProperties(prefix = "ai.anthropic.http")
+public record AnthropicHttpProperties(
+        HttpClient.Version version,
+        Duration connectTimeout,
+        Duration readTimeout,
+        Integer executorThreads,
+        Duration keepAlive,
+        Integer warmupConnections,
+        String warmupPath
+) {
+    public AnthropicHttpProperties {
+        if (version == null) {
+            version = HttpClient.Version.HTTP_2;
+        }
+        if (connectTimeout == null) {
+            connectTimeout = Duration.ofSeconds(10);
+        }
+        if (executorThreads == null || executorThreads <= 0) {
+            executorThreads = 4;
+        }
+        if (keepAlive == null) {
+            keepAlive = Duration.ofSeconds(30);
+        }
+        if (warmupConnections == null || warmupConnections < 0) {
+            warmupConnections = 0;
+        }
+        if (warmupPath == null || warmupPath.isBlank()) {
+            warmupPath = "/v1/models";
+        }
+    }
+
+    /**
+     * Time allowed until the response headers arrive, or null when the total deadline
+     * is the tighter limit anyway.
+     */
+    public Duration readTimeout(Duration deadline) {
+        if (readTimeout == null || readTimeout.compareTo(deadline) >= 0) {
+            return null;
+        }
+        return readTimeout;
+    }
+}
@@ -0,0 +1,31 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.ai.client.AnthropicClient;
+import no.vibrantfounder.bachelor.ai.client.AnthropicHttpClient;
+import no.vibrantfounder.bachelor.ai.client.RecordReplayAnthropicClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Wires the record/replay client in front of the HTTP client when
+ * ai.anthropic.replay.mode is set (RECORD or REPLAY).
+ */
+@Configuration
+@EnableConfigurationProperties(AnthropicReplayProperties.class)
+public class AnthropicReplayConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "ai.anthropic.replay", name = "mode")
+    public AnthropicClient recordReplayAnthropicClient(
+            AnthropicHttpClient anthropicHttpClient,
+            ObjectMapper objectMapper,
+            AnthropicReplayProperties properties
+    ) {
+        return new RecordReplayAnthropicClient(anthropicHttpClient, objectMapper, properties);
+    }
+}
@@ -0,0 +1,46 @@
+package no.vibrantfounder.bachelor.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the record/replay Anthropic client (offline load testing).
+ *
+ * - RECORD: real calls are made and every response is saved to {@code directory}
+ * - REPLAY: no network calls; captured responses are served with simulated latency
+ *
+ * The feature is off unless ai.anthropic.replay.mode is set.
+ */
+@ConfigurationProperties(prefix = "ai.anthropic.replay")
+public record AnthropicReplayProperties(
+        Mode mode,
+        Path directory,
+        Duration latency,
+        Duration latencyJitter,
+        Boolean strict
+) {
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+
+    public AnthropicReplayProperties {
+        if (mode == null) {
+            mode = Mode.REPLAY;
+        }
+        if (directory == null) {
+            directory = Path.of("recordings");
+        }
+        if (latency == null) {
+            latency = Duration.ZERO;
+        }
+        if (latencyJitter == null) {
+            latencyJitter = Duration.ZERO;
+        }
+        if (strict == null) {
+            strict = false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+/**
+ * Receives a summary of every AI orchestrator call.
+ *
+ * Implementations run on the calling thread and must be cheap and non-throwing;
+ * anything slow (I/O, persistence) should be handed off asynchronously.
+ */
+public interface AiCallListener {
+
+    void onCallCompleted(AiCallRecord record);
+}
@@ -0,0 +1,75 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Summary of one orchestrator call (primary call plus any repair calls).
+ *
+ * Published to {@link AiCallListener}s after the call completes or fails,
+ * so telemetry never has to be threaded through domain services.
+ *
+ * @param promptId        Prompt requested by the caller
+ * @param model           Model id used for the call
+ * @param outcome         OK, REPAIRED (succeeded after the repair flow) or FAILED
+ * @param stopReason      Stop reason of the primary provider response (null if none)
+ * @param errorType       Error type when the outcome is FAILED, otherwise null
+ * @param startedAt       When the call started
+ * @param totalLatency    Wall-clock time for the whole call
+ * @param providerCalls   Every provider round-trip made for this call, in order
+ * @param correlationId   Correlation id of the request that triggered the call
+ */
+public record AiCallRecord(
+        PromptId promptId,
+        String model,
+        Outcome outcome,
+        String stopReason,
+        AiException.Type errorType,
+        Instant startedAt,
+        Duration totalLatency,
+        List<AiProviderCall> providerCalls,
+        String correlationId
+) {
+
+    public enum Outcome {
+        OK,
+        REPAIRED,
+        FAILED;
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    public boolean repairAttempted() {
+        return providerCalls.size() > 1;
+    }
+
+    public Duration providerLatency() {
+        Duration total = Duration.ZERO;
+        for (AiProviderCall call : providerCalls) {
+            total = total.plus(call.latency());
+        }
+        return total;
+    }
+
+    public long inputTokens() {
+        long total = 0;
+        for (AiProviderCall call : providerCalls) {
+            total += call.inputTokens();
+        }
+        return total;
+    }
+
+    public long outputTokens() {
+        long total = 0;
+        for (AiProviderCall call : providerCalls) {
+            total += call.outputTokens();
+        }
+        return total;
+    }
+}
@@ -1,26 +1,43 @@
 package no.vibrantfounder.bachelor.ai.observability;
 
-import java.util.regex.Pattern;
-
 /**
  * Utility for sanitizing AI-related logs to avoid leaking sensitive information.
  *
  * The goal is to reduce the risk of logging:
- * - API keys
- * - secrets
- * - personal data
+ * - API keys, bearer tokens and JWTs (also as the value of key/secret/token/password fields)
+ * - e-mail addresses
+ * - phone numbers
  * - large raw prompts/responses
  *
+ * The input is scanned once, left to right, and written straight into the caller's
+ * buffer: each word is classified as it is read and either copied or replaced, so there
+ * is no regex backtracking and no intermediate strings. Lookahead is bounded (one word,
+ * or at most {@link #PHONE_LOOKAHEAD} characters for a phone number), which keeps the
+ * cost linear in the part of the input that is actually written.
+ *
  * This implementation is intentionally conservative and can be improved iteratively.
  */
 public final class AiLoggingSanitizer {
 
-    private static final int MAX_LEN = 500;
+    public static final int MAX_LEN = 500;
+
+    static final String REDACTED = "[REDACTED]";
+    static final String EMAIL = "[EMAIL]";
+    static final String PHONE = "[PHONE]";
+    static final String ELLIPSIS = "...";
+
+    // Field names whose value is redacted; matched case-insensitively against the end of a word.
+    private static final String[] KEY_WORDS = {
+            "apikey", "api_key", "api-key", "secret", "token", "password", "authorization"
+    };
 
-    // Basic "looks like a key" pattern (conservative, not perfect)
-    private static final Pattern KEY_LIKE = Pattern.compile(
-            "(?i)(api[-_ ]?key|secret|token)\\s*[:=]\\s*[^\\s\"']+"
-    );
+    // "+47 123 45 678" is 14 characters; longer digit runs are ids or amounts, not phone numbers.
+    static final int PHONE_LOOKAHEAD = 24;
+    private static final int PHONE_MIN_DIGITS = 8;
+    private static final int PHONE_MAX_DIGITS = 15;
+    // Without a leading '+': "987 65 432" or "555-123-4567". Fewer groups are ids, epoch millis
+    // or error codes ("90011-224").
+    private static final int PHONE_MIN_GROUPS = 3;
 
     private AiLoggingSanitizer() {
         // Utility class
@@ -29,12 +46,288 @@ public final class AiLoggingSanitizer {
     public static String sanitize(String input) {
         if (input == null) return null;
 
-        String trimmed = input.strip();
-        if (trimmed.length() > MAX_LEN) {
-            trimmed = trimmed.substring(0, MAX_LEN) + "...";
+        StringBuilder out = new StringBuilder(Math.min(input.length(), MAX_LEN) + ELLIPSIS.length());
+        sanitize(input, MAX_LEN, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the stripped, redacted input to {@code out}, cut after {@code maxLength}
+     * characters (replacements included) and marked with "..." when cut.
+     */
+    public static void sanitize(CharSequence input, int maxLength, StringBuilder out) {
+        int start = 0;
+        int end = input.length();
+        while (start < end && Character.isWhitespace(input.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) end--;
+
+        new Scan(input, end, out, out.length() + maxLength).run(start);
+    }
+
+    // ---------------------------
+    // Scanner
+    // ---------------------------
+    private static final class Scan {
+
+        private final CharSequence in;
+        private final int end;
+        private final StringBuilder out;
+        private final int limit;
+        private boolean truncated;
+
+        Scan(CharSequence in, int end, StringBuilder out, int limit) {
+            this.in = in;
+            this.end = end;
+            this.out = out;
+            this.limit = limit;
+        }
+
+        void run(int i) {
+            while (i < end && !truncated) {
+                char c = in.charAt(i);
+
+                if ((c == '+' || isDigit(c)) && !isWordChar(before(i))) {
+                    int phoneEnd = phone(i);
+                    if (phoneEnd > 0) {
+                        append(PHONE);
+                        i = phoneEnd;
+                        continue;
+                    }
+                }
+
+                if (isWordChar(c)) {
+                    i = word(i, wordEnd(i));
+                } else {
+                    append(c);
+                    i++;
+                }
+            }
+
+            if (truncated || i < end) {
+                out.append(ELLIPSIS);
+            }
+        }
+
+        // ---------------------------
+        // Words: e-mails, bare keys, key fields
+        // ---------------------------
+        private int word(int from, int to) {
+            if (isEmail(from, to)) {
+                append(EMAIL);
+                return to;
+            }
+            if (isBareKey(from, to)) {
+                append(REDACTED);
+                return to;
+            }
+
+            append(from, to);
+            if (isKeyWord(from, to)) {
+                return value(to);
+            }
+            if (equalsIgnoreCase(from, to, "bearer") && to < end && in.charAt(to) == ' ') {
+                append(' ');
+                return redactRun(to + 1);
+            }
+            return to;
+        }
+
+        /**
+         * After a key word: copies {@code ": "}, {@code "="} and quotes, then redacts the value.
+         * Without a separator nothing is consumed.
+         */
+        private int value(int i) {
+            int j = i;
+            while (j < end && isQuote(in.charAt(j))) j++;
+            while (j < end && in.charAt(j) == ' ') j++;
+            if (j >= end || (in.charAt(j) != ':' && in.charAt(j) != '=')) {
+                return i;
+            }
+            j++;
+            while (j < end && (in.charAt(j) == ' ' || isQuote(in.charAt(j)))) j++;
+            append(i, j);
+
+            // "Authorization: Bearer abc" keeps the scheme and redacts the credential.
+            int schemeEnd = valueEnd(j);
+            if ((equalsIgnoreCase(j, schemeEnd, "bearer") || equalsIgnoreCase(j, schemeEnd, "basic"))
+                    && schemeEnd < end && in.charAt(schemeEnd) == ' ') {
+                append(j, schemeEnd + 1);
+                j = schemeEnd + 1;
+            }
+            return redactRun(j);
+        }
+
+        private int redactRun(int i) {
+            int valueEnd = valueEnd(i);
+            if (valueEnd > i) {
+                append(REDACTED);
+            }
+            return valueEnd;
+        }
+
+        private int valueEnd(int i) {
+            int j = i;
+            while (j < end && !isValueEnd(in.charAt(j))) j++;
+            return j;
+        }
+
+        private boolean isKeyWord(int from, int to) {
+            for (String key : KEY_WORDS) {
+                if (to - from >= key.length() && equalsIgnoreCase(to - key.length(), to, key)) {
+                    return true;
+                }
+            }
+            // "api key: ..." spelled as two words
+            return equalsIgnoreCase(from, to, "key") && from >= 4 && in.charAt(from - 1) == ' '
+                    && equalsIgnoreCase(from - 4, from - 1, "api");
+        }
+
+        private boolean isBareKey(int from, int to) {
+            int length = to - from;
+            if (length < 20) return false;
+            // Anthropic (sk-ant-...) and OpenAI style keys, and JWTs (three base64url parts).
+            if (startsWith(from, to, "sk-")) return true;
+            if (!startsWith(from, to, "eyj")) return false;
+            int dots = 0;
+            for (int i = from; i < to; i++) {
+                if (in.charAt(i) == '.') dots++;
+            }
+            return dots == 2;
+        }
+
+        private boolean isEmail(int from, int to) {
+            int at = -1;
+            int lastDot = -1;
+            for (int i = from; i < to; i++) {
+                char c = in.charAt(i);
+                if (c == '@') {
+                    if (at >= 0) return false;
+                    at = i;
+                } else if (at >= 0) {
+                    if (c == '.') {
+                        lastDot = i;
+                    } else if (!Character.isLetterOrDigit(c) && c != '-') {
+                        return false;
+                    }
+                }
+            }
+            return at > from && lastDot > at + 1 && lastDot < to - 2;
+        }
+
+        private int wordEnd(int i) {
+            int j = i;
+            while (j < end && isWordChar(in.charAt(j))) j++;
+            // A sentence-ending period does not belong to the word ("mail me at ola@x.no.").
+            while (j > i + 1 && in.charAt(j - 1) == '.') j--;
+            return j;
+        }
+
+        // ---------------------------
+        // Phone numbers
+        // ---------------------------
+
+        /**
+         * Returns the end of a phone number starting at {@code i}, or -1. Accepts 8-15 digits
+         * with single spaces or dashes between groups, either after a '+' or in at least
+         * {@link #PHONE_MIN_GROUPS} groups.
+         */
+        private int phone(int i) {
+            int stop = Math.min(end, i + PHONE_LOOKAHEAD);
+            boolean plus = in.charAt(i) == '+';
+            int j = plus ? i + 1 : i;
+            int digits = 0;
+            int groups = 1;
+            int digitsEnd = -1;
+
+            while (j < stop) {
+                char c = in.charAt(j);
+                if (isDigit(c)) {
+                    digits++;
+                    digitsEnd = ++j;
+                } else if ((c == ' ' || c == '-') && digitsEnd == j && j + 1 < stop && isDigit(in.charAt(j + 1))) {
+                    groups++;
+                    j++;
+                } else {
+                    break;
+                }
+            }
+
+            if (digits < PHONE_MIN_DIGITS || digits > PHONE_MAX_DIGITS) return -1;
+            if (!plus && groups < PHONE_MIN_GROUPS) return -1;
+            if (digitsEnd < end && isWordChar(in.charAt(digitsEnd)) && !isSentenceEnd(digitsEnd)) return -1;
+            // ISO dates ("2026-01-06", also when a time follows) are not phone numbers.
+            if (digitsEnd - i >= 10 && isDigit(in.charAt(i)) && in.charAt(i + 4) == '-' && in.charAt(i + 7) == '-') return -1;
+            return digitsEnd;
+        }
+
+        private boolean isSentenceEnd(int i) {
+            return in.charAt(i) == '.' && (i + 1 >= end || Character.isWhitespace(in.charAt(i + 1)));
+        }
+
+        // ---------------------------
+        // Output (every write is capped at the limit)
+        // ---------------------------
+        private void append(char c) {
+            if (out.length() < limit) {
+                out.append(c);
+            } else {
+                truncated = true;
+            }
+        }
+
+        private void append(String s) {
+            append(s, 0, s.length());
+        }
+
+        private void append(int from, int to) {
+            append(in, from, to);
         }
 
-        // Replace key-like fragments
-        return KEY_LIKE.matcher(trimmed).replaceAll("[REDACTED]");
+        private void append(CharSequence s, int from, int to) {
+            int room = limit - out.length();
+            if (to - from > room) {
+                to = from + Math.max(room, 0);
+                // Never leave half a surrogate pair behind.
+                if (to > from && Character.isHighSurrogate(s.charAt(to - 1))) to--;
+                truncated = true;
+            }
+            out.append(s, from, to);
+        }
+
+        // ---------------------------
+        // Character classes
+        // ---------------------------
+        private char before(int i) {
+            return i > 0 ? in.charAt(i - 1) : ' ';
+        }
+
+        private boolean startsWith(int from, int to, String prefix) {
+            return to - from >= prefix.length() && equalsIgnoreCase(from, from + prefix.length(), prefix);
+        }
+
+        private boolean equalsIgnoreCase(int from, int to, String lowerCase) {
+            if (to - from != lowerCase.length()) return false;
+            for (int i = 0; i < lowerCase.length(); i++) {
+                if (Character.toLowerCase(in.charAt(from + i)) != lowerCase.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private static boolean isWordChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '-' || c == '+' || c == '%' || c == '@';
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isQuote(char c) {
+            return c == '"' || c == '\'';
+        }
+
+        private static boolean isValueEnd(char c) {
+            return Character.isWhitespace(c) || isQuote(c)
+                    || c == ',' || c == ';' || c == '&' || c == '}' || c == ']' || c == ')';
+        }
     }
 }
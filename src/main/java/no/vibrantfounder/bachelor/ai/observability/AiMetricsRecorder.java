@@ -0,0 +1,98 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import no.vibrantfounder.bachelor.ai.config.AiPricingProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes Micrometer metrics for every AI call (exposed on /actuator/prometheus).
+ *
+ * Meters:
+ * - ai.call.duration      timer per orchestrator call (prompt, model, outcome, stop_reason)
+ * - ai.provider.latency   timer per provider round-trip (prompt, model, status, stop_reason)
+ * - ai.tokens             counter of tokens (prompt, model, type=input|output)
+ * - ai.cost.estimated     counter of estimated cost in USD (prompt, model)
+ *
+ * Repair rate = ai.call.duration count{outcome="repaired"} / count over all outcomes.
+ */
+@Component
+public class AiMetricsRecorder implements AiCallListener {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final AiPricingProperties pricing;
+
+    public AiMetricsRecorder(MeterRegistry registry, AiPricingProperties pricing) {
+        this.registry = registry;
+        this.pricing = pricing;
+    }
+
+    @Override
+    public void onCallCompleted(AiCallRecord record) {
+        String model = tagValue(record.model());
+
+        Timer.builder("ai.call.duration")
+                .description("End-to-end AI orchestrator call, including repair")
+                .tags(Tags.of(
+                        "prompt", record.promptId().name(),
+                        "model", model,
+                        "outcome", record.outcome().tag(),
+                        "stop_reason", tagValue(record.stopReason())
+                ))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(record.totalLatency());
+
+        for (AiProviderCall call : record.providerCalls()) {
+            recordProviderCall(call);
+        }
+    }
+
+    private void recordProviderCall(AiProviderCall call) {
+        String prompt = call.promptId().name();
+        String model = tagValue(call.model());
+
+        Timer.builder("ai.provider.latency")
+                .description("Latency of a single AI provider request")
+                .tags(Tags.of(
+                        "prompt", prompt,
+                        "model", model,
+                        "status", call.succeeded() ? "success" : call.errorType().name().toLowerCase(),
+                        "stop_reason", tagValue(call.stopReason())
+                ))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(call.latency());
+
+        if (!call.succeeded()) {
+            return;
+        }
+
+        Counter.builder("ai.tokens")
+                .description("Tokens consumed by AI provider requests")
+                .tags("prompt", prompt, "model", model, "type", "input")
+                .register(registry)
+                .increment(call.inputTokens());
+
+        Counter.builder("ai.tokens")
+                .description("Tokens consumed by AI provider requests")
+                .tags("prompt", prompt, "model", model, "type", "output")
+                .register(registry)
+                .increment(call.outputTokens());
+
+        Counter.builder("ai.cost.estimated")
+                .description("Estimated AI provider cost")
+                .baseUnit("usd")
+                .tags("prompt", prompt, "model", model)
+                .register(registry)
+                .increment(pricing.estimateUsd(call.model(), call.inputTokens(), call.outputTokens()));
+    }
+
+    private static String tagValue(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+}
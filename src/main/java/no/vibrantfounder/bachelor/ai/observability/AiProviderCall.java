@@ -0,0 +1,31 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+
+import java.time.Duration;
+
+/**
+ * A single request/response round-trip to the AI provider.
+ *
+ * @param promptId     Prompt that was sent (the repair prompt is recorded as its own call)
+ * @param model        Model id used for the request
+ * @param latency      Wall-clock time spent waiting for the provider
+ * @param stopReason   Provider stop reason, or null if the call failed
+ * @param inputTokens  Input tokens reported by the provider (0 if unknown)
+ * @param outputTokens Output tokens reported by the provider (0 if unknown)
+ * @param errorType    Error type if the call failed, otherwise null
+ */
+public record AiProviderCall(
+        PromptId promptId,
+        String model,
+        Duration latency,
+        String stopReason,
+        long inputTokens,
+        long outputTokens,
+        AiException.Type errorType
+) {
+    public boolean succeeded() {
+        return errorType == null;
+    }
+}
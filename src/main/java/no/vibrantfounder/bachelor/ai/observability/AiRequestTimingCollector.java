@@ -0,0 +1,49 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the current request's {@link AiRequestTimings}.
+ *
+ * - As an ObservationHandler it times the AI stage observations (render, provider call,
+ *   parse, repair, validate) and plan persistence, reusing the spans that are already there.
+ * - As an AiCallListener it adds prompt id, model, outcome and tokens of every call.
+ *
+ * Outside a request (scheduled jobs, benchmarks) there are no timings and both sides are no-ops.
+ */
+@Component
+public class AiRequestTimingCollector implements ObservationHandler<Observation.Context>, AiCallListener {
+
+    private static final String START_NANOS = AiRequestTimingCollector.class.getName() + ".start";
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return AiRequestTimings.Stage.forObservation(context.getName()) != null;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (AiRequestTimings.current() != null) {
+            context.put(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        AiRequestTimings timings = AiRequestTimings.current();
+        Long start = context.get(START_NANOS);
+        if (timings != null && start != null) {
+            timings.addStage(AiRequestTimings.Stage.forObservation(context.getName()), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onCallCompleted(AiCallRecord record) {
+        AiRequestTimings timings = AiRequestTimings.current();
+        if (timings != null) {
+            timings.addCall(record);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-request accumulator of AI stage timings, tokens and outcome.
+ *
+ * Bound to the request thread by AiRequestSummaryFilter and filled by
+ * {@link AiRequestTimingCollector} from the stage observations and {@link AiCallRecord}s.
+ * Stages overlap where the observations nest: REPAIR includes the render and provider
+ * time of the repair call, which are also counted under RENDER and PROVIDER.
+ *
+ * Not thread-safe; only the request thread writes to it.
+ */
+public final class AiRequestTimings {
+
+    public enum Stage {
+        RENDER("ai.prompt.render"),
+        PROVIDER("ai.provider.call"),
+        PARSE("ai.output.parse"),
+        REPAIR("ai.output.repair"),
+        VALIDATE("ai.output.validate"),
+        PERSIST("marketing.plan.persist");
+
+        private static final Map<String, Stage> BY_OBSERVATION = Stream.of(values())
+                .collect(Collectors.toUnmodifiableMap(s -> s.observation, Function.identity()));
+
+        private final String observation;
+
+        Stage(String observation) {
+            this.observation = observation;
+        }
+
+        public String key() {
+            return name().toLowerCase() + "Ms";
+        }
+
+        public static Stage forObservation(String name) {
+            return name == null ? null : BY_OBSERVATION.get(name);
+        }
+    }
+
+    private static final ThreadLocal<AiRequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] stageNanos = new long[Stage.values().length];
+    private final List<PromptId> prompts = new ArrayList<>(1);
+
+    private String correlationId;
+    private String model;
+    private AiCallRecord.Outcome outcome;
+    private AiException.Type errorType;
+    private int providerCalls;
+    private long inputTokens;
+    private long outputTokens;
+
+    // ---------------------------
+    // Request binding
+    // ---------------------------
+    public static AiRequestTimings begin() {
+        AiRequestTimings timings = new AiRequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static AiRequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    // ---------------------------
+    // Collection
+    // ---------------------------
+    void addStage(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    void addCall(AiCallRecord record) {
+        prompts.add(record.promptId());
+        if (correlationId == null) correlationId = record.correlationId();
+        if (model == null) model = record.model();
+        // A request is as bad as its worst call (OK < REPAIRED < FAILED).
+        if (outcome == null || record.outcome().ordinal() > outcome.ordinal()) {
+            outcome = record.outcome();
+            errorType = record.errorType();
+        }
+        providerCalls += record.providerCalls().size();
+        inputTokens += record.inputTokens();
+        outputTokens += record.outputTokens();
+    }
+
+    // ---------------------------
+    // Read side
+    // ---------------------------
+    public boolean hasAiCalls() {
+        return !prompts.isEmpty();
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long stageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public String correlationId() {
+        return correlationId;
+    }
+
+    /**
+     * Prompt ids in call order, comma separated (usually just one).
+     */
+    public String promptIds() {
+        return prompts.size() == 1
+                ? prompts.get(0).name()
+                : prompts.stream().map(PromptId::name).collect(Collectors.joining(","));
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public AiCallRecord.Outcome outcome() {
+        return outcome;
+    }
+
+    public AiException.Type errorType() {
+        return errorType;
+    }
+
+    public int aiCalls() {
+        return prompts.size();
+    }
+
+    public int providerCalls() {
+        return providerCalls;
+    }
+
+    public long inputTokens() {
+        return inputTokens;
+    }
+
+    public long outputTokens() {
+        return outputTokens;
+    }
+}
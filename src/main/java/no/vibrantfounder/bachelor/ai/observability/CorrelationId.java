@@ -8,6 +8,11 @@ package no.vibrantfounder.bachelor.ai.observability;
  */
 public final class CorrelationId {
 
+    /**
+     * Key used for span attributes and context propagation across executors.
+     */
+    public static final String KEY = "correlation.id";
+
     private static final ThreadLocal<String> CORRELATION_ID = new ThreadLocal<>();
 
     private CorrelationId() {
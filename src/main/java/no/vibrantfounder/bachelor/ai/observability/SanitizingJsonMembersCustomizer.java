@@ -0,0 +1,35 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import org.springframework.boot.json.JsonWriter;
+import org.springframework.boot.logging.structured.StructuredLoggingJsonMembersCustomizer;
+import org.springframework.core.env.Environment;
+
+/**
+ * Structured (JSON) logging counterpart of {@link SanitizingMessageConverter}: runs the
+ * "message" member through {@link AiLoggingSanitizer} before it is written.
+ *
+ * Registered with logging.structured.json.customizer and instantiated by Spring Boot's
+ * StructuredLogEncoder, which passes the Environment.
+ */
+public class SanitizingJsonMembersCustomizer implements StructuredLoggingJsonMembersCustomizer<Object> {
+
+    private final int maxLength;
+
+    public SanitizingJsonMembersCustomizer(Environment environment) {
+        this.maxLength = environment.getProperty(
+                "logging.sanitize.max-length", Integer.class, SanitizingMessageConverter.DEFAULT_MAX_LENGTH);
+    }
+
+    @Override
+    public void customize(JsonWriter.Members<Object> members) {
+        members.applyingValueProcessor(JsonWriter.ValueProcessor.of(String.class, this::sanitize).whenHasPath("message"));
+    }
+
+    private String sanitize(String message) {
+        if (message == null) return null;
+
+        StringBuilder out = new StringBuilder(Math.min(message.length(), maxLength) + AiLoggingSanitizer.ELLIPSIS.length());
+        AiLoggingSanitizer.sanitize(message, maxLength, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+
+/**
+ * Logback converter for %m/%msg/%message that runs every message through {@link AiLoggingSanitizer}.
+ *
+ * Registered in logback-spring.xml. Converters only run for events that passed the level
+ * check, so a disabled DEBUG prompt/output log costs nothing beyond the level check itself;
+ * call sites should pass payloads as {} arguments rather than building strings up front.
+ *
+ * SLF4J key/value pairs ({@code log.atInfo().addKeyValue(..)}) follow the message as
+ * " key=value", sanitized the same way, since Boot's console pattern has no %kvp.
+ * In JSON logs the pairs are fields of their own and {@link SanitizingJsonMembersCustomizer}
+ * sanitizes the message.
+ *
+ * The maximum length comes from the first option ({@code %m{4000}}) or the context
+ * property {@value #MAX_LENGTH_PROPERTY} (logging.sanitize.max-length).
+ */
+public class SanitizingMessageConverter extends ClassicConverter {
+
+    static final String MAX_LENGTH_PROPERTY = "LOG_SANITIZE_MAX_LENGTH";
+    static final int DEFAULT_MAX_LENGTH = 2000;
+
+    private int maxLength = DEFAULT_MAX_LENGTH;
+
+    @Override
+    public void start() {
+        String option = getFirstOption();
+        if (option == null && getContext() != null) {
+            option = getContext().getProperty(MAX_LENGTH_PROPERTY);
+        }
+        if (option != null && !option.isBlank()) {
+            try {
+                maxLength = Integer.parseInt(option.trim());
+            } catch (NumberFormatException e) {
+                addWarn("Invalid log sanitize max length '" + option + "', using " + DEFAULT_MAX_LENGTH);
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        if (message == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder(Math.min(message.length(), maxLength) + AiLoggingSanitizer.ELLIPSIS.length());
+        AiLoggingSanitizer.sanitize(message, maxLength, out);
+
+        List<KeyValuePair> pairs = event.getKeyValuePairs();
+        if (pairs != null) {
+            for (KeyValuePair pair : pairs) {
+                out.append(' ').append(pair.key).append('=');
+                AiLoggingSanitizer.sanitize(String.valueOf(pair.value), maxLength, out);
+            }
+        }
+        return out.toString();
+    }
+}
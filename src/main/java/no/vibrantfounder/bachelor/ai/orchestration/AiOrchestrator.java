@@ -1,16 +1,29 @@
 package no.vibrantfounder.bachelor.ai.orchestration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import no.vibrantfounder.bachelor.ai.client.AnthropicClient;
 import no.vibrantfounder.bachelor.ai.client.dto.AnthropicContentBlock;
 import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessage;
 import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageRequest;
 import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageResponse;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicUsage;
+import no.vibrantfounder.bachelor.ai.observability.AiCallListener;
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import no.vibrantfounder.bachelor.ai.observability.AiProviderCall;
+import no.vibrantfounder.bachelor.ai.observability.CorrelationId;
 import no.vibrantfounder.bachelor.ai.prompting.PromptId;
 import no.vibrantfounder.bachelor.ai.prompting.PromptRenderer;
 import no.vibrantfounder.bachelor.ai.prompting.PromptTemplateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,15 +37,24 @@ import java.util.stream.Collectors;
  * - Parse structured JSON output
  * - Validate AI results
  * - Provide robust error handling (including JSON repair)
+ * - Publish a per-call summary (latency, tokens, outcome) to AiCallListeners
+ * - Trace each stage (render, provider call, parse, repair, validate) as an observation/span
  */
 @Service
 public class AiOrchestrator {
 
+    private static final Logger log = LoggerFactory.getLogger(AiOrchestrator.class);
+    // Prompts and outputs carry user input. Own logger at TRACE, so turning the ai package up to
+    // DEBUG does not log them; enable logging.level.no.vibrantfounder.bachelor.ai.payload=TRACE locally.
+    private static final Logger payloadLog = LoggerFactory.getLogger("no.vibrantfounder.bachelor.ai.payload");
+
     private final AnthropicClient anthropicClient;
     private final PromptTemplateService promptTemplateService;
     private final PromptRenderer promptRenderer;
     private final ObjectMapper objectMapper;
     private final OutputValidator<Object> outputValidator;
+    private final List<AiCallListener> callListeners;
+    private final ObservationRegistry observationRegistry;
 
     // One repair attempt is usually enough; keep it tight to avoid loops.
     private static final int MAX_REPAIR_ATTEMPTS = 1;
@@ -42,13 +64,17 @@ public class AiOrchestrator {
             PromptTemplateService promptTemplateService,
             PromptRenderer promptRenderer,
             ObjectMapper objectMapper,
-            OutputValidator<Object> outputValidator
+            OutputValidator<Object> outputValidator,
+            ObjectProvider<AiCallListener> callListeners,
+            ObservationRegistry observationRegistry
     ) {
         this.anthropicClient = anthropicClient;
         this.promptTemplateService = promptTemplateService;
         this.promptRenderer = promptRenderer;
         this.objectMapper = objectMapper;
         this.outputValidator = outputValidator;
+        this.callListeners = callListeners.orderedStream().toList();
+        this.observationRegistry = observationRegistry;
     }
 
     public <T> AiResult<T> callForJson(
@@ -56,10 +82,52 @@ public class AiOrchestrator {
             Map<String, String> variables,
             Class<T> targetClass,
             AiCallOptions options
+    ) {
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        List<AiProviderCall> providerCalls = new ArrayList<>(2);
+
+        Observation observation = Observation.createNotStarted("ai.call", observationRegistry)
+                .lowCardinalityKeyValue("ai.prompt", promptId.name())
+                .lowCardinalityKeyValue("ai.model", options.model())
+                .start();
+
+        try (Observation.Scope ignored = observation.openScope()) {
+            AiResult<T> result = doCallForJson(promptId, variables, targetClass, options, providerCalls);
+            AiCallRecord.Outcome outcome = providerCalls.size() > 1 ? AiCallRecord.Outcome.REPAIRED : AiCallRecord.Outcome.OK;
+            observation.lowCardinalityKeyValue("ai.outcome", outcome.tag());
+            publish(new AiCallRecord(
+                    promptId, options.model(), outcome, result.stopReason(), null,
+                    startedAt, Duration.ofNanos(System.nanoTime() - startNanos), List.copyOf(providerCalls), CorrelationId.get()
+            ));
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("ai.outcome", AiCallRecord.Outcome.FAILED.tag());
+            observation.error(e);
+            String stopReason = providerCalls.isEmpty() ? null : providerCalls.get(0).stopReason();
+            publish(new AiCallRecord(
+                    promptId, options.model(), AiCallRecord.Outcome.FAILED, stopReason, errorType(e),
+                    startedAt, Duration.ofNanos(System.nanoTime() - startNanos), List.copyOf(providerCalls), CorrelationId.get()
+            ));
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private <T> AiResult<T> doCallForJson(
+            PromptId promptId,
+            Map<String, String> variables,
+            Class<T> targetClass,
+            AiCallOptions options,
+            List<AiProviderCall> providerCalls
     ) {
         // 1) Primary call
-        AnthropicMessageResponse primaryResponse = callAnthropic(promptId, variables, options);
+        AnthropicMessageResponse primaryResponse = callAnthropic(promptId, variables, options, providerCalls);
         String rawText = extractText(primaryResponse);
+        // Payloads go in as arguments: nothing is formatted unless TRACE is on, and the
+        // log encoder redacts and truncates them (AiLoggingSanitizer).
+        payloadLog.trace("AI output prompt={} text={}", promptId, rawText);
 
         if (rawText == null || rawText.isBlank()) {
             throw new AiException(AiException.Type.BAD_OUTPUT, "AI returned empty response.");
@@ -80,7 +148,9 @@ public class AiOrchestrator {
         }
 
         // 3) Repair flow
-        String repaired = tryRepairJson(rawText, options);
+        String repaired = Observation.createNotStarted("ai.output.repair", observationRegistry)
+                .lowCardinalityKeyValue("ai.prompt", promptId.name())
+                .observe(() -> tryRepairJson(rawText, options, providerCalls));
         if (repaired == null || repaired.isBlank()) {
             throw new AiException(AiException.Type.BAD_OUTPUT, "AI returned invalid JSON output.");
         }
@@ -106,9 +176,11 @@ public class AiOrchestrator {
     }
 
     private <T> T parseAndValidate(String rawText, Class<T> targetClass) throws Exception {
-        String json = extractJsonObjectLenient(rawText);
-        T parsed = objectMapper.readValue(json, targetClass);
-        outputValidator.validate(parsed);
+        T parsed = Observation.createNotStarted("ai.output.parse", observationRegistry)
+                .observeChecked(() -> objectMapper.readValue(extractJsonObjectLenient(rawText), targetClass));
+
+        Observation.createNotStarted("ai.output.validate", observationRegistry)
+                .observe(() -> outputValidator.validate(parsed));
         return parsed;
     }
 
@@ -125,16 +197,35 @@ public class AiOrchestrator {
         );
     }
 
-    private AnthropicMessageResponse callAnthropic(PromptId promptId, Map<String, String> variables, AiCallOptions options) {
-        String systemPrompt = promptRenderer.render(
-                promptTemplateService.loadSystem(promptId),
-                variables
-        );
+    private AnthropicMessageResponse callAnthropic(
+            PromptId promptId,
+            Map<String, String> variables,
+            AiCallOptions options,
+            List<AiProviderCall> providerCalls
+    ) {
+        Observation render = Observation.createNotStarted("ai.prompt.render", observationRegistry)
+                .lowCardinalityKeyValue("ai.prompt", promptId.name())
+                .start();
 
-        String userPrompt = promptRenderer.render(
-                promptTemplateService.loadUser(promptId),
-                variables
-        );
+        String systemPrompt;
+        String userPrompt;
+        try {
+            systemPrompt = promptRenderer.render(
+                    promptTemplateService.loadSystem(promptId),
+                    variables
+            );
+
+            userPrompt = promptRenderer.render(
+                    promptTemplateService.loadUser(promptId),
+                    variables
+            );
+        } catch (RuntimeException e) {
+            render.error(e);
+            throw e;
+        } finally {
+            render.stop();
+        }
+        payloadLog.trace("AI prompt prompt={} model={} user={}", promptId, options.model(), userPrompt);
 
         AnthropicMessageRequest request = new AnthropicMessageRequest(
                 options.model(),
@@ -149,10 +240,53 @@ public class AiOrchestrator {
                 )
         );
 
-        return anthropicClient.createMessage(request);
+        Observation providerCall = Observation.createNotStarted("ai.provider.call", observationRegistry)
+                .lowCardinalityKeyValue("ai.prompt", promptId.name())
+                .lowCardinalityKeyValue("ai.model", options.model())
+                .start();
+
+        long startNanos = System.nanoTime();
+        try (Observation.Scope ignored = providerCall.openScope()) {
+            AnthropicMessageResponse response = anthropicClient.createMessage(request);
+            providerCall.lowCardinalityKeyValue("ai.stop_reason", response == null || response.stop_reason() == null ? "none" : response.stop_reason());
+            AnthropicUsage usage = response == null ? null : response.usage();
+            providerCalls.add(new AiProviderCall(
+                    promptId,
+                    options.model(),
+                    Duration.ofNanos(System.nanoTime() - startNanos),
+                    response == null ? null : response.stop_reason(),
+                    usage == null || usage.input_tokens() == null ? 0 : usage.input_tokens(),
+                    usage == null || usage.output_tokens() == null ? 0 : usage.output_tokens(),
+                    null
+            ));
+            return response;
+        } catch (RuntimeException e) {
+            providerCall.error(e);
+            providerCalls.add(new AiProviderCall(
+                    promptId, options.model(), Duration.ofNanos(System.nanoTime() - startNanos), null, 0, 0, errorType(e)
+            ));
+            throw e;
+        } finally {
+            providerCall.stop();
+        }
+    }
+
+    private void publish(AiCallRecord record) {
+        for (AiCallListener listener : callListeners) {
+            try {
+                listener.onCallCompleted(record);
+            } catch (RuntimeException e) {
+                // Telemetry must never break the AI call itself.
+                log.warn("AiCallListener {} failed: {}", listener.getClass().getSimpleName(), e.toString());
+            }
+        }
+    }
+
+    private static AiException.Type errorType(RuntimeException e) {
+        return e instanceof AiException ai && ai.getType() != null ? ai.getType() : AiException.Type.PROVIDER_ERROR;
     }
 
-    private String tryRepairJson(String rawText, AiCallOptions options) {
+    private String tryRepairJson(String rawText, AiCallOptions options, List<AiProviderCall> providerCalls) {
         PromptId repairPrompt = PromptId.FORMAT_REPAIR_V1;
 
         Map<String, String> repairVars = Map.of("raw_output", rawText);
@@ -160,8 +294,9 @@ public class AiOrchestrator {
         String last = null;
 
         for (int attempt = 0; attempt < MAX_REPAIR_ATTEMPTS; attempt++) {
-            AnthropicMessageResponse repairResponse = callAnthropic(repairPrompt, repairVars, options);
+            AnthropicMessageResponse repairResponse = callAnthropic(repairPrompt, repairVars, options, providerCalls);
             last = extractText(repairResponse);
+            payloadLog.trace("AI repair output attempt={} text={}", attempt + 1, last);
 
             if (last == null || last.isBlank()) continue;
 
@@ -194,8 +329,10 @@ public class AiOrchestrator {
      * - accepts ```json fences
      * - accepts extra text before/after JSON
      * - DOES NOT do brace-balance hard fail (we let parser decide, then repair)
+     *
+     * Package-private and static so it can be benchmarked in isolation.
      */
-    private String extractJsonObjectLenient(String rawText) {
+    static String extractJsonObjectLenient(String rawText) {
         String s = rawText == null ? "" : rawText.trim();
 
         // Strip ```json ... ``` or ``` ... ```
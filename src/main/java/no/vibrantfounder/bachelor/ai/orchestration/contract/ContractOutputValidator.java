@@ -0,0 +1,45 @@
+package no.vibrantfounder.bachelor.ai.orchestration.contract;
+
+import no.vibrantfounder.bachelor.ai.orchestration.OutputValidator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link OutputValidator} backed by a fixed set of precompiled {@link OutputContract}s.
+ *
+ * The contract is looked up by the exact runtime class of the output. Types without
+ * a registered contract pass through unchecked, so one validator can serve every
+ * target class the orchestrator is asked to parse.
+ */
+public class ContractOutputValidator implements OutputValidator<Object> {
+
+    private final Map<Class<?>, OutputContract<?>> contracts;
+
+    public ContractOutputValidator(List<OutputContract<?>> contracts) {
+        Map<Class<?>, OutputContract<?>> byType = new HashMap<>();
+        for (OutputContract<?> contract : contracts) {
+            if (byType.put(contract.targetType(), contract) != null) {
+                throw new IllegalStateException("Duplicate output contract for " + contract.targetType().getName());
+            }
+        }
+        this.contracts = Map.copyOf(byType);
+    }
+
+    @Override
+    public void validate(Object output) {
+        if (output == null) {
+            return;
+        }
+        OutputContract<?> contract = contracts.get(output.getClass());
+        if (contract != null) {
+            enforce(contract, output);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void enforce(OutputContract<T> contract, Object output) {
+        contract.enforce((T) output);
+    }
+}
@@ -0,0 +1,81 @@
+package no.vibrantfounder.bachelor.ai.orchestration.contract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable per-check state: the current field path (as a stack) and the violations found so far.
+ *
+ * The path is kept as parallel arrays of field names and indexes and is only turned into
+ * a string when something is reported. This keeps the happy path free of string building.
+ */
+final class ContractViolations {
+
+    static final int NO_INDEX = -1;
+
+    private static final int INITIAL_DEPTH = 8;
+
+    private String[] fields = new String[INITIAL_DEPTH];
+    private int[] indexes = new int[INITIAL_DEPTH];
+    private int depth;
+
+    private List<String> violations;
+
+    void push(String field, int index) {
+        if (depth == fields.length) {
+            fields = Arrays.copyOf(fields, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+        fields[depth] = field;
+        indexes[depth] = index;
+        depth++;
+    }
+
+    void pop() {
+        depth--;
+    }
+
+    void report(String field, String message) {
+        add(render(field, NO_INDEX, message));
+    }
+
+    void reportElement(String field, int index, String message) {
+        add(render(field, index, message));
+    }
+
+    List<String> toList() {
+        return violations == null ? List.of() : List.copyOf(violations);
+    }
+
+    private void add(String violation) {
+        if (violations == null) {
+            violations = new ArrayList<>();
+        }
+        violations.add(violation);
+    }
+
+    private String render(String field, int index, String message) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < depth; i++) {
+            appendSegment(sb, fields[i], indexes[i]);
+        }
+        if (field != null) {
+            appendSegment(sb, field, index);
+        }
+        if (sb.isEmpty()) {
+            sb.append("output");
+        }
+        return sb.append(' ').append(message).toString();
+    }
+
+    private static void appendSegment(StringBuilder sb, String field, int index) {
+        if (!sb.isEmpty()) {
+            sb.append('.');
+        }
+        sb.append(field);
+        if (index != NO_INDEX) {
+            sb.append('[').append(index).append(']');
+        }
+    }
+}
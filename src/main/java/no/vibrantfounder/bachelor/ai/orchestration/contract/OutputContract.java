@@ -0,0 +1,214 @@
+package no.vibrantfounder.bachelor.ai.orchestration.contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Declarative, precompiled output contract for a parsed AI result type.
+ *
+ * A contract is built once per target class (typically as a static constant) from
+ * plain accessor method references, so checking an object involves no reflection.
+ *
+ * Design notes:
+ * - Field paths (e.g. "platformPlans[2].hooks[0]") are only rendered when a rule fails,
+ *   so a valid object is checked without building any strings.
+ * - All violations are collected instead of failing at the first one, which gives the
+ *   repair prompt and the logs the full picture in one pass.
+ */
+public final class OutputContract<T> {
+
+    private final Class<T> targetType;
+    private final Rule<T>[] rules;
+
+    private OutputContract(Class<T> targetType, Rule<T>[] rules) {
+        this.targetType = targetType;
+        this.rules = rules;
+    }
+
+    public static <T> Builder<T> builder(Class<T> targetType) {
+        return new Builder<>(targetType);
+    }
+
+    public Class<T> targetType() {
+        return targetType;
+    }
+
+    /**
+     * Check the object and return all violations (empty list when valid).
+     */
+    public List<String> check(T target) {
+        ContractViolations violations = new ContractViolations();
+        if (target == null) {
+            violations.report(null, "must not be null");
+        } else {
+            apply(target, violations);
+        }
+        return violations.toList();
+    }
+
+    /**
+     * Check the object and throw if any rule is violated.
+     */
+    public void enforce(T target) {
+        List<String> violations = check(target);
+        if (!violations.isEmpty()) {
+            throw new OutputContractException(targetType, violations);
+        }
+    }
+
+    void apply(T target, ContractViolations violations) {
+        for (Rule<T> rule : rules) {
+            rule.apply(target, violations);
+        }
+    }
+
+    @FunctionalInterface
+    interface Rule<T> {
+        void apply(T target, ContractViolations violations);
+    }
+
+    /**
+     * Collects the rules of a contract. Messages mirror the wording the hand-written
+     * validators used, so log output and repair prompts stay recognizable.
+     */
+    public static final class Builder<T> {
+
+        private final Class<T> targetType;
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder(Class<T> targetType) {
+            this.targetType = Objects.requireNonNull(targetType, "targetType");
+        }
+
+        public Builder<T> notNull(String field, Function<T, ?> getter) {
+            rules.add((t, v) -> {
+                if (getter.apply(t) == null) {
+                    v.report(field, "must not be null");
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> notBlank(String field, Function<T, String> getter) {
+            rules.add((t, v) -> {
+                if (isBlank(getter.apply(t))) {
+                    v.report(field, "must not be blank");
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> intBetween(String field, ToIntFunction<T> getter, int min, int max) {
+            String message = "must be between " + min + " and " + max;
+            rules.add((t, v) -> {
+                int value = getter.applyAsInt(t);
+                if (value < min || value > max) {
+                    v.report(field, message);
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> doubleBetween(String field, ToDoubleFunction<T> getter, double min, double max) {
+            String message = "must be between " + min + " and " + max;
+            rules.add((t, v) -> {
+                double value = getter.applyAsDouble(t);
+                if (Double.isNaN(value) || value < min || value > max) {
+                    v.report(field, message);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * List must be present and its size within [min, max]. Use {@link Integer#MAX_VALUE}
+         * for an open upper bound.
+         */
+        public Builder<T> size(String field, Function<T, ? extends List<?>> getter, int min, int max) {
+            String message = sizeMessage(min, max);
+            rules.add((t, v) -> {
+                List<?> list = getter.apply(t);
+                if (list == null) {
+                    v.report(field, "must not be null");
+                } else if (list.size() < min || list.size() > max) {
+                    v.report(field, message);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Every element of the list (if present) must be a non-blank string.
+         */
+        public Builder<T> eachNotBlank(String field, Function<T, ? extends List<String>> getter) {
+            rules.add((t, v) -> {
+                List<String> list = getter.apply(t);
+                if (list == null) return;
+                for (int i = 0; i < list.size(); i++) {
+                    if (isBlank(list.get(i))) {
+                        v.reportElement(field, i, "must not be blank");
+                    }
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Nested object must be present and satisfy the given contract.
+         */
+        public <N> Builder<T> nested(String field, Function<T, N> getter, OutputContract<N> contract) {
+            rules.add((t, v) -> {
+                N value = getter.apply(t);
+                if (value == null) {
+                    v.report(field, "must not be null");
+                    return;
+                }
+                v.push(field, ContractViolations.NO_INDEX);
+                contract.apply(value, v);
+                v.pop();
+            });
+            return this;
+        }
+
+        /**
+         * Every element of the list (if present) must be non-null and satisfy the given contract.
+         */
+        public <E> Builder<T> each(String field, Function<T, ? extends List<E>> getter, OutputContract<E> contract) {
+            rules.add((t, v) -> {
+                List<E> list = getter.apply(t);
+                if (list == null) return;
+                for (int i = 0; i < list.size(); i++) {
+                    E element = list.get(i);
+                    if (element == null) {
+                        v.reportElement(field, i, "must not be null");
+                        continue;
+                    }
+                    v.push(field, i);
+                    contract.apply(element, v);
+                    v.pop();
+                }
+            });
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public OutputContract<T> build() {
+            return new OutputContract<>(targetType, rules.toArray(Rule[]::new));
+        }
+
+        private static String sizeMessage(int min, int max) {
+            if (max == Integer.MAX_VALUE) {
+                return min <= 1 ? "must not be empty" : "must have at least " + min + " items";
+            }
+            return "must have between " + min + " and " + max + " items";
+        }
+
+        private static boolean isBlank(String s) {
+            return s == null || s.isBlank();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package no.vibrantfounder.bachelor.ai.orchestration.contract;
+
+import java.util.List;
+
+/**
+ * Thrown when parsed AI output violates its {@link OutputContract}.
+ *
+ * Extends IllegalArgumentException so the orchestrator treats it like the
+ * previous hand-written validation failures (i.e. it triggers the repair flow).
+ */
+public class OutputContractException extends IllegalArgumentException {
+
+    private final Class<?> targetType;
+    private final List<String> violations;
+
+    public OutputContractException(Class<?> targetType, List<String> violations) {
+        super(targetType.getSimpleName() + " violates output contract: " + String.join("; ", violations));
+        this.targetType = targetType;
+        this.violations = List.copyOf(violations);
+    }
+
+    public Class<?> getTargetType() {
+        return targetType;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
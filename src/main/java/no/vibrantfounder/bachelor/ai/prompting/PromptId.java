@@ -15,6 +15,12 @@ public enum PromptId {
      */
     MARKETING_PLAN_V1,
 
+    /**
+     * Regenerates one part of an existing plan (calendar range, one platform
+     * or the content ideas) from a slice of the stored plan.
+     */
+    MARKETING_PLAN_REFRESH_V1,
+
     /**
      * Repairs invalid or malformed AI output into valid JSON
      * that conforms to the expected output schema.
@@ -35,6 +35,7 @@ public class PromptTemplateService {
     private String baseName(PromptId id) {
         return switch (id) {
             case MARKETING_PLAN_V1 -> "marketing_plan_v1";
+            case MARKETING_PLAN_REFRESH_V1 -> "marketing_plan_refresh_v1";
             case FORMAT_REPAIR_V1 -> "format_repair_v1";
         };
     }
@@ -0,0 +1,116 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.vibrantfounder.bachelor.ai.config.AiUsageProperties;
+import no.vibrantfounder.bachelor.ai.observability.AiCallListener;
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists every AI call to the ai_call table without blocking the request thread.
+ *
+ * Records are put on a bounded queue and drained by a single background thread
+ * that inserts them in JDBC batches. If the queue is full (DB down or very slow),
+ * records are dropped and counted rather than slowing down plan generation.
+ */
+@Component
+public class AiCallLogWriter implements AiCallListener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AiCallLogWriter.class);
+
+    private final AiUsageRepository repository;
+    private final AiUsageProperties properties;
+    private final BlockingQueue<AiCallRecord> queue;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AiCallLogWriter(AiUsageRepository repository, AiUsageProperties properties, MeterRegistry registry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.dropped = Counter.builder("ai.usage.dropped")
+                .description("AI call records dropped because the write queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void onCallCompleted(AiCallRecord record) {
+        if (!properties.enabled()) return;
+
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("ai-call-log-writer")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<AiCallRecord> batch = new ArrayList<>(properties.batchSize());
+        long flushMillis = properties.flushInterval().toMillis();
+
+        while (running) {
+            try {
+                AiCallRecord first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+
+        // Final flush on shutdown so we don't lose what is already queued.
+        while (queue.drainTo(batch, properties.batchSize()) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AiCallRecord> batch) {
+        try {
+            repository.insertBatch(batch);
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.warn("Failed to persist {} AI call records: {}", batch.size(), e.toString());
+        } finally {
+            batch.clear();
+        }
+    }
+}
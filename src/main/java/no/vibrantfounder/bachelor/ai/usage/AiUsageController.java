@@ -0,0 +1,44 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AI usage aggregates for operators.
+ *
+ * The numbers span all users (ai_call rows are not tied to a user), so the endpoints
+ * require the ADMIN role (SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/ai/usage")
+public class AiUsageController {
+
+    private static final int MAX_DAYS = 366;
+
+    private final AiUsageRepository aiUsageRepository;
+
+    public AiUsageController(AiUsageRepository aiUsageRepository) {
+        this.aiUsageRepository = aiUsageRepository;
+    }
+
+    // ---------------------------
+    // DAILY AGGREGATES (p50/p95 latency + tokens per prompt per day)
+    // GET /api/v1/ai/usage/daily?days=30
+    // ---------------------------
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyAiUsage>> getDailyUsage(
+            @RequestParam(defaultValue = "30") int days
+    ) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate from = LocalDate.now().minusDays(days - 1L);
+        return ResponseEntity.ok(aiUsageRepository.findDailyUsageSince(from.atStartOfDay()));
+    }
+}
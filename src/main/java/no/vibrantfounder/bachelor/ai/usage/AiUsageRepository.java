@@ -0,0 +1,92 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the ai_call table.
+ *
+ * JDBC is used instead of JPA because inserts are batched (IDENTITY ids disable
+ * Hibernate batching) and reads are pure aggregates.
+ */
+@Repository
+public class AiUsageRepository {
+
+    private static final int MAX_CORRELATION_ID_LENGTH = 128;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ai_call (
+                prompt_id, model, outcome, stop_reason, error_type, repair_attempted, provider_calls,
+                total_latency_ms, provider_latency_ms, input_tokens, output_tokens, correlation_id, started_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // PERCENTILE_CONT ... WITHIN GROUP is supported by both H2 2.x and PostgreSQL.
+    // DAY is a reserved word in H2 2.x, hence usage_day.
+    private static final String DAILY_SQL = """
+            SELECT CAST(started_at AS DATE) AS usage_day,
+                   prompt_id,
+                   COUNT(*) AS calls,
+                   SUM(CASE WHEN outcome = 'REPAIRED' THEN 1 ELSE 0 END) AS repaired_calls,
+                   SUM(CASE WHEN outcome = 'FAILED' THEN 1 ELSE 0 END) AS failed_calls,
+                   PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY total_latency_ms) AS p50_latency_ms,
+                   PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY total_latency_ms) AS p95_latency_ms,
+                   SUM(input_tokens) AS input_tokens,
+                   SUM(output_tokens) AS output_tokens
+            FROM ai_call
+            WHERE started_at >= ?
+            GROUP BY CAST(started_at AS DATE), prompt_id
+            ORDER BY usage_day DESC, prompt_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AiUsageRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertBatch(List<AiCallRecord> records) {
+        if (records.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, r) -> {
+            ps.setString(1, r.promptId().name());
+            ps.setString(2, r.model());
+            ps.setString(3, r.outcome().name());
+            ps.setString(4, r.stopReason());
+            ps.setString(5, r.errorType() == null ? null : r.errorType().name());
+            ps.setBoolean(6, r.repairAttempted());
+            ps.setInt(7, r.providerCalls().size());
+            ps.setLong(8, r.totalLatency().toMillis());
+            ps.setLong(9, r.providerLatency().toMillis());
+            ps.setLong(10, r.inputTokens());
+            ps.setLong(11, r.outputTokens());
+            ps.setString(12, truncate(r.correlationId()));
+            ps.setTimestamp(13, Timestamp.valueOf(LocalDateTime.ofInstant(r.startedAt(), ZoneId.systemDefault())));
+        });
+    }
+
+    public List<DailyAiUsage> findDailyUsageSince(LocalDateTime since) {
+        return jdbcTemplate.query(DAILY_SQL, (rs, rowNum) -> new DailyAiUsage(
+                rs.getDate("usage_day").toLocalDate(),
+                rs.getString("prompt_id"),
+                rs.getLong("calls"),
+                rs.getLong("repaired_calls"),
+                rs.getLong("failed_calls"),
+                rs.getDouble("p50_latency_ms"),
+                rs.getDouble("p95_latency_ms"),
+                rs.getLong("input_tokens"),
+                rs.getLong("output_tokens")
+        ), Timestamp.valueOf(since));
+    }
+
+    private static String truncate(String s) {
+        if (s == null || s.length() <= MAX_CORRELATION_ID_LENGTH) return s;
+        return s.substring(0, MAX_CORRELATION_ID_LENGTH);
+    }
+}
@@ -0,0 +1,19 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregated AI usage for one prompt on one day.
+ */
+public record DailyAiUsage(
+        LocalDate day,
+        String promptId,
+        long calls,
+        long repairedCalls,
+        long failedCalls,
+        double p50LatencyMs,
+        double p95LatencyMs,
+        long inputTokens,
+        long outputTokens
+) {
+}
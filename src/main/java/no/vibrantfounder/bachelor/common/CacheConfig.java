@@ -0,0 +1,93 @@
+package no.vibrantfounder.bachelor.common;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanReadResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * In-process read-through cache for plan reads (Caffeine, W-TinyLFU eviction).
+ *
+ * Cache names are registered up front so Spring Boot binds their statistics
+ * (cache.gets{result=hit|miss}, cache.evictions, ...) to Micrometer at startup.
+ *
+ * Plans are cached per version (see {@link #planKey}), so a read from a lagging replica can
+ * never put an older body back under the current version. The manager is transaction-aware:
+ * an evict inside a transaction happens after it commits, not before.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(PlanCacheProperties.class)
+public class CacheConfig {
+
+    public static final String PLAN_CACHE = "marketingPlans";
+
+    // Rough JVM sizes used by the weigher; good enough for bounding, not exact accounting.
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int STRING_OVERHEAD = 40;
+
+    /**
+     * Key of one version of a plan's read model; the same string as the
+     * {@code #id + ':' + #version} key on MarketingPlanService.getPlan.
+     */
+    public static String planKey(long id, long version) {
+        return id + ":" + version;
+    }
+
+    @Bean
+    public CacheManager cacheManager(PlanCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PLAN_CACHE);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(properties.maxWeightBytes())
+                .weigher((Object key, Object value) -> estimateBytes(value))
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    static int estimateBytes(Object value) {
+        if (!(value instanceof MarketingPlanReadResponse plan)) {
+            return 1024;
+        }
+
+        long bytes = OBJECT_OVERHEAD + 8L * REFERENCE_SIZE
+                + sizeOf(plan.industry())
+                + sizeOf(plan.targetAudience())
+                + sizeOf(plan.primaryGoal());
+
+        bytes += listOverhead(plan.platforms());
+        if (plan.platforms() != null) {
+            for (MarketingPlanReadResponse.PlatformPlanRow p : plan.platforms()) {
+                bytes += OBJECT_OVERHEAD + 4L * REFERENCE_SIZE + sizeOf(p.platform()) + sizeOf(p.rationale());
+            }
+        }
+
+        bytes += listOverhead(plan.assumptions());
+        if (plan.assumptions() != null) {
+            for (MarketingPlanReadResponse.AssumptionRow a : plan.assumptions()) {
+                bytes += OBJECT_OVERHEAD + 4L * REFERENCE_SIZE
+                        + sizeOf(a.assumption()) + sizeOf(a.riskLevel()) + sizeOf(a.howToTest());
+            }
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long sizeOf(String s) {
+        // Compact strings: Latin-1 content uses one byte per char.
+        return s == null ? 0 : STRING_OVERHEAD + s.length();
+    }
+
+    private static long listOverhead(List<?> list) {
+        return list == null ? 0 : OBJECT_OVERHEAD + (long) list.size() * REFERENCE_SIZE;
+    }
+}
@@ -1,20 +1,67 @@
 package no.vibrantfounder.bachelor.common;
 
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 
 import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.Locale;
 
+/**
+ * Migrations live in two places:
+ * db/migration/common holds portable SQL (H2 + PostgreSQL),
+ * db/migration/{vendor} holds the scripts that need vendor-specific types (h2, postgresql).
+ *
+ * What runs at startup is controlled by {@link MigrationProperties}.
+ */
 @Configuration
+@EnableConfigurationProperties(MigrationProperties.class)
 public class FlywayConfig {
 
-    @Bean(initMethod = "migrate")
-    public Flyway flyway(DataSource dataSource) {
-        return Flyway.configure()
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public Flyway flyway(DataSource dataSource, MigrationProperties properties) {
+        if (properties.onStartup() == MigrationProperties.OnStartup.NONE) {
+            // Don't even open a connection; the schema is owned by another instance.
+            log.info("Flyway skipped at startup (db.migration.on-startup=none)");
+            return Flyway.configure().dataSource(dataSource).load();
+        }
+
+        String[] locations = {"db/migration/common", "db/migration/" + vendor(dataSource)};
+        FluentConfiguration configuration = Flyway.configure()
                 .dataSource(dataSource)
-                .locations("classpath:db/migration")
+                .locations(Arrays.stream(locations).map(l -> "classpath:" + l).toArray(String[]::new))
                 .baselineOnMigrate(true)
-                .load();
+                .validateOnMigrate(properties.validateOnMigrate());
+        if (NativeDetector.inNativeImage()) {
+            configuration.resourceProvider(new NativeImageMigrationResourceProvider(locations));
+        }
+        Flyway flyway = configuration.load();
+
+        switch (properties.onStartup()) {
+            case MIGRATE -> flyway.migrate();
+            case VALIDATE -> flyway.validate();
+            case NONE -> { }
+        }
+        return flyway;
+    }
+
+    private static String vendor(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return product.toLowerCase(Locale.ROOT).replace(" ", "");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not detect database vendor for Flyway", e);
+        }
     }
-}
\ No newline at end of file
+}
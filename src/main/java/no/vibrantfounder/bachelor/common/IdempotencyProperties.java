@@ -0,0 +1,47 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for POST /plan.
+ *
+ * - ttl: how long a key (and its stored result) is kept before the sweeper deletes it
+ * - in-progress-timeout: an IN_PROGRESS key not touched for this long is treated as abandoned
+ *   (node crashed mid-generation) and may be taken over by a retry
+ * - heartbeat-interval: how often a running generation touches its key; must stay well below
+ *   in-progress-timeout, so a generation that outlives the timeout is never taken over
+ * - wait-timeout / poll-interval: how long a retry waits for a generation that is still running
+ *   (same node or another one) before it gets 409 + Retry-After. Kept short: the wait
+ *   holds a request thread.
+ */
+@ConfigurationProperties(prefix = "marketing.idempotency")
+public record IdempotencyProperties(
+        Duration ttl,
+        Duration inProgressTimeout,
+        Duration heartbeatInterval,
+        Duration waitTimeout,
+        Duration pollInterval
+) {
+    public IdempotencyProperties {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            ttl = Duration.ofDays(1);
+        }
+        if (inProgressTimeout == null || inProgressTimeout.isNegative() || inProgressTimeout.isZero()) {
+            inProgressTimeout = Duration.ofMinutes(10);
+        }
+        if (heartbeatInterval == null || heartbeatInterval.isNegative() || heartbeatInterval.isZero()) {
+            heartbeatInterval = Duration.ofMinutes(1);
+        }
+        if (heartbeatInterval.compareTo(inProgressTimeout.dividedBy(2)) > 0) {
+            throw new IllegalArgumentException("marketing.idempotency.heartbeat-interval must be at most half of in-progress-timeout");
+        }
+        if (waitTimeout == null || waitTimeout.isNegative()) {
+            waitTimeout = Duration.ofSeconds(10);
+        }
+        if (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero()) {
+            pollInterval = Duration.ofSeconds(1);
+        }
+    }
+}
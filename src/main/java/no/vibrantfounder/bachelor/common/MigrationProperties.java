@@ -0,0 +1,34 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * What each instance does with Flyway at startup.
+ *
+ * - on-startup=migrate (default): validate checksums, then apply pending migrations
+ * - on-startup=validate: fail fast if the schema is behind, never change it
+ * - on-startup=none: skip Flyway entirely (read replicas / extra instances when one
+ *   deploy step or the primary instance owns migrations)
+ *
+ * validate-on-migrate=false skips re-reading and checksumming every applied script.
+ */
+@ConfigurationProperties(prefix = "db.migration")
+public record MigrationProperties(
+        OnStartup onStartup,
+        Boolean validateOnMigrate
+) {
+    public enum OnStartup {
+        MIGRATE,
+        VALIDATE,
+        NONE
+    }
+
+    public MigrationProperties {
+        if (onStartup == null) {
+            onStartup = OnStartup.MIGRATE;
+        }
+        if (validateOnMigrate == null) {
+            validateOnMigrate = true;
+        }
+    }
+}
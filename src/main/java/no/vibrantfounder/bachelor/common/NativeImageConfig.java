@@ -0,0 +1,65 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+/**
+ * GraalVM native-image hints for what Spring AOT cannot infer on its own.
+ *
+ * Controller signatures are covered by AOT, but the AI flow binds JSON to classes picked at
+ * runtime (AiOrchestrator.callForJson, the Anthropic RestClient, the plan stores), and the
+ * prompt templates and Flyway scripts are loaded by path.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    // Every class in these packages is (de)serialized by Jackson somewhere.
+    private static final String[] JSON_PACKAGES = {
+            "no.vibrantfounder.bachelor.marketing.api.dto",
+            "no.vibrantfounder.bachelor.marketing.domain",
+            "no.vibrantfounder.bachelor.ai.client.dto"
+    };
+
+    // Individual JSON types living next to non-JSON code (Lombok @Data contract, archive payload).
+    private static final String[] JSON_TYPES = {
+            "no.vibrantfounder.bachelor.marketing.application.AiMarketingPlanContract",
+            "no.vibrantfounder.bachelor.marketing.archive.ArchivedPlan"
+    };
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Runs at build time (AOT), so classpath scanning here costs nothing at startup.
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((reader, factory) -> true);
+
+            for (String basePackage : JSON_PACKAGES) {
+                for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                    register(hints, candidate.getBeanClassName(), classLoader);
+                }
+            }
+            for (String type : JSON_TYPES) {
+                register(hints, type, classLoader);
+            }
+
+            hints.resources().registerPattern("prompts/*.txt");
+            hints.resources().registerPattern("db/migration/common/*.sql");
+            hints.resources().registerPattern("db/migration/h2/*.sql");
+            hints.resources().registerPattern("db/migration/postgresql/*.sql");
+        }
+
+        private void register(RuntimeHints hints, String className, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(className, classLoader));
+        }
+    }
+}
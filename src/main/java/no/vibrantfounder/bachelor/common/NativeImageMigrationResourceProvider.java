@@ -0,0 +1,103 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lists migration scripts inside a GraalVM native image.
+ *
+ * Flyway's own classpath scanner walks jar files and directories, neither of which exist in a
+ * native image. Spring's resolver understands the image's resource file system, so scripts
+ * registered as resource hints (see NativeImageConfig) are found through it instead.
+ */
+class NativeImageMigrationResourceProvider implements ResourceProvider {
+
+    private final List<MigrationResource> resources = new ArrayList<>();
+
+    NativeImageMigrationResourceProvider(String... classpathLocations) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (String location : classpathLocations) {
+            try {
+                for (Resource resource : resolver.getResources("classpath:" + location + "/*")) {
+                    String filename = resource.getFilename();
+                    if (filename != null) {
+                        resources.add(new MigrationResource(resource, location + "/" + filename, filename));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list migrations in " + location, e);
+            }
+        }
+    }
+
+    @Override
+    public LoadableResource getResource(String name) {
+        return resources.stream()
+                .filter(r -> r.getRelativePath().equals(name) || r.getFilename().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+        return resources.stream()
+                .filter(r -> r.getFilename().startsWith(prefix))
+                .filter(r -> Arrays.stream(suffixes).anyMatch(r.getFilename()::endsWith))
+                .map(LoadableResource.class::cast)
+                .toList();
+    }
+
+    private static final class MigrationResource extends LoadableResource {
+
+        private final Resource resource;
+        private final String relativePath;
+        private final String filename;
+
+        private MigrationResource(Resource resource, String relativePath, String filename) {
+            this.resource = resource;
+            this.relativePath = relativePath;
+            this.filename = filename;
+        }
+
+        @Override
+        public Reader read() {
+            try {
+                return new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return relativePath;
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return relativePath;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getRelativePath() {
+            return relativePath;
+        }
+    }
+}
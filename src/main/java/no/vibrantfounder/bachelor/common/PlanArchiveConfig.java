@@ -0,0 +1,13 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "marketing.archive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(PlanArchiveProperties.class)
+public class PlanArchiveConfig {
+}
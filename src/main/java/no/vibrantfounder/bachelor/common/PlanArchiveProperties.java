@@ -0,0 +1,39 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retention for marketing plans.
+ *
+ * Plans older than {@code retention} are moved from the hot tables into
+ * marketing_plan_archive as gzip'ed JSON, {@code batchSize} plans per transaction.
+ * How often the job runs is set by marketing.archive.interval (read by {@code @Scheduled}).
+ */
+@ConfigurationProperties(prefix = "marketing.archive")
+public record PlanArchiveProperties(
+        Boolean enabled,
+        Duration retention,
+        Integer batchSize,
+        Integer maxBatchesPerRun,
+        Duration pauseBetweenBatches
+) {
+    public PlanArchiveProperties {
+        if (enabled == null) {
+            enabled = false;
+        }
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            retention = Duration.ofDays(180);
+        }
+        if (batchSize == null || batchSize <= 0) {
+            batchSize = 200;
+        }
+        if (maxBatchesPerRun == null || maxBatchesPerRun <= 0) {
+            maxBatchesPerRun = 50;
+        }
+        if (pauseBetweenBatches == null || pauseBetweenBatches.isNegative()) {
+            pauseBetweenBatches = Duration.ofMillis(200);
+        }
+    }
+}
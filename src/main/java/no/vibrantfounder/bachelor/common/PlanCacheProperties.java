@@ -0,0 +1,26 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits for the in-process plan read cache.
+ *
+ * The cache is bounded by estimated memory (bytes), not entry count, because
+ * plans vary a lot in size depending on the number of platforms and assumptions.
+ */
+@ConfigurationProperties(prefix = "marketing.plan-cache")
+public record PlanCacheProperties(
+        Long maxWeightBytes,
+        Duration expireAfterWrite
+) {
+    public PlanCacheProperties {
+        if (maxWeightBytes == null || maxWeightBytes <= 0) {
+            maxWeightBytes = 64L * 1024 * 1024;
+        }
+        if (expireAfterWrite == null) {
+            expireAfterWrite = Duration.ofHours(1);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PlanExportProperties.class)
+public class PlanExportConfig {
+}
@@ -0,0 +1,25 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Streaming plan export (GET /api/v1/marketing/plans/export).
+ *
+ * {@code fetchSize} is the JDBC fetch size for the export cursor, i.e. how many rows the
+ * driver holds at a time; {@code flushEveryRows} is how often the response is flushed so the
+ * client sees data before the export finishes.
+ */
+@ConfigurationProperties(prefix = "marketing.export")
+public record PlanExportProperties(
+        Integer fetchSize,
+        Integer flushEveryRows
+) {
+    public PlanExportProperties {
+        if (fetchSize == null || fetchSize <= 0) {
+            fetchSize = 500;
+        }
+        if (flushEveryRows == null || flushEveryRows <= 0) {
+            flushEveryRows = 1000;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PlanRevisionProperties.class)
+public class PlanRevisionConfig {
+}
@@ -0,0 +1,26 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Storage of plan revisions (table marketing_plan_revision).
+ *
+ * Revisions are JSON Patch deltas; once a plan has {@code snapshotEvery} deltas since its
+ * last snapshot, the compaction job stores a full snapshot so that reconstructing any
+ * revision replays at most that many patches. {@code compactionBatchSize} plans are handled
+ * per run; how often it runs is set by marketing.revisions.compaction-interval.
+ */
+@ConfigurationProperties(prefix = "marketing.revisions")
+public record PlanRevisionProperties(
+        Integer snapshotEvery,
+        Integer compactionBatchSize
+) {
+    public PlanRevisionProperties {
+        if (snapshotEvery == null || snapshotEvery <= 0) {
+            snapshotEvery = 10;
+        }
+        if (compactionBatchSize == null || compactionBatchSize <= 0) {
+            compactionBatchSize = 100;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package no.vibrantfounder.bachelor.common;
+
+import no.vibrantfounder.bachelor.common.ratelimit.InMemoryRateLimitBackend;
+import no.vibrantfounder.bachelor.common.ratelimit.JdbcRateLimitBackend;
+import no.vibrantfounder.bachelor.common.ratelimit.RateLimitBackend;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitBackend rateLimitBackend(
+            RateLimitProperties properties,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
+        return switch (properties.backend()) {
+            case MEMORY -> new InMemoryRateLimitBackend(Clock.systemUTC(), idleExpiry(properties));
+            case JDBC -> new JdbcRateLimitBackend(jdbcTemplate, transactionManager, Clock.systemUTC());
+        };
+    }
+
+    // A bucket idle for this long is full again (barring large debt), so it can be forgotten.
+    private static Duration idleExpiry(RateLimitProperties properties) {
+        Duration longest = properties.requests().refillPeriod().compareTo(properties.tokens().refillPeriod()) >= 0
+                ? properties.requests().refillPeriod()
+                : properties.tokens().refillPeriod();
+        return longest.multipliedBy(2);
+    }
+}
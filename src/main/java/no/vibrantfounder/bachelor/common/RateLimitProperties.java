@@ -0,0 +1,55 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-user budgets for plan generation.
+ *
+ * - requests: plan generations per user (checked before the AI call)
+ * - tokens: AI input + output tokens per user (charged after the call; a user in debt is
+ *   rejected until the bucket has refilled)
+ *
+ * backend=memory keeps buckets per node; backend=jdbc shares them through the database.
+ */
+@ConfigurationProperties(prefix = "marketing.rate-limit")
+public record RateLimitProperties(
+        Boolean enabled,
+        Backend backend,
+        Budget requests,
+        Budget tokens
+) {
+    public enum Backend {
+        MEMORY,
+        JDBC
+    }
+
+    public record Budget(
+            Long capacity,
+            Duration refillPeriod
+    ) {
+    }
+
+    public RateLimitProperties {
+        if (enabled == null) {
+            enabled = true;
+        }
+        if (backend == null) {
+            backend = Backend.MEMORY;
+        }
+        requests = withDefaults(requests, 10, Duration.ofHours(1));
+        tokens = withDefaults(tokens, 500_000, Duration.ofDays(1));
+    }
+
+    private static Budget withDefaults(Budget budget, long capacity, Duration refillPeriod) {
+        if (budget == null) {
+            return new Budget(capacity, refillPeriod);
+        }
+        return new Budget(
+                budget.capacity() == null || budget.capacity() <= 0 ? capacity : budget.capacity(),
+                budget.refillPeriod() == null || budget.refillPeriod().isNegative() || budget.refillPeriod().isZero()
+                        ? refillPeriod : budget.refillPeriod()
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Optional read replica. When {@code datasource.replica.url} is set, read-only
+ * transactions are served from this pool and everything else from spring.datasource.
+ */
+@ConfigurationProperties(prefix = "datasource.replica")
+public record ReadReplicaProperties(
+        String url,
+        String username,
+        String password,
+        Integer maximumPoolSize,
+        Duration connectionTimeout
+) {
+    public ReadReplicaProperties {
+        if (maximumPoolSize == null || maximumPoolSize <= 0) {
+            maximumPoolSize = 10;
+        }
+        if (connectionTimeout == null || connectionTimeout.isNegative() || connectionTimeout.isZero()) {
+            connectionTimeout = Duration.ofSeconds(3);
+        }
+    }
+}
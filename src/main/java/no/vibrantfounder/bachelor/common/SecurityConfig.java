@@ -21,6 +21,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
                         .requestMatchers("/h2-console/**").permitAll()
+                        // Aggregater paa tvers av alle brukere (ai_call har ingen bruker-kolonne)
+                        .requestMatchers("/api/v1/ai/usage/**").hasRole("ADMIN")
+                        // Sletting fjerner planen for alle brukere -> kun admin
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1/marketing/plans/**").hasRole("ADMIN")
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,29 @@
+package no.vibrantfounder.bachelor.common;
+
+import no.vibrantfounder.bachelor.marketing.application.IdempotentPlanGeneration;
+import no.vibrantfounder.bachelor.marketing.archive.PlanArchiveJob;
+import no.vibrantfounder.bachelor.marketing.event.PlanEventDispatcher;
+import no.vibrantfounder.bachelor.marketing.revision.PlanRevisionCompactionJob;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup tuning used by the fast-start profile (spring.main.lazy-initialization=true).
+ *
+ * With lazy init most beans are created on first use. The ones listed here must still be
+ * created eagerly: Flyway has to finish before traffic arrives, and @Scheduled methods are
+ * only registered once their bean exists.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                Flyway.class, PlanArchiveJob.class, IdempotentPlanGeneration.class, PlanRevisionCompactionJob.class,
+                PlanEventDispatcher.class
+        );
+    }
+}
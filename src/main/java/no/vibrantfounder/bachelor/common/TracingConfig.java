@@ -0,0 +1,64 @@
+package no.vibrantfounder.bachelor.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.common.KeyValue;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.observation.ObservationFilter;
+import no.vibrantfounder.bachelor.ai.observability.CorrelationId;
+import no.vibrantfounder.bachelor.common.tracing.JsonFileSpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.nio.file.Path;
+
+/**
+ * Tracing setup (Micrometer Observation -> OpenTelemetry).
+ *
+ * - Span export is off by default. OTLP is switched on with
+ *   management.tracing.export.otlp.enabled=true (endpoint: management.opentelemetry.tracing.export.otlp.*);
+ *   tracing.file-export.enabled=true adds a local JSON-lines file (offline). The two are
+ *   independent: with both on, spans go to both.
+ * - The correlation id is attached to every observation/span.
+ * - Trace context and the correlation id propagate into Spring-managed async executors.
+ */
+@Configuration
+public class TracingConfig {
+
+    public TracingConfig() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(
+                CorrelationId.KEY,
+                CorrelationId::get,
+                CorrelationId::set,
+                CorrelationId::clear
+        );
+    }
+
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    public ObservationFilter correlationIdObservationFilter() {
+        return context -> {
+            String correlationId = CorrelationId.get();
+            if (correlationId != null && context.getHighCardinalityKeyValue(CorrelationId.KEY) == null) {
+                context.addHighCardinalityKeyValue(KeyValue.of(CorrelationId.KEY, correlationId));
+            }
+            return context;
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file-export.enabled", havingValue = "true")
+    public JsonFileSpanExporter jsonFileSpanExporter(
+            @Value("${tracing.file-export.path:traces/spans.jsonl}") String path,
+            ObjectMapper objectMapper
+    ) {
+        return new JsonFileSpanExporter(Path.of(path), objectMapper);
+    }
+}
@@ -0,0 +1,25 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Optional binary encodings for the API.
+ *
+ * JSON stays the default. Clients that send
+ * {@code Accept: application/x-jackson-smile} or {@code Accept: application/cbor}
+ * get the same payload in a compact binary form (and may POST in that form too).
+ * The binary converters sit after JSON, so {@code Accept: *}{@code /*} still yields JSON.
+ */
+@Configuration
+public class WebEncodingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter())
+                .withCborConverter(new JacksonCborHttpMessageConverter());
+    }
+}
@@ -0,0 +1,62 @@
+package no.vibrantfounder.bachelor.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Webhook delivery of plan events (outbox table plan_events).
+ *
+ * Events are POSTed to {@code url} in batches of up to {@code batchSize}, signed with
+ * HMAC-SHA256 using {@code secret}. A failed batch is retried with exponential backoff from
+ * {@code initialBackoff} up to {@code maxBackoff}; after {@code maxAttempts} an event is marked
+ * FAILED. A claimed batch is leased for {@code lease} (must be well above {@code timeout}).
+ * Delivered events are deleted after {@code retention}. How often the dispatcher polls is set
+ * by marketing.webhooks.poll-interval.
+ */
+@ConfigurationProperties(prefix = "marketing.webhooks")
+public record WebhookProperties(
+        Boolean enabled,
+        String url,
+        String secret,
+        Integer batchSize,
+        Integer maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Duration timeout,
+        Duration lease,
+        Duration retention
+) {
+    public WebhookProperties {
+        if (enabled == null) {
+            enabled = false;
+        }
+        if (enabled && (url == null || url.isBlank() || secret == null || secret.isBlank())) {
+            throw new IllegalArgumentException("marketing.webhooks.url and marketing.webhooks.secret are required when webhooks are enabled");
+        }
+        if (batchSize == null || batchSize <= 0) {
+            batchSize = 50;
+        }
+        if (maxAttempts == null || maxAttempts <= 0) {
+            maxAttempts = 10;
+        }
+        if (initialBackoff == null || initialBackoff.isNegative() || initialBackoff.isZero()) {
+            initialBackoff = Duration.ofSeconds(5);
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            maxBackoff = Duration.ofHours(1);
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            timeout = Duration.ofSeconds(10);
+        }
+        if (lease == null || lease.isNegative() || lease.isZero()) {
+            lease = Duration.ofMinutes(2);
+        }
+        if (lease.compareTo(timeout.multipliedBy(2)) < 0) {
+            lease = timeout.multipliedBy(2);
+        }
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            retention = Duration.ofDays(7);
+        }
+    }
+}
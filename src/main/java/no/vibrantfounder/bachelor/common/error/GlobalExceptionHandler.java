@@ -4,8 +4,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import no.vibrantfounder.bachelor.ai.observability.CorrelationId;
 import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.common.ratelimit.RateLimitExceededException;
+import no.vibrantfounder.bachelor.marketing.application.IdempotencyConflictException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -51,6 +55,77 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(body);
     }
 
+    // ---------------------------
+    // Per-user rate limits (429 + Retry-After)
+    // ---------------------------
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleRateLimited(RateLimitExceededException ex, HttpServletRequest request) {
+        String correlationId = CorrelationId.get();
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+
+        log.info("RATE_LIMITED correlationId={} path={} limit={} retryAfter={}s",
+                correlationId, request.getRequestURI(), ex.getLimit(), retryAfterSeconds);
+
+        ApiErrorResponse body = new ApiErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "RATE_LIMITED",
+                ex.getMessage(),
+                request.getRequestURI(),
+                correlationId,
+                Instant.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body);
+    }
+
+    // ---------------------------
+    // Idempotency-Key reused with another body / still running
+    // ---------------------------
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyConflict(IdempotencyConflictException ex, HttpServletRequest request) {
+        String correlationId = CorrelationId.get();
+
+        ApiErrorResponse body = new ApiErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "IDEMPOTENCY_CONFLICT",
+                ex.getMessage(),
+                request.getRequestURI(),
+                correlationId,
+                Instant.now(),
+                null
+        );
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CONFLICT);
+        if (ex.getRetryAfter() != null) {
+            long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.body(body);
+    }
+
+    // ---------------------------
+    // Plan changed underneath the request (e.g. two refreshes of the same plan at once)
+    // ---------------------------
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        String correlationId = CorrelationId.get();
+
+        ApiErrorResponse body = new ApiErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "PLAN_MODIFIED",
+                "The plan was modified by another request. Reload it and try again.",
+                request.getRequestURI(),
+                correlationId,
+                Instant.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     // ---------------------------
     // Validation errors (JSON body -> @Valid)
     // ---------------------------
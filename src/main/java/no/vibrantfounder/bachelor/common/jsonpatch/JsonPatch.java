@@ -0,0 +1,244 @@
+package no.vibrantfounder.bachelor.common.jsonpatch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON Patch (RFC 6902) support: structural diff and apply.
+ *
+ * {@link #diff} emits only add/remove/replace. Arrays are compared after trimming the
+ * common prefix and suffix, so inserting or replacing a few calendar entries in the
+ * middle of a list yields a few operations instead of rewriting every shifted index.
+ * {@link #apply} also accepts "test", which is enough for patches produced here.
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+        // Utility class
+    }
+
+    // ---------------------------
+    // DIFF
+    // ---------------------------
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        List<ObjectNode> ops = new ArrayList<>();
+        diff("", source, target, ops);
+        return NODES.arrayNode().addAll(ops);
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, List<ObjectNode> ops) {
+        if (source.equals(target)) return;
+
+        if (source.isObject() && target.isObject()) {
+            diffObjects(path, source, target, ops);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(path, source, target, ops);
+        } else {
+            ops.add(op("replace", path, target));
+        }
+    }
+
+    private static void diffObjects(String path, JsonNode source, JsonNode target, List<ObjectNode> ops) {
+        for (Map.Entry<String, JsonNode> field : source.properties()) {
+            String child = path + "/" + escape(field.getKey());
+            JsonNode other = target.get(field.getKey());
+            if (other == null) {
+                ops.add(op("remove", child, null));
+            } else {
+                element(child, field.getValue(), other, ops);
+            }
+        }
+
+        for (Map.Entry<String, JsonNode> field : target.properties()) {
+            if (!source.has(field.getKey())) {
+                ops.add(op("add", path + "/" + escape(field.getKey()), field.getValue()));
+            }
+        }
+    }
+
+    private static void diffArrays(String path, JsonNode source, JsonNode target, List<ObjectNode> ops) {
+        int sourceSize = source.size();
+        int targetSize = target.size();
+
+        int prefix = 0;
+        while (prefix < sourceSize && prefix < targetSize && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < sourceSize - prefix && suffix < targetSize - prefix
+                && source.get(sourceSize - 1 - suffix).equals(target.get(targetSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        int sourceMiddle = sourceSize - prefix - suffix;
+        int targetMiddle = targetSize - prefix - suffix;
+        int common = Math.min(sourceMiddle, targetMiddle);
+
+        // Pairwise first: nested ops do not change this array's length, so the indices still hold.
+        for (int i = prefix; i < prefix + common; i++) {
+            element(path + "/" + i, source.get(i), target.get(i), ops);
+        }
+
+        int at = prefix + common;
+        for (int i = common; i < sourceMiddle; i++) {
+            ops.add(op("remove", path + "/" + at, null));
+        }
+        for (int i = common; i < targetMiddle; i++) {
+            ops.add(op("add", path + "/" + (prefix + i), target.get(prefix + i)));
+        }
+    }
+
+    /**
+     * Diffs one member; falls back to a single replace when the nested ops would be larger.
+     */
+    private static void element(String path, JsonNode source, JsonNode target, List<ObjectNode> ops) {
+        if (source.equals(target)) return;
+
+        List<ObjectNode> nested = new ArrayList<>();
+        diff(path, source, target, nested);
+        if (nested.size() > 1 && nested.toString().length() >= target.toString().length()) {
+            ops.add(op("replace", path, target));
+        } else {
+            ops.addAll(nested);
+        }
+    }
+
+    private static ObjectNode op(String name, String path, JsonNode value) {
+        ObjectNode op = NODES.objectNode();
+        op.put("op", name);
+        op.put("path", path);
+        if (value != null) {
+            op.set("value", value.deepCopy());
+        }
+        return op;
+    }
+
+    // ---------------------------
+    // APPLY
+    // ---------------------------
+
+    /**
+     * Applies {@code patch} to a copy of {@code document}; the input is never modified.
+     *
+     * @throws IllegalStateException if an operation does not fit the document
+     */
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        JsonNode result = document.deepCopy();
+        for (int i = 0; i < patch.size(); i++) {
+            JsonNode op = patch.get(i);
+            try {
+                result = applyOne(result, op);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Cannot apply JSON patch operation " + i + " " + op + ": " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode applyOne(JsonNode document, JsonNode op) {
+        String name = op.path("op").asText();
+        List<String> tokens = parse(op.path("path").asText());
+        JsonNode value = op.get("value");
+
+        if (tokens.isEmpty()) {
+            return switch (name) {
+                case "add", "replace" -> value.deepCopy();
+                case "test" -> test(document, value);
+                default -> throw new IllegalArgumentException("unsupported op on document root");
+            };
+        }
+
+        JsonNode parent = document;
+        for (String token : tokens.subList(0, tokens.size() - 1)) {
+            parent = child(parent, token);
+        }
+        String last = tokens.get(tokens.size() - 1);
+
+        switch (name) {
+            case "add" -> add(parent, last, value.deepCopy());
+            case "remove" -> remove(parent, last);
+            case "replace" -> {
+                remove(parent, last);
+                add(parent, last, value.deepCopy());
+            }
+            case "test" -> test(child(parent, last), value);
+            default -> throw new IllegalArgumentException("unsupported op '" + name + "'");
+        }
+        return document;
+    }
+
+    private static JsonNode child(JsonNode parent, String token) {
+        JsonNode child = parent.isArray() ? parent.get(index(parent, token, false)) : parent.get(token);
+        if (child == null) {
+            throw new IllegalArgumentException("no member '" + token + "'");
+        }
+        return child;
+    }
+
+    private static void add(JsonNode parent, String token, JsonNode value) {
+        if (parent instanceof ArrayNode array) {
+            if ("-".equals(token)) {
+                array.add(value);
+            } else {
+                array.insert(index(array, token, true), value);
+            }
+        } else if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else {
+            throw new IllegalArgumentException("cannot add to a value node");
+        }
+    }
+
+    private static void remove(JsonNode parent, String token) {
+        if (parent instanceof ArrayNode array) {
+            array.remove(index(array, token, false));
+        } else if (parent instanceof ObjectNode object && object.has(token)) {
+            object.remove(token);
+        } else {
+            throw new IllegalArgumentException("no member '" + token + "'");
+        }
+    }
+
+    private static JsonNode test(JsonNode actual, JsonNode expected) {
+        if (!actual.equals(expected)) {
+            throw new IllegalArgumentException("test failed");
+        }
+        return actual;
+    }
+
+    private static int index(JsonNode array, String token, boolean allowEnd) {
+        int index = Integer.parseInt(token);
+        int max = allowEnd ? array.size() : array.size() - 1;
+        if (index < 0 || index > max) {
+            throw new IllegalArgumentException("index " + index + " out of bounds");
+        }
+        return index;
+    }
+
+    // ---------------------------
+    // JSON Pointer (RFC 6901)
+    // ---------------------------
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parse(String pointer) {
+        if (pointer.isEmpty()) return List.of();
+        if (!pointer.startsWith("/")) {
+            throw new IllegalArgumentException("invalid JSON pointer '" + pointer + "'");
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String raw : pointer.substring(1).split("/", -1)) {
+            tokens.add(raw.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
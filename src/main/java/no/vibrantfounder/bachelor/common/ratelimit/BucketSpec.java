@@ -0,0 +1,29 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Size and refill speed of a token bucket: up to {@code capacity} permits,
+ * refilled continuously so that an empty bucket is full again after {@code refillPeriod}.
+ */
+public record BucketSpec(
+        long capacity,
+        Duration refillPeriod
+) {
+    public BucketSpec {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        if (refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("refillPeriod must be > 0");
+        }
+    }
+
+    double permitsRefilledIn(long millis) {
+        return (double) millis * capacity / refillPeriod.toMillis();
+    }
+
+    long millisToRefill(double permits) {
+        return (long) Math.ceil(permits * refillPeriod.toMillis() / capacity);
+    }
+}
@@ -0,0 +1,54 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process buckets.
+ *
+ * Buckets live in a Caffeine cache (a striped concurrent map, so different keys never
+ * contend) and each bucket is an immutable state swapped with compare-and-set, so
+ * concurrent requests for the same key retry instead of blocking. Idle buckets expire
+ * once they would have refilled anyway, which keeps memory bounded by active users.
+ */
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final Cache<String, AtomicReference<TokenBucket.State>> buckets;
+    private final Clock clock;
+
+    public InMemoryRateLimitBackend(Clock clock, Duration idleExpiry) {
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, BucketSpec spec, long permits) {
+        AtomicReference<TokenBucket.State> bucket = bucket(key, spec);
+        while (true) {
+            TokenBucket.State current = bucket.get();
+            TokenBucket.State refilled = TokenBucket.refill(current, spec, clock.millis());
+            if (refilled.permits() < permits) {
+                return RateLimitDecision.rejected(TokenBucket.timeUntilAvailable(refilled, spec, permits));
+            }
+            if (bucket.compareAndSet(current, refilled.take(permits))) {
+                return RateLimitDecision.ALLOWED;
+            }
+        }
+    }
+
+    @Override
+    public void consume(String key, BucketSpec spec, long permits) {
+        AtomicReference<TokenBucket.State> bucket = bucket(key, spec);
+        bucket.updateAndGet(current -> TokenBucket.refill(current, spec, clock.millis()).take(permits));
+    }
+
+    private AtomicReference<TokenBucket.State> bucket(String key, BucketSpec spec) {
+        return buckets.get(key, k -> new AtomicReference<>(TokenBucket.full(spec, clock.millis())));
+    }
+}
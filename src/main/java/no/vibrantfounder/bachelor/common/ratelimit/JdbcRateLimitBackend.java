@@ -0,0 +1,85 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Buckets shared by all nodes through the rate_limit_bucket table.
+ *
+ * Each operation is one short transaction that locks only its own row
+ * (SELECT ... FOR UPDATE), so nodes serialize per key but not across keys.
+ * Call it outside any transaction: inside one, REQUIRES_NEW takes a second pooled connection.
+ */
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private static final String SELECT_FOR_UPDATE =
+            "SELECT permits, updated_at_ms FROM rate_limit_bucket WHERE bucket_key = ? FOR UPDATE";
+    private static final String INSERT =
+            "INSERT INTO rate_limit_bucket (bucket_key, permits, updated_at_ms) VALUES (?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE rate_limit_bucket SET permits = ?, updated_at_ms = ? WHERE bucket_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public JdbcRateLimitBackend(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Own transaction: never hold the row lock for the duration of a caller's transaction (e.g. an AI call).
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, BucketSpec spec, long permits) {
+        return update(key, spec, refilled -> refilled.permits() < permits
+                ? RateLimitDecision.rejected(TokenBucket.timeUntilAvailable(refilled, spec, permits))
+                : RateLimitDecision.ALLOWED, permits);
+    }
+
+    @Override
+    public void consume(String key, BucketSpec spec, long permits) {
+        update(key, spec, refilled -> RateLimitDecision.ALLOWED, permits);
+    }
+
+    private RateLimitDecision update(
+            String key,
+            BucketSpec spec,
+            Function<TokenBucket.State, RateLimitDecision> decide,
+            long permits
+    ) {
+        try {
+            return transactionTemplate.execute(status -> {
+                long now = clock.millis();
+                TokenBucket.State refilled = TokenBucket.refill(lockOrCreate(key, spec, now), spec, now);
+                RateLimitDecision decision = decide.apply(refilled);
+                TokenBucket.State next = decision.allowed() ? refilled.take(permits) : refilled;
+                jdbcTemplate.update(UPDATE, next.permits(), next.updatedAtMillis(), key);
+                return decision;
+            });
+        } catch (DuplicateKeyException e) {
+            // Another node created the row between our SELECT and INSERT; its row is locked-and-read on retry.
+            return update(key, spec, decide, permits);
+        }
+    }
+
+    private TokenBucket.State lockOrCreate(String key, BucketSpec spec, long now) {
+        List<TokenBucket.State> rows = jdbcTemplate.query(SELECT_FOR_UPDATE,
+                (rs, rowNum) -> new TokenBucket.State(rs.getDouble("permits"), rs.getLong("updated_at_ms")),
+                key);
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+        TokenBucket.State full = TokenBucket.full(spec, now);
+        jdbcTemplate.update(INSERT, key, full.permits(), full.updatedAtMillis());
+        return full;
+    }
+}
@@ -0,0 +1,23 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+/**
+ * Storage for token buckets.
+ *
+ * - {@link InMemoryRateLimitBackend}: per node, lock-free (single instance / dev)
+ * - {@link JdbcRateLimitBackend}: shared through the database, so limits hold across nodes
+ *
+ * Other shared stores (e.g. Redis) plug in by implementing this interface.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes {@code permits} from the bucket if the balance allows it, otherwise takes nothing.
+     * With {@code permits = 0} this only checks that the bucket is not in debt.
+     */
+    RateLimitDecision tryAcquire(String key, BucketSpec spec, long permits);
+
+    /**
+     * Charges {@code permits} unconditionally; the balance may go negative.
+     */
+    void consume(String key, BucketSpec spec, long permits);
+}
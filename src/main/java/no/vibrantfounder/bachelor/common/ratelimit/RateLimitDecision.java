@@ -0,0 +1,20 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of {@link RateLimitBackend#tryAcquire}.
+ *
+ * @param allowed    true if the permits were taken
+ * @param retryAfter when rejected, how long until the request would be allowed
+ */
+public record RateLimitDecision(
+        boolean allowed,
+        Duration retryAfter
+) {
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, Duration.ZERO);
+
+    public static RateLimitDecision rejected(Duration retryAfter) {
+        return new RateLimitDecision(false, retryAfter);
+    }
+}
@@ -0,0 +1,26 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a caller has used up a budget. Mapped to 429 + Retry-After by GlobalExceptionHandler.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String limit;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String limit, Duration retryAfter) {
+        super("Rate limit exceeded (" + limit + "), retry after " + Math.max(1, retryAfter.toSeconds()) + "s");
+        this.limit = limit;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getLimit() {
+        return limit;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,45 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Token-bucket arithmetic shared by all {@link RateLimitBackend}s.
+ *
+ * A bucket is only a balance and the time it was last updated; refill is computed
+ * on access, so no background timers are needed. The balance may go negative when
+ * usage is charged after the fact (AI tokens), which blocks the key until refill pays it back.
+ */
+final class TokenBucket {
+
+    record State(double permits, long updatedAtMillis) {
+
+        State take(long amount) {
+            return new State(permits - amount, updatedAtMillis);
+        }
+    }
+
+    private TokenBucket() {
+        // Utility class
+    }
+
+    static State full(BucketSpec spec, long nowMillis) {
+        return new State(spec.capacity(), nowMillis);
+    }
+
+    static State refill(State state, BucketSpec spec, long nowMillis) {
+        long elapsed = Math.max(0, nowMillis - state.updatedAtMillis());
+        double permits = Math.min(spec.capacity(), state.permits() + spec.permitsRefilledIn(elapsed));
+        return new State(permits, Math.max(nowMillis, state.updatedAtMillis()));
+    }
+
+    /**
+     * How long until {@code amount} permits are available (refilled state expected).
+     */
+    static Duration timeUntilAvailable(State state, BucketSpec spec, long amount) {
+        double missing = amount - state.permits();
+        if (missing <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(spec.millisToRefill(missing));
+    }
+}
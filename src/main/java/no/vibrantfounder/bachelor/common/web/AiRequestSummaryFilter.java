@@ -0,0 +1,82 @@
+package no.vibrantfounder.bachelor.common.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import no.vibrantfounder.bachelor.ai.observability.AiRequestTimings;
+import no.vibrantfounder.bachelor.ai.observability.CorrelationId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ends every request that made AI calls with one "AI request summary" log event.
+ *
+ * The event carries correlationId, promptId, model, outcome, HTTP status, total and
+ * per-stage milliseconds (render/provider/parse/repair/validate/persist) and tokens as
+ * SLF4J key/value pairs: top-level fields in JSON logs, "key=value" after the message in
+ * plain text. Requests without AI calls log nothing here.
+ *
+ * Runs just inside CorrelationIdFilter so the correlation id is still bound. Switch it off
+ * with logging.level.no.vibrantfounder.bachelor.common.web.AiRequestSummaryFilter=WARN.
+ */
+@Component
+@Order(CorrelationIdFilter.ORDER + 1)
+public class AiRequestSummaryFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AiRequestSummaryFilter.class);
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        AiRequestTimings timings = AiRequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AiRequestTimings.end();
+            if (timings.hasAiCalls() && log.isInfoEnabled()) {
+                logSummary(timings, request, response.getStatus());
+            }
+        }
+    }
+
+    private static void logSummary(AiRequestTimings timings, HttpServletRequest request, int status) {
+        String correlationId = CorrelationId.get() != null ? CorrelationId.get() : timings.correlationId();
+
+        LoggingEventBuilder event = log.atInfo()
+                .setMessage("AI request summary")
+                .addKeyValue("correlationId", correlationId)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", status)
+                .addKeyValue("promptId", timings.promptIds())
+                .addKeyValue("model", timings.model())
+                .addKeyValue("outcome", timings.outcome().tag());
+        if (timings.errorType() != null) {
+            event.addKeyValue("errorType", timings.errorType().name());
+        }
+        event.addKeyValue("totalMs", millis(timings.elapsedNanos()));
+        for (AiRequestTimings.Stage stage : AiRequestTimings.Stage.values()) {
+            event.addKeyValue(stage.key(), millis(timings.stageNanos(stage)));
+        }
+        event.addKeyValue("aiCalls", timings.aiCalls())
+                .addKeyValue("providerCalls", timings.providerCalls())
+                .addKeyValue("inputTokens", timings.inputTokens())
+                .addKeyValue("outputTokens", timings.outputTokens())
+                .log();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
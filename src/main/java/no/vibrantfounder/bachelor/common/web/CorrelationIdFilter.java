@@ -1,10 +1,14 @@
 package no.vibrantfounder.bachelor.common.web;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import no.vibrantfounder.bachelor.ai.observability.CorrelationId;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -17,13 +21,27 @@ import java.util.UUID;
  * - If the client provides an "X-Correlation-Id" header, it will be used.
  * - Otherwise, a new UUID will be generated.
  *
- * The ID is also echoed back in the response header.
+ * The ID is also echoed back in the response header and attached to the
+ * current HTTP server observation, so it shows up on the request's root span.
+ *
+ * Ordered just inside the server observation filter and ahead of Spring Security,
+ * so rejected requests are logged with a correlation id too.
  */
 @Component
+@Order(CorrelationIdFilter.ORDER)
 public class CorrelationIdFilter extends OncePerRequestFilter {
 
     public static final String HEADER = "X-Correlation-Id";
 
+    // ServerHttpObservationFilter runs at HIGHEST_PRECEDENCE + 1.
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private final ObservationRegistry observationRegistry;
+
+    public CorrelationIdFilter(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -39,6 +57,12 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
         try {
             CorrelationId.set(correlationId);
             response.setHeader(HEADER, correlationId);
+
+            Observation current = observationRegistry.getCurrentObservation();
+            if (current != null) {
+                current.highCardinalityKeyValue(CorrelationId.KEY, correlationId);
+            }
+
             filterChain.doFilter(request, response);
         } finally {
             CorrelationId.clear();
@@ -4,33 +4,125 @@ import jakarta.validation.Valid;
 import no.vibrantfounder.bachelor.marketing.api.dto.GeneratePlanRequest;
 import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanReadResponse;
 import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlanRevisionDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.RefreshPlanRequest;
+import no.vibrantfounder.bachelor.marketing.application.IdempotentPlanGeneration;
 import no.vibrantfounder.bachelor.marketing.application.MarketingPlanService;
+import no.vibrantfounder.bachelor.marketing.application.PlanGenerationQuota;
+import no.vibrantfounder.bachelor.marketing.calendar.PlanCalendarFeed;
+import no.vibrantfounder.bachelor.marketing.export.PlanExportFormat;
+import no.vibrantfounder.bachelor.marketing.export.PlanExporter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/marketing")
 public class MarketingPlanController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    // A plan changes when it is refreshed (new revision, new ETag), so clients revalidate;
+    // a stored revision never changes. The list changes whenever a plan is added, refreshed or removed.
+    private static final CacheControl PLAN_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    private static final CacheControl REVISION_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate();
+    private static final CacheControl PLANS_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final MediaType JSON_PATCH = MediaType.parseMediaType("application/json-patch+json");
+    private static final MediaType ICS = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
     private final MarketingPlanService marketingPlanService;
+    private final IdempotentPlanGeneration idempotentPlanGeneration;
+    private final PlanExporter planExporter;
+    private final PlanCalendarFeed planCalendarFeed;
 
-    public MarketingPlanController(MarketingPlanService marketingPlanService) {
+    public MarketingPlanController(
+            MarketingPlanService marketingPlanService,
+            IdempotentPlanGeneration idempotentPlanGeneration,
+            PlanExporter planExporter,
+            PlanCalendarFeed planCalendarFeed
+    ) {
         this.marketingPlanService = marketingPlanService;
+        this.idempotentPlanGeneration = idempotentPlanGeneration;
+        this.planExporter = planExporter;
+        this.planCalendarFeed = planCalendarFeed;
     }
 
     // ---------------------------
     // CREATE (AI → DB)
+    // Optional Idempotency-Key: retries with the same key return the first result instead of generating again.
     // ---------------------------
     @PostMapping("/plan")
     public ResponseEntity<MarketingPlanResponse> generatePlan(
-            @Valid @RequestBody GeneratePlanRequest request
+            @Valid @RequestBody GeneratePlanRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
     ) {
-        MarketingPlanResponse response = marketingPlanService.generatePlan(request);
+        MarketingPlanResponse response = idempotencyKey == null
+                ? marketingPlanService.generatePlan(request)
+                : idempotentPlanGeneration.generatePlan(idempotencyKey, request);
         return ResponseEntity.ok(response);
     }
 
+    // ---------------------------
+    // REFRESH (AI → DB)  (regenerates one scope of an existing plan as its next revision)
+    // POST /api/v1/marketing/plans/42/refresh  {"scope":"CALENDAR","from":"2026-03-02","to":"2026-03-08"}
+    // POST /api/v1/marketing/plans/42/refresh  {"scope":"PLATFORM","platform":"LINKEDIN"}
+    // Only the plan's creator or an ADMIN.
+    // ---------------------------
+    @PostMapping("/plans/{id}/refresh")
+    public ResponseEntity<MarketingPlanResponse> refreshPlan(
+            @PathVariable Long id,
+            @Valid @RequestBody RefreshPlanRequest request
+    ) {
+        String owner = isAdmin() ? null : PlanGenerationQuota.currentUser();
+        return ResponseEntity.ok(marketingPlanService.refreshPlan(id, owner, request).response());
+    }
+
+    // ---------------------------
+    // REVISIONS (DB)
+    // GET /api/v1/marketing/plans/42/revisions
+    // GET /api/v1/marketing/plans/42/revisions/2
+    // GET /api/v1/marketing/plans/42/diff?from=1&to=3   (JSON Patch, RFC 6902)
+    // ---------------------------
+    @GetMapping("/plans/{id}/revisions")
+    public ResponseEntity<List<PlanRevisionDto>> getPlanRevisions(@PathVariable Long id) {
+        return ResponseEntity.ok(marketingPlanService.getPlanRevisions(id));
+    }
+
+    @GetMapping("/plans/{id}/revisions/{revision}")
+    public ResponseEntity<MarketingPlanResponse> getPlanRevision(
+            @PathVariable Long id,
+            @PathVariable int revision
+    ) {
+        return ResponseEntity.ok()
+                .cacheControl(REVISION_CACHE_CONTROL)
+                .body(marketingPlanService.getPlanRevision(id, revision));
+    }
+
+    @GetMapping("/plans/{id}/diff")
+    public ResponseEntity<String> getPlanDiff(
+            @PathVariable Long id,
+            @RequestParam int from,
+            @RequestParam int to
+    ) {
+        return ResponseEntity.ok()
+                .contentType(JSON_PATCH)
+                .body(marketingPlanService.getPlanDiff(id, from, to));
+    }
+
     // ---------------------------
     // READ ALL (DB)  (paginated + optional filtering)
     // GET /api/v1/marketing/plans?page=0&size=20&sort=generatedAt,desc
@@ -40,10 +132,71 @@ public class MarketingPlanController {
     public ResponseEntity<Page<MarketingPlanReadResponse>> getAllPlans(
             @RequestParam(required = false) String industry,
             @RequestParam(required = false) String goal,
-            Pageable pageable
+            Pageable pageable,
+            WebRequest webRequest
     ) {
+        String etag = weak(marketingPlanService.getPlansEtag(industry, goal, pageable));
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag, PLANS_CACHE_CONTROL);
+        }
+
         Page<MarketingPlanReadResponse> plans = marketingPlanService.getPlans(industry, goal, pageable);
-        return ResponseEntity.ok(plans);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PLANS_CACHE_CONTROL)
+                .body(plans);
+    }
+
+    // ---------------------------
+    // EXPORT (DB)  (streamed while the cursor is read; same filters as READ ALL)
+    // GET /api/v1/marketing/plans/export?format=ndjson
+    // GET /api/v1/marketing/plans/export?format=csv&industry=saas
+    // ---------------------------
+    @GetMapping("/plans/export")
+    public ResponseEntity<StreamingResponseBody> exportPlans(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String industry,
+            @RequestParam(required = false) String goal
+    ) {
+        PlanExportFormat exportFormat = PlanExportFormat.parse(format);
+        StreamingResponseBody body = out -> planExporter.export(exportFormat, industry, goal, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("marketing-plans." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    // ---------------------------
+    // CALENDAR FEEDS (DB -> iCalendar)  (subscribe in a calendar client; polls get 304 until a plan changes)
+    // GET /api/v1/marketing/plans/42/calendar.ics   (one plan; only its creator or an ADMIN)
+    // GET /api/v1/marketing/calendar.ics            (every plan the authenticated user generated)
+    // ---------------------------
+    @GetMapping("/plans/{id}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getPlanCalendar(
+            @PathVariable Long id,
+            WebRequest webRequest
+    ) {
+        String owner = isAdmin() ? null : PlanGenerationQuota.currentUser();
+        String etag = weak(planCalendarFeed.planEtag(id, owner));
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag, PLAN_CACHE_CONTROL);
+        }
+        return calendar(etag, "marketing-plan-" + id + ".ics", out -> planCalendarFeed.writePlan(id, out));
+    }
+
+    @GetMapping("/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getUserCalendar(WebRequest webRequest) {
+        String user = PlanGenerationQuota.currentUser();
+        String etag = weak(planCalendarFeed.userEtag(user));
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag, PLAN_CACHE_CONTROL);
+        }
+        return calendar(etag, "marketing-plans.ics", out -> planCalendarFeed.writeUser(user, out));
     }
 
     // ---------------------------
@@ -51,9 +204,64 @@ public class MarketingPlanController {
     // ---------------------------
     @GetMapping("/plans/{id}")
     public ResponseEntity<MarketingPlanReadResponse> getPlanById(
+            @PathVariable Long id,
+            WebRequest webRequest
+    ) {
+        long version = marketingPlanService.getPlanVersion(id);
+        String etag = weak(MarketingPlanService.planEtag(id, version));
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag, PLAN_CACHE_CONTROL);
+        }
+
+        // The ETag sent is the body's own version, even if a lagging replica answered the two reads differently.
+        MarketingPlanReadResponse plan = marketingPlanService.getPlan(id, version);
+        return ResponseEntity.ok()
+                .eTag(weak(MarketingPlanService.planEtag(id, plan.version())))
+                .cacheControl(PLAN_CACHE_CONTROL)
+                .body(plan);
+    }
+
+    // ---------------------------
+    // DELETE ONE (DB)  (ADMIN only, see SecurityConfig)
+    // ---------------------------
+    @DeleteMapping("/plans/{id}")
+    public ResponseEntity<Void> deletePlan(
             @PathVariable Long id
     ) {
-        MarketingPlanReadResponse plan = marketingPlanService.getPlan(id);
-        return ResponseEntity.ok(plan);
+        marketingPlanService.deletePlan(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+    private static ResponseEntity<StreamingResponseBody> calendar(String etag, String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PLAN_CACHE_CONTROL)
+                .contentType(ICS)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(filename)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    // Weak: one tag covers the JSON, Smile, CBOR and gzip forms of the same plan version,
+    // and Tomcat does not gzip responses that carry a strong ETag.
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
     }
 }
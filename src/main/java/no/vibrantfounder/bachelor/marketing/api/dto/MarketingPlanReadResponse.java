@@ -11,7 +11,9 @@ public record MarketingPlanReadResponse(
         Integer resourcesPerWeek,
         LocalDateTime generatedAt,
         List<PlatformPlanRow> platforms,
-        List<AssumptionRow> assumptions
+        List<AssumptionRow> assumptions,
+        Long version,
+        Integer revision
 ) {
     public record PlatformPlanRow(
             Long id,
@@ -0,0 +1,16 @@
+package no.vibrantfounder.bachelor.marketing.api.dto;
+
+import java.util.List;
+
+/**
+ * AI output for a plan refresh (MARKETING_PLAN_REFRESH_V1).
+ *
+ * Only the list matching the requested scope is filled in; the others are absent.
+ * The result is merged into the stored plan, never returned as is.
+ */
+public record PlanRefreshResponse(
+        List<CalendarTaskDto> calendar,
+        List<PlatformPlanDto> platformPlans,
+        List<ContentIdeaDto> contentIdeas
+) {
+}
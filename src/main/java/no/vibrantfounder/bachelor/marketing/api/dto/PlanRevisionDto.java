@@ -0,0 +1,18 @@
+package no.vibrantfounder.bachelor.marketing.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry in a plan's revision history.
+ *
+ * scope is what produced the revision (GENERATED, CALENDAR, PLATFORM, CONTENT_IDEAS);
+ * storedBytes is roughly what the revision costs in the database (patch and/or snapshot).
+ */
+public record PlanRevisionDto(
+        int revision,
+        String scope,
+        LocalDateTime createdAt,
+        boolean snapshot,
+        long storedBytes
+) {
+}
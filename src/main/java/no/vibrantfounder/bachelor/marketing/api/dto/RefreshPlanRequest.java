@@ -0,0 +1,31 @@
+package no.vibrantfounder.bachelor.marketing.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import no.vibrantfounder.bachelor.marketing.domain.enums.Platform;
+import no.vibrantfounder.bachelor.marketing.domain.enums.RefreshScope;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO for regenerating one part of an existing plan.
+ *
+ * Note:
+ * - from/to are only used for CALENDAR (defaults: today and the following 6 days).
+ * - platform is required for PLATFORM.
+ */
+public record RefreshPlanRequest(
+
+        @NotNull(message = "Scope is required")
+        RefreshScope scope,
+
+        LocalDate from,
+
+        LocalDate to,
+
+        Platform platform,
+
+        @Size(max = 300, message = "Instructions must not exceed 300 characters")
+        String instructions
+) {
+}
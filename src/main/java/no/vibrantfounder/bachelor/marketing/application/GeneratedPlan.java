@@ -0,0 +1,12 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+
+/**
+ * A freshly generated plan together with the id it was stored under.
+ */
+public record GeneratedPlan(
+        Long planId,
+        MarketingPlanResponse response
+) {
+}
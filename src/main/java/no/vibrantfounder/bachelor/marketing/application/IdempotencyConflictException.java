@@ -0,0 +1,29 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import java.time.Duration;
+
+/**
+ * An Idempotency-Key was reused with a different request body, or its first
+ * request is still running after the retry stopped waiting. Mapped to 409;
+ * the still-running case carries a Retry-After.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public IdempotencyConflictException(String message) {
+        this(message, null);
+    }
+
+    public IdempotencyConflictException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return when retrying the same request makes sense, or null when it never will
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,234 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.common.IdempotencyProperties;
+import no.vibrantfounder.bachelor.marketing.api.dto.GeneratePlanRequest;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.persistence.IdempotencyKeyRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.IdempotencyRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plan generation behind an Idempotency-Key (scoped per user).
+ *
+ * - first request with a key claims it (IN_PROGRESS row) and runs the generation
+ * - a retry on the same node attaches to the running generation and gets the same response
+ * - a retry on another node polls the row until the owner finishes
+ * - either wait is capped by wait-timeout; after that the retry gets 409 + Retry-After
+ * - a retry after completion gets the stored response without calling the AI again
+ * - a failed (or abandoned) key may be retried with the same body
+ * - the owner touches its key every heartbeat-interval, so only a key whose node stopped
+ *   (not one whose AI call is merely slow) counts as abandoned
+ *
+ * Reusing a key with a different body is a conflict (409).
+ */
+@Component
+public class IdempotentPlanGeneration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentPlanGeneration.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MarketingPlanService marketingPlanService;
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private record InFlight(String requestHash, CompletableFuture<MarketingPlanResponse> response) {
+    }
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private record Claim(String user, String key, String ownerToken) {
+    }
+
+    // Keys this node is generating for, touched by the heartbeat.
+    private final ConcurrentMap<String, Claim> claims = new ConcurrentHashMap<>();
+
+    public IdempotentPlanGeneration(
+            MarketingPlanService marketingPlanService,
+            IdempotencyKeyRepository repository,
+            IdempotencyProperties properties,
+            ObjectMapper objectMapper
+    ) {
+        this.marketingPlanService = marketingPlanService;
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public MarketingPlanResponse generatePlan(String idempotencyKey, GeneratePlanRequest request) {
+        String key = idempotencyKey == null ? "" : idempotencyKey.trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        String user = PlanGenerationQuota.currentUser();
+        String hash = requestHash(request);
+
+        // Same node: attach to the running generation.
+        String slot = user + "\n" + key;
+        InFlight mine = new InFlight(hash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(slot, mine);
+        if (running != null) {
+            if (!running.requestHash().equals(hash)) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used with a different request");
+            }
+            return join(running.response());
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(properties.ttl());
+            String token = UUID.randomUUID().toString();
+            boolean owner = repository.tryInsert(user, key, hash, token, now, expiresAt)
+                    || repository.reclaim(user, key, hash, token, now, expiresAt, now.minus(properties.inProgressTimeout()));
+
+            MarketingPlanResponse response = owner
+                    ? generate(slot, new Claim(user, key, token), request)
+                    : awaitOther(user, key, hash);
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(slot, mine);
+        }
+    }
+
+    // ---------------------------
+    // Heartbeat for running generations
+    // ---------------------------
+    @Scheduled(fixedDelayString = "${marketing.idempotency.heartbeat-interval:PT1M}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        claims.forEach((slot, claim) -> {
+            if (!repository.heartbeat(claim.user(), claim.key(), claim.ownerToken(), now)) {
+                claims.remove(slot, claim);
+            }
+        });
+    }
+
+    // ---------------------------
+    // Background sweep of expired keys
+    // ---------------------------
+    @Scheduled(fixedDelayString = "${marketing.idempotency.sweep-interval:PT10M}")
+    public void sweepExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Swept {} expired idempotency keys", deleted);
+        }
+    }
+
+    private MarketingPlanResponse generate(String slot, Claim claim, GeneratePlanRequest request) {
+        GeneratedPlan plan;
+        claims.put(slot, claim);
+        try {
+            plan = marketingPlanService.generateAndStore(request);
+        } catch (RuntimeException e) {
+            repository.fail(claim.user(), claim.key(), claim.ownerToken(), LocalDateTime.now());
+            throw e;
+        } finally {
+            claims.remove(slot, claim);
+        }
+
+        String responseJson = null;
+        try {
+            responseJson = objectMapper.writeValueAsString(plan.response());
+        } catch (JsonProcessingException e) {
+            // The plan is stored; retries load it by id instead of generating another one.
+            log.warn("Could not serialize idempotent response for plan {}", plan.planId(), e);
+        }
+        if (!repository.complete(claim.user(), claim.key(), claim.ownerToken(), plan.planId(), responseJson, LocalDateTime.now())) {
+            log.warn("Idempotency-Key was taken over while plan {} was generating; keeping the new owner's result", plan.planId());
+        }
+        return plan.response();
+    }
+
+    private MarketingPlanResponse awaitOther(String user, String key, String hash) {
+        long deadline = System.nanoTime() + properties.waitTimeout().toNanos();
+
+        while (true) {
+            IdempotencyRecord record = repository.find(user, key)
+                    .orElseThrow(() -> new IdempotencyConflictException("Idempotency-Key expired while waiting"));
+
+            if (!record.requestHash().equals(hash)) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used with a different request");
+            }
+            if (record.status() == IdempotencyRecord.Status.COMPLETED) {
+                // Without a stored response, revision 1 is the plan exactly as it was generated.
+                return record.responseJson() == null
+                        ? marketingPlanService.getPlanRevision(record.planId(), 1)
+                        : read(record.responseJson());
+            }
+            if (record.status() == IdempotencyRecord.Status.FAILED) {
+                throw new IdempotencyConflictException("Previous request with this Idempotency-Key failed; retry it");
+            }
+            if (System.nanoTime() > deadline) {
+                throw stillInProgress();
+            }
+
+            try {
+                Thread.sleep(properties.pollInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException("Interrupted while waiting for Idempotency-Key");
+            }
+        }
+    }
+
+    private MarketingPlanResponse read(String responseJson) {
+        try {
+            return objectMapper.readValue(responseJson, MarketingPlanResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    private String requestHash(GeneratePlanRequest request) {
+        try {
+            byte[] canonical = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    private MarketingPlanResponse join(CompletableFuture<MarketingPlanResponse> running) {
+        try {
+            return running.get(properties.waitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw stillInProgress();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for Idempotency-Key");
+        }
+    }
+
+    private IdempotencyConflictException stillInProgress() {
+        return new IdempotencyConflictException(
+                "Request with this Idempotency-Key is still in progress", properties.waitTimeout());
+    }
+}
@@ -1,53 +1,125 @@
 package no.vibrantfounder.bachelor.marketing.application;
 
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import no.vibrantfounder.bachelor.ai.config.AnthropicProperties;
 import no.vibrantfounder.bachelor.ai.orchestration.AiCallOptions;
 import no.vibrantfounder.bachelor.ai.orchestration.AiOrchestrator;
 import no.vibrantfounder.bachelor.ai.orchestration.AiResult;
 import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import no.vibrantfounder.bachelor.common.CacheConfig;
+import no.vibrantfounder.bachelor.common.jsonpatch.JsonPatch;
 import no.vibrantfounder.bachelor.marketing.api.dto.CalendarTaskDto;
 import no.vibrantfounder.bachelor.marketing.api.dto.GeneratePlanRequest;
 import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanReadResponse;
 import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlanRefreshResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlanRevisionDto;
 import no.vibrantfounder.bachelor.marketing.api.dto.PlatformPlanDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.RefreshPlanRequest;
+import no.vibrantfounder.bachelor.marketing.event.PlanEventPublisher;
 import no.vibrantfounder.bachelor.marketing.persistence.Assumption;
 import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
 import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlanCollectionStamp;
 import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import no.vibrantfounder.bachelor.marketing.revision.PlanRevisions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+/**
+ * Generates, refreshes and reads marketing plans.
+ *
+ * Generation and refresh are not @Transactional: the AI call takes minutes and must not hold
+ * a pooled connection. Only the steps around it run in short transactions (transactionTemplate):
+ * loading the plan to refresh, and persisting the result. A plan that changed in between
+ * fails the persist with an optimistic-lock conflict (409).
+ */
 @Service
 public class MarketingPlanService {
 
+    private static final Logger log = LoggerFactory.getLogger(MarketingPlanService.class);
+
     private final AiOrchestrator aiOrchestrator;
     private final AnthropicProperties anthropicProperties;
     private final MarketingPlanRepository marketingPlanRepository;
+    private final ObservationRegistry observationRegistry;
+    private final PlanGenerationQuota planGenerationQuota;
+    private final ObjectMapper objectMapper;
+    private final PlanRevisions planRevisions;
+    private final PlanEventPublisher planEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    // Compact JSON with ISO dates, the same shape the AI produces (refresh slices, revisions, merged plans).
+    private final ObjectMapper planMapper;
 
     public MarketingPlanService(
             AiOrchestrator aiOrchestrator,
             AnthropicProperties anthropicProperties,
-            MarketingPlanRepository marketingPlanRepository
+            MarketingPlanRepository marketingPlanRepository,
+            ObservationRegistry observationRegistry,
+            PlanGenerationQuota planGenerationQuota,
+            ObjectMapper objectMapper,
+            PlanRevisions planRevisions,
+            PlanEventPublisher planEventPublisher,
+            PlatformTransactionManager transactionManager,
+            CacheManager cacheManager
     ) {
         this.aiOrchestrator = aiOrchestrator;
         this.anthropicProperties = anthropicProperties;
         this.marketingPlanRepository = marketingPlanRepository;
+        this.observationRegistry = observationRegistry;
+        this.planGenerationQuota = planGenerationQuota;
+        this.objectMapper = objectMapper;
+        this.planRevisions = planRevisions;
+        this.planEventPublisher = planEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.planMapper = objectMapper.copy()
+                .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
     // ---------------------------
     // CREATE (AI -> DB)
     // ---------------------------
-    @Transactional
     public MarketingPlanResponse generatePlan(GeneratePlanRequest request) {
+        return generateAndStore(request).response();
+    }
+
+    /**
+     * Same as {@link #generatePlan} but also returns the id of the stored plan
+     * (used by the Idempotency-Key flow to remember which plan a key produced).
+     */
+    public GeneratedPlan generateAndStore(GeneratePlanRequest request) {
+        // Per-user budgets: fail fast with 429 before paying for an AI call.
+        String user = PlanGenerationQuota.currentUser();
+        planGenerationQuota.acquire(user);
+
         Map<String, String> vars = Map.of(
                 "industry", safe(request.industry()),
                 "targetAudience", safe(request.targetAudience()),
@@ -59,19 +131,18 @@ public class MarketingPlanService {
                 "constraints", csvStrings(request.constraints())
         );
 
-        AiCallOptions options = new AiCallOptions(
-                anthropicProperties.model(),
-                anthropicProperties.maxTokens(),
-                anthropicProperties.temperature()
-        );
-
         AiResult<MarketingPlanResponse> result = aiOrchestrator.callForJson(
                 PromptId.MARKETING_PLAN_V1,
                 vars,
                 MarketingPlanResponse.class,
-                options
+                callOptions()
         );
 
+        // Per-call metrics (latency/tokens/cost) are recorded by AiOrchestrator; this is just for the dev log.
+        log.debug("Marketing plan generated inputTokens={} outputTokens={} stopReason={}",
+                result.inputTokens(), result.outputTokens(), result.stopReason());
+        planGenerationQuota.charge(user, tokens(result.inputTokens()) + tokens(result.outputTokens()));
+
         MarketingPlanResponse plan = result.value();
         validateAgainstRequest(plan, request);
 
@@ -80,9 +151,197 @@ public class MarketingPlanService {
 
         // ---- PERSIST ----
         MarketingPlan entity = toEntity(request, plan, result.rawText());
-        marketingPlanRepository.save(entity);
+        entity.setCreatedBy(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            Observation.createNotStarted("marketing.plan.persist", observationRegistry)
+                    .observe(() -> marketingPlanRepository.saveAndFlush(entity));
+            // Outbox row in the same transaction: integrators hear about exactly the plans that were committed.
+            planEventPublisher.planCompleted(entity);
+        });
+
+        return new GeneratedPlan(entity.getId(), plan);
+    }
+
+    // ---------------------------
+    // REFRESH (stored plan slice -> AI -> next revision of the same plan)
+    // Only the slice for the requested scope is sent. The merged result becomes the plan's new
+    // raw_json; the change is kept as a JSON Patch revision (see PlanRevisions), not a full copy.
+    // A plan generated by someone other than owner is reported as not found, before any budget
+    // is spent; a null owner (admins) may refresh every plan.
+    // ---------------------------
+    public GeneratedPlan refreshPlan(Long id, String owner, RefreshPlanRequest request) {
+        // Read-write, so it runs on the primary: a lagging replica would refresh an old revision.
+        StoredPlan stored = transactionTemplate.execute(status -> {
+            MarketingPlan plan = marketingPlanRepository.findById(id)
+                    .filter(p -> owner == null || owner.equals(p.getCreatedBy()))
+                    .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+            return new StoredPlan(plan, readStoredPlan(plan));
+        });
+        MarketingPlan loaded = stored.entity();
+        MarketingPlanResponse current = stored.plan();
+        int resourcesPerWeek = loaded.getResourcesPerWeek();
+
+        // Resolve (and reject bad scopes) before spending any budget.
+        PlanRefreshSlices.Refresh refresh = PlanRefreshSlices.resolve(request, current, resourcesPerWeek, LocalDate.now());
+
+        String user = PlanGenerationQuota.currentUser();
+        planGenerationQuota.acquire(user);
+
+        Map<String, String> vars = Map.ofEntries(
+                Map.entry("industry", safe(loaded.getIndustry())),
+                Map.entry("targetAudience", safe(loaded.getTargetAudience())),
+                Map.entry("primaryGoal", safe(loaded.getPrimaryGoal())),
+                Map.entry("resourcesPerWeek", String.valueOf(resourcesPerWeek)),
+                Map.entry("scope", refresh.scope().name()),
+                Map.entry("from", refresh.from() == null ? "-" : refresh.from().toString()),
+                Map.entry("to", refresh.to() == null ? "-" : refresh.to().toString()),
+                Map.entry("platform", refresh.platform() == null ? "-" : refresh.platform().name()),
+                Map.entry("maxItems", String.valueOf(refresh.maxItems())),
+                Map.entry("instructions", refresh.instructions().isEmpty() ? "-" : refresh.instructions()),
+                Map.entry("slice", writeJson(PlanRefreshSlices.slice(current, refresh)))
+        );
+
+        AiResult<PlanRefreshResponse> result = aiOrchestrator.callForJson(
+                PromptId.MARKETING_PLAN_REFRESH_V1,
+                vars,
+                PlanRefreshResponse.class,
+                callOptions()
+        );
+
+        log.debug("Marketing plan {} refreshed scope={} inputTokens={} outputTokens={} stopReason={}",
+                id, refresh.scope(), result.inputTokens(), result.outputTokens(), result.stopReason());
+        planGenerationQuota.charge(user, tokens(result.inputTokens()) + tokens(result.outputTokens()));
+
+        String generatedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+        MarketingPlanResponse plan = ensureTodayTasks(
+                PlanRefreshSlices.merge(current, refresh, result.value(), resourcesPerWeek, generatedAt)
+        );
+
+        // ---- PERSIST ----
+        // A plan changed since it was loaded, or a concurrent refresh of it (revision key or
+        // @Version), fails here and rolls back.
+        LocalDateTime now = LocalDateTime.now();
+        JsonNode after = planMapper.valueToTree(plan);
+        JsonNode before = planMapper.valueToTree(current);
+        return transactionTemplate.execute(status -> {
+            MarketingPlan entity = marketingPlanRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+            if (!Objects.equals(entity.getVersion(), loaded.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(MarketingPlan.class, id);
+            }
+            int revision = planRevisions.append(entity, before, after, refresh.scope().name(), now);
+
+            entity.setRawJson(after.toString());
+            entity.setGeneratedAt(now);
+            entity.setRevision(revision);
+            syncPlatforms(entity, plan);
+            Observation.createNotStarted("marketing.plan.persist", observationRegistry)
+                    .observe(() -> marketingPlanRepository.saveAndFlush(entity));
+            evictCachedRead(id, loaded.getVersion());
+
+            return new GeneratedPlan(entity.getId(), plan);
+        });
+    }
+
+    // The plan a refresh starts from; rawJson is read inside the loading transaction.
+    private record StoredPlan(MarketingPlan entity, MarketingPlanResponse plan) {
+    }
+
+    // ---------------------------
+    // REVISIONS (history, reconstruction, diff)
+    // ---------------------------
+    @Transactional(readOnly = true)
+    public List<PlanRevisionDto> getPlanRevisions(Long id) {
+        MarketingPlan plan = marketingPlanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+
+        List<PlanRevisionDto> revisions = planRevisions.summaries(id).stream()
+                .map(s -> new PlanRevisionDto(s.revision(), s.scope(), s.createdAt(), s.snapshot(), s.storedChars()))
+                .toList();
+        if (!revisions.isEmpty()) return revisions;
 
-        return plan;
+        // Never refreshed: the only revision is the generated plan itself.
+        long size = plan.getRawJson() == null ? 0 : plan.getRawJson().length();
+        return List.of(new PlanRevisionDto(1, PlanRevisions.GENERATED, plan.getGeneratedAt(), true, size));
+    }
+
+    @Transactional(readOnly = true)
+    public MarketingPlanResponse getPlanRevision(Long id, int revision) {
+        MarketingPlan plan = marketingPlanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+        try {
+            return planMapper.treeToValue(revisionTree(plan, revision), MarketingPlanResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read revision " + revision + " of MarketingPlan " + id, e);
+        }
+    }
+
+    /**
+     * JSON Patch (RFC 6902) that turns revision {@code from} into revision {@code to}; either order works.
+     */
+    @Transactional(readOnly = true)
+    public String getPlanDiff(Long id, int from, int to) {
+        MarketingPlan plan = marketingPlanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+        return JsonPatch.diff(revisionTree(plan, from), revisionTree(plan, to)).toString();
+    }
+
+    private JsonNode revisionTree(MarketingPlan plan, int revision) {
+        if (revision < 1 || revision > plan.getRevision()) {
+            throw new IllegalArgumentException("Revision " + revision + " not found for MarketingPlan " + plan.getId());
+        }
+        // The current revision is always materialized in raw_json.
+        if (revision == plan.getRevision()) {
+            return planMapper.valueToTree(readStoredPlan(plan));
+        }
+        return planRevisions.reconstruct(plan.getId(), revision);
+    }
+
+    /**
+     * Keeps the platform_plan rows in step with a refreshed platform strategy.
+     */
+    private static void syncPlatforms(MarketingPlan entity, MarketingPlanResponse plan) {
+        if (plan.platformPlans() == null) return;
+        for (PlatformPlanDto p : plan.platformPlans()) {
+            if (p == null || p.platform() == null) continue;
+            for (PlatformPlan row : entity.getPlatforms()) {
+                if (p.platform().name().equals(row.getPlatform())) {
+                    row.setFrequencyPerWeek(p.frequencyPerWeek());
+                    row.setRationale(p.rationale());
+                }
+            }
+        }
+    }
+
+    private MarketingPlanResponse readStoredPlan(MarketingPlan plan) {
+        // raw_json may carry text around the object (first AI output), so only the outer object is read.
+        String rawJson = plan.getRawJson();
+        int start = rawJson == null ? -1 : rawJson.indexOf('{');
+        int end = rawJson == null ? -1 : rawJson.lastIndexOf('}');
+        if (start >= 0 && end > start) {
+            try {
+                return objectMapper.readValue(rawJson.substring(start, end + 1), MarketingPlanResponse.class);
+            } catch (JsonProcessingException e) {
+                log.debug("Stored plan {} is not readable: {}", plan.getId(), e.getOriginalMessage());
+            }
+        }
+        throw new IllegalArgumentException("MarketingPlan " + plan.getId() + " has no readable stored plan");
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return planMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize plan JSON", e);
+        }
+    }
+
+    private AiCallOptions callOptions() {
+        return new AiCallOptions(
+                anthropicProperties.model(),
+                anthropicProperties.maxTokens(),
+                anthropicProperties.temperature()
+        );
     }
 
     private MarketingPlanResponse ensureTodayTasks(MarketingPlanResponse plan) {
@@ -159,18 +418,71 @@ public class MarketingPlanService {
 
     // ---------------------------
     // READ ONE (DB -> API)  (frontend-safe, no rawJson)
+    // Read-only transactions are served by the replica when one is configured (see ReadReplicaConfig).
     // ---------------------------
-    @Transactional
+    @Transactional(readOnly = true)
     public MarketingPlanReadResponse getPlan(Long id) {
         MarketingPlan plan = marketingPlanRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
         return toReadResponse(plan);
     }
 
+    /**
+     * {@link #getPlan(Long)} through the in-process cache (see CacheConfig), keyed by id and the
+     * version the caller's ETag was built from. A lagging replica may still return an older
+     * version; that body is returned but not cached, so it cannot outlive the lag.
+     */
+    @Cacheable(value = CacheConfig.PLAN_CACHE, key = "#id + ':' + #version", unless = "#result.version() != #version")
+    @Transactional(readOnly = true)
+    public MarketingPlanReadResponse getPlan(Long id, long version) {
+        return getPlan(id);
+    }
+
     // ---------------------------
-    // READ ALL (DB -> API)  (paginated + optional filtering)
+    // ETAGS (conditional GET)
+    // Computed from id + version only, so a 304 never touches the child collections.
+    // ---------------------------
+    @Transactional(readOnly = true)
+    public long getPlanVersion(Long id) {
+        return marketingPlanRepository.findVersionById(id)
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+    }
+
+    public static String planEtag(long id, long version) {
+        return "plan-" + id + "-v" + version;
+    }
+
+    @Transactional(readOnly = true)
+    public String getPlansEtag(String industry, String primaryGoal, Pageable pageable) {
+        PlanCollectionStamp stamp = marketingPlanRepository.findCollectionStamp();
+        String query = safe(industry).toLowerCase() + "|" + safe(primaryGoal).toLowerCase() + "|" + pageable;
+        return "plans-" + stamp.count() + "-" + stamp.maxId() + "-" + stamp.versionSum()
+                + "-" + Integer.toHexString(query.hashCode());
+    }
+
+    // ---------------------------
+    // DELETE (DB)  (admin only, see SecurityConfig; evicts the cached read model)
     // ---------------------------
     @Transactional
+    public void deletePlan(Long id) {
+        MarketingPlan plan = marketingPlanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+        marketingPlanRepository.delete(plan);
+        evictCachedRead(id, plan.getVersion());
+    }
+
+    // Inside a transaction the transaction-aware cache defers this until the commit.
+    private void evictCachedRead(Long id, Long version) {
+        Cache cache = cacheManager.getCache(CacheConfig.PLAN_CACHE);
+        if (cache != null && version != null) {
+            cache.evict(CacheConfig.planKey(id, version));
+        }
+    }
+
+    // ---------------------------
+    // READ ALL (DB -> API)  (paginated + optional filtering)
+    // ---------------------------
+    @Transactional(readOnly = true)
     public Page<MarketingPlanReadResponse> getPlans(String industry, String primaryGoal, Pageable pageable) {
         boolean hasIndustry = industry != null && !industry.trim().isBlank();
         boolean hasGoal = primaryGoal != null && !primaryGoal.trim().isBlank();
@@ -227,7 +539,9 @@ public class MarketingPlanService {
                 plan.getResourcesPerWeek(),
                 plan.getGeneratedAt(),
                 platforms,
-                assumptions
+                assumptions,
+                plan.getVersion(),
+                plan.getRevision()
         );
     }
 
@@ -260,6 +574,10 @@ public class MarketingPlanService {
     // ---------------------------
     // Helpers
     // ---------------------------
+    private static long tokens(Integer count) {
+        return count == null ? 0 : count;
+    }
+
     private static String safe(String s) {
         return s == null ? "" : s.trim();
     }
@@ -0,0 +1,90 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.vibrantfounder.bachelor.common.RateLimitProperties;
+import no.vibrantfounder.bachelor.common.ratelimit.BucketSpec;
+import no.vibrantfounder.bachelor.common.ratelimit.RateLimitBackend;
+import no.vibrantfounder.bachelor.common.ratelimit.RateLimitDecision;
+import no.vibrantfounder.bachelor.common.ratelimit.RateLimitExceededException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user budgets for plan generation (see RateLimitProperties).
+ *
+ * A request permit is taken before the AI call; the tokens the call actually used are
+ * charged afterwards, so one very large plan can push a user into debt for a while.
+ * Both run outside the plan transaction, so the JDBC backend never needs a second connection.
+ */
+@Component
+public class PlanGenerationQuota {
+
+    static final String REQUESTS = "requests";
+    static final String TOKENS = "tokens";
+
+    private final RateLimitBackend backend;
+    private final boolean enabled;
+    private final BucketSpec requests;
+    private final BucketSpec tokens;
+    private final Counter rejectedRequests;
+    private final Counter rejectedTokens;
+
+    public PlanGenerationQuota(RateLimitBackend backend, RateLimitProperties properties, MeterRegistry registry) {
+        this.backend = backend;
+        this.enabled = properties.enabled();
+        this.requests = new BucketSpec(properties.requests().capacity(), properties.requests().refillPeriod());
+        this.tokens = new BucketSpec(properties.tokens().capacity(), properties.tokens().refillPeriod());
+        this.rejectedRequests = rejectedCounter(registry, REQUESTS);
+        this.rejectedTokens = rejectedCounter(registry, TOKENS);
+    }
+
+    /**
+     * Takes one request permit for {@code user}, provided the user is not in token debt.
+     *
+     * @throws RateLimitExceededException if either budget is exhausted
+     */
+    public void acquire(String user) {
+        if (!enabled) return;
+
+        RateLimitDecision tokenCheck = backend.tryAcquire(key(TOKENS, user), tokens, 0);
+        if (!tokenCheck.allowed()) {
+            rejectedTokens.increment();
+            throw new RateLimitExceededException(TOKENS, tokenCheck.retryAfter());
+        }
+
+        RateLimitDecision request = backend.tryAcquire(key(REQUESTS, user), requests, 1);
+        if (!request.allowed()) {
+            rejectedRequests.increment();
+            throw new RateLimitExceededException(REQUESTS, request.retryAfter());
+        }
+    }
+
+    /**
+     * Charges the tokens an AI call used to {@code user}'s token budget.
+     */
+    public void charge(String user, long usedTokens) {
+        if (!enabled || usedTokens <= 0) return;
+        backend.consume(key(TOKENS, user), tokens, usedTokens);
+    }
+
+    /**
+     * Name of the authenticated principal, or "anonymous" outside a secured request.
+     */
+    public static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || auth.getName() == null ? "anonymous" : auth.getName();
+    }
+
+    private static String key(String limit, String user) {
+        return "plan:" + limit + ":" + user;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String limit) {
+        return Counter.builder("marketing.rate_limit.rejected")
+                .description("Plan generations rejected by a per-user budget")
+                .tag("limit", limit)
+                .register(registry);
+    }
+}
@@ -0,0 +1,236 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.marketing.api.dto.CalendarTaskDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.ContentIdeaDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.ContentPillarDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlanRefreshResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlatformPlanDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.RefreshPlanRequest;
+import no.vibrantfounder.bachelor.marketing.domain.enums.Platform;
+import no.vibrantfounder.bachelor.marketing.domain.enums.RefreshScope;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cuts the part of a stored plan that a refresh needs as prompt context, and merges
+ * the regenerated part back into a copy of the plan.
+ *
+ * A refresh only ever sees its slice (a week of calendar, one platform, the idea titles),
+ * so prompt and output stay a small fraction of a full MARKETING_PLAN_V1 generation.
+ */
+public final class PlanRefreshSlices {
+
+    static final int DEFAULT_CALENDAR_DAYS = 7;
+    static final int MAX_CALENDAR_DAYS = 31;
+    // Same caps as the full plan prompt.
+    static final int MAX_CALENDAR_ITEMS = 20;
+    static final int CONTENT_IDEAS = 6;
+
+    private static final Comparator<CalendarTaskDto> CALENDAR_ORDER = Comparator
+            .comparing(CalendarTaskDto::date, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CalendarTaskDto::time, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private PlanRefreshSlices() {
+        // Utility class
+    }
+
+    /**
+     * A refresh request with defaults applied and checked against the stored plan.
+     */
+    public record Refresh(
+            RefreshScope scope,
+            LocalDate from,
+            LocalDate to,
+            Platform platform,
+            int maxItems,
+            String instructions
+    ) {
+    }
+
+    public static Refresh resolve(RefreshPlanRequest request, MarketingPlanResponse plan, int resourcesPerWeek, LocalDate today) {
+        String instructions = request.instructions() == null ? "" : request.instructions().trim();
+
+        return switch (request.scope()) {
+            case CALENDAR -> {
+                LocalDate from = request.from() == null ? today : request.from();
+                LocalDate to = request.to() == null ? from.plusDays(DEFAULT_CALENDAR_DAYS - 1) : request.to();
+                if (to.isBefore(from)) {
+                    throw new IllegalArgumentException("Refresh range 'to' must not be before 'from'");
+                }
+                long days = ChronoUnit.DAYS.between(from, to) + 1;
+                if (days > MAX_CALENDAR_DAYS) {
+                    throw new IllegalArgumentException("Refresh range must not exceed " + MAX_CALENDAR_DAYS + " days");
+                }
+                int items = (int) Math.ceil(days * Math.max(resourcesPerWeek, 1) / 7.0);
+                yield new Refresh(RefreshScope.CALENDAR, from, to, null, Math.min(items, MAX_CALENDAR_ITEMS), instructions);
+            }
+            case PLATFORM -> {
+                if (request.platform() == null) {
+                    throw new IllegalArgumentException("Platform is required for scope PLATFORM");
+                }
+                if (platformPlan(plan, request.platform()) == null) {
+                    throw new IllegalArgumentException("Plan has no " + request.platform() + " strategy to refresh");
+                }
+                yield new Refresh(RefreshScope.PLATFORM, null, null, request.platform(), 1, instructions);
+            }
+            case CONTENT_IDEAS -> new Refresh(RefreshScope.CONTENT_IDEAS, null, null, null, CONTENT_IDEAS, instructions);
+        };
+    }
+
+    // ---------------------------
+    // SLICE (stored plan -> prompt context)
+    // ---------------------------
+    public static Map<String, Object> slice(MarketingPlanResponse plan, Refresh refresh) {
+        Map<String, Object> slice = new LinkedHashMap<>();
+
+        switch (refresh.scope()) {
+            case CALENDAR -> {
+                slice.put("platformPlans", nullToEmpty(plan.platformPlans()).stream()
+                        .filter(Objects::nonNull)
+                        .map(PlanRefreshSlices::platformOutline)
+                        .toList());
+                slice.put("calendar", nullToEmpty(plan.calendar()).stream()
+                        .filter(t -> t != null && inRange(t.date(), refresh))
+                        .toList());
+            }
+            case PLATFORM -> {
+                slice.put("platformPlan", platformPlan(plan, refresh.platform()));
+                nullToEmpty(plan.platformMetrics()).stream()
+                        .filter(m -> m != null && refresh.platform().name().equals(m.platform()))
+                        .findFirst()
+                        .ifPresent(m -> slice.put("platformMetrics", m));
+            }
+            case CONTENT_IDEAS -> {
+                slice.put("platformPlans", nullToEmpty(plan.platformPlans()).stream()
+                        .filter(Objects::nonNull)
+                        .map(PlanRefreshSlices::platformOutline)
+                        .toList());
+                slice.put("existingIdeaTitles", nullToEmpty(plan.contentIdeas()).stream()
+                        .filter(i -> i != null && i.title() != null)
+                        .map(ContentIdeaDto::title)
+                        .toList());
+            }
+        }
+        return slice;
+    }
+
+    // ---------------------------
+    // MERGE (AI output -> new plan)
+    // Null list elements in the AI output are dropped, never dereferenced.
+    // ---------------------------
+    public static MarketingPlanResponse merge(
+            MarketingPlanResponse plan,
+            Refresh refresh,
+            PlanRefreshResponse output,
+            int resourcesPerWeek,
+            String generatedAt
+    ) {
+        List<PlatformPlanDto> platformPlans = plan.platformPlans();
+        List<ContentIdeaDto> contentIdeas = plan.contentIdeas();
+        List<CalendarTaskDto> calendar = plan.calendar();
+
+        switch (refresh.scope()) {
+            case CALENDAR -> {
+                List<CalendarTaskDto> fresh = nullToEmpty(output.calendar()).stream()
+                        .filter(Objects::nonNull)
+                        .filter(t -> inRange(t.date(), refresh))
+                        .limit(refresh.maxItems())
+                        .toList();
+                if (fresh.isEmpty()) {
+                    throw new AiException(AiException.Type.BAD_OUTPUT, "AI returned no calendar entries inside the refresh range.");
+                }
+                List<CalendarTaskDto> merged = new ArrayList<>();
+                nullToEmpty(calendar).stream()
+                        .filter(t -> t != null && !inRange(t.date(), refresh))
+                        .forEach(merged::add);
+                merged.addAll(fresh);
+                merged.sort(CALENDAR_ORDER);
+                calendar = merged;
+            }
+            case PLATFORM -> {
+                PlatformPlanDto fresh = nullToEmpty(output.platformPlans()).stream()
+                        .filter(Objects::nonNull)
+                        .filter(p -> p.platform() == refresh.platform())
+                        .findFirst()
+                        .orElseThrow(() -> new AiException(AiException.Type.BAD_OUTPUT,
+                                "AI returned no " + refresh.platform() + " strategy."));
+                if (fresh.frequencyPerWeek() > resourcesPerWeek) {
+                    throw new AiException(AiException.Type.BAD_OUTPUT,
+                            "frequencyPerWeek (" + fresh.frequencyPerWeek() + ") exceeds resourcesPerWeek (" + resourcesPerWeek +
+                                    ") for platform " + fresh.platform().name());
+                }
+                platformPlans = nullToEmpty(platformPlans).stream()
+                        .map(p -> p != null && p.platform() == refresh.platform() ? fresh : p)
+                        .toList();
+            }
+            case CONTENT_IDEAS -> {
+                contentIdeas = nullToEmpty(output.contentIdeas()).stream()
+                        .filter(Objects::nonNull)
+                        .limit(refresh.maxItems())
+                        .toList();
+                if (contentIdeas.isEmpty()) {
+                    throw new AiException(AiException.Type.BAD_OUTPUT, "AI returned no content ideas.");
+                }
+            }
+        }
+
+        // todayTasks is left null so the service recomputes it from the merged calendar.
+        return new MarketingPlanResponse(
+                plan.summary(),
+                platformPlans,
+                plan.measurement(),
+                plan.assumptions(),
+                plan.confidence(),
+
+                plan.planPeriodWeeks(),
+                plan.growthPotential(),
+                plan.goalProgressPct(),
+                null,
+
+                plan.platformMetrics(),
+                contentIdeas,
+                calendar,
+
+                generatedAt
+        );
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+    private static Map<String, Object> platformOutline(PlatformPlanDto p) {
+        Map<String, Object> outline = new LinkedHashMap<>();
+        outline.put("platform", p.platform());
+        outline.put("frequencyPerWeek", p.frequencyPerWeek());
+        outline.put("formats", p.formats());
+        outline.put("contentPillars", nullToEmpty(p.contentPillars()).stream()
+                .filter(Objects::nonNull)
+                .map(ContentPillarDto::name)
+                .toList());
+        return outline;
+    }
+
+    private static PlatformPlanDto platformPlan(MarketingPlanResponse plan, Platform platform) {
+        return nullToEmpty(plan.platformPlans()).stream()
+                .filter(p -> p != null && p.platform() == platform)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean inRange(LocalDate date, Refresh refresh) {
+        return date != null && !date.isBefore(refresh.from()) && !date.isAfter(refresh.to());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
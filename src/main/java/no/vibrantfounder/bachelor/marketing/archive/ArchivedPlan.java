@@ -0,0 +1,46 @@
+package no.vibrantfounder.bachelor.marketing.archive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything stored for one plan across marketing_plan, platform_plan, assumption and
+ * marketing_plan_revision. Serialized as JSON and gzip'ed into marketing_plan_archive.payload.
+ */
+public record ArchivedPlan(
+        long id,
+        String industry,
+        String targetAudience,
+        String primaryGoal,
+        int resourcesPerWeek,
+        LocalDateTime generatedAt,
+        long version,
+        int revision,
+        String createdBy,
+        String rawJson,
+        List<Platform> platforms,
+        List<Assumption> assumptions,
+        List<Revision> revisions
+) {
+    public record Platform(
+            long id,
+            String platform,
+            int frequencyPerWeek,
+            String rationale
+    ) {}
+
+    public record Assumption(
+            long id,
+            String text,
+            String riskLevel,
+            String howToTest
+    ) {}
+
+    public record Revision(
+            int revision,
+            String scope,
+            String patchJson,
+            String snapshotJson,
+            LocalDateTime createdAt
+    ) {}
+}
@@ -0,0 +1,171 @@
+package no.vibrantfounder.bachelor.marketing.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.vibrantfounder.bachelor.common.CacheConfig;
+import no.vibrantfounder.bachelor.common.PlanArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves plans older than the retention period out of the hot tables.
+ *
+ * Each batch runs in its own short transaction (select ids -> copy to archive -> delete),
+ * with a pause between batches, so user traffic never waits behind one long purge.
+ * If two instances pick the same batch, the archive primary key makes one of them roll back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "marketing.archive", name = "enabled", havingValue = "true")
+public class PlanArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanArchiveJob.class);
+
+    private final PlanArchiveRepository repository;
+    private final PlanArchiveProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    private final Counter archivedPlans;
+    private final Counter rawBytes;
+    private final Counter compressedBytes;
+    private final Counter failedBatches;
+    private final Timer batchTimer;
+
+    public PlanArchiveJob(
+            PlanArchiveRepository repository,
+            PlanArchiveProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            CacheManager cacheManager,
+            MeterRegistry registry
+    ) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+
+        this.archivedPlans = Counter.builder("marketing.archive.plans")
+                .description("Plans moved to marketing_plan_archive")
+                .register(registry);
+        this.rawBytes = Counter.builder("marketing.archive.bytes")
+                .description("Archived plan JSON size")
+                .baseUnit("bytes")
+                .tag("encoding", "raw")
+                .register(registry);
+        this.compressedBytes = Counter.builder("marketing.archive.bytes")
+                .description("Archived plan JSON size")
+                .baseUnit("bytes")
+                .tag("encoding", "gzip")
+                .register(registry);
+        this.failedBatches = Counter.builder("marketing.archive.failures")
+                .description("Archive batches that were rolled back")
+                .register(registry);
+        this.batchTimer = Timer.builder("marketing.archive.batch")
+                .description("Time to archive one batch of plans")
+                .register(registry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${marketing.archive.initial-delay:PT1M}",
+            fixedDelayString = "${marketing.archive.interval:PT1H}"
+    )
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.retention());
+        int total = 0;
+
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            int archived;
+            try {
+                archived = batchTimer.record(() -> archiveBatch(cutoff));
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                log.warn("Plan archive batch failed, retrying next run: {}", e.toString());
+                break;
+            }
+
+            total += archived;
+            if (archived < properties.batchSize() || !pause()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} marketing plans generated before {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Archives up to one batch of plans generated before {@code cutoff}.
+     *
+     * @return number of plans archived (0 when nothing is due)
+     */
+    public int archiveBatch(LocalDateTime cutoff) {
+        List<PlanArchiveRepository.Entry> entries = transactionTemplate.execute(status -> {
+            List<Long> due = repository.findIdsGeneratedBefore(cutoff, properties.batchSize());
+            if (due.isEmpty()) return List.of();
+
+            // A plan refreshed since it was loaded is not deleted, and so not archived either.
+            List<PlanArchiveRepository.Entry> archived = repository.deleteUnchanged(repository.loadPlans(due)).stream()
+                    .map(this::toEntry)
+                    .toList();
+            if (!archived.isEmpty()) {
+                repository.insertArchived(archived, LocalDateTime.now());
+            }
+            return archived;
+        });
+
+        if (entries == null || entries.isEmpty()) return 0;
+
+        Cache cache = cacheManager.getCache(CacheConfig.PLAN_CACHE);
+        for (PlanArchiveRepository.Entry e : entries) {
+            rawBytes.increment(e.rawBytes());
+            compressedBytes.increment(e.payload().length);
+            if (cache != null) {
+                cache.evict(CacheConfig.planKey(e.plan().id(), e.plan().version()));
+            }
+        }
+        archivedPlans.increment(entries.size());
+        return entries.size();
+    }
+
+    private PlanArchiveRepository.Entry toEntry(ArchivedPlan plan) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(plan);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+            return new PlanArchiveRepository.Entry(plan, json.length, out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pauseBetweenBatches());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package no.vibrantfounder.bachelor.marketing.archive;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access for moving plans from the hot tables to marketing_plan_archive.
+ *
+ * Due plans are found through the generated_at index, oldest first; every other statement
+ * works on that explicit id list, so a batch only locks the rows it archives.
+ * The due ids are read without a lock; the delete only removes a plan whose version is still
+ * the one that was loaded, so a refresh that commits in between keeps its plan.
+ */
+@Repository
+public class PlanArchiveRepository {
+
+    private static final String SELECT_DUE_IDS = """
+            SELECT id FROM marketing_plan
+            WHERE generated_at < ?
+            ORDER BY generated_at
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+    private static final String SELECT_PLANS = """
+            SELECT id, industry, target_audience, primary_goal, resources_per_week, generated_at, version,
+                   revision, created_by, raw_json
+            FROM marketing_plan
+            WHERE id IN (:ids)
+            ORDER BY id
+            """;
+
+    private static final String SELECT_PLATFORMS = """
+            SELECT id, marketing_plan_id, platform, frequency_per_week, rationale
+            FROM platform_plan
+            WHERE marketing_plan_id IN (:ids)
+            ORDER BY id
+            """;
+
+    private static final String SELECT_ASSUMPTIONS = """
+            SELECT id, marketing_plan_id, text, risk_level, how_to_test
+            FROM assumption
+            WHERE marketing_plan_id IN (:ids)
+            ORDER BY id
+            """;
+
+    private static final String SELECT_REVISIONS = """
+            SELECT plan_id, revision, scope, patch_json, snapshot_json, created_at
+            FROM marketing_plan_revision
+            WHERE plan_id IN (:ids)
+            ORDER BY plan_id, revision
+            """;
+
+    private static final String INSERT_ARCHIVE = """
+            INSERT INTO marketing_plan_archive (id, industry, primary_goal, generated_at, archived_at, raw_bytes, payload)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // platform_plan, assumption and marketing_plan_revision rows go with it (ON DELETE CASCADE).
+    // plan_events rows have no FK and stay until the outbox retention removes them.
+    private static final String DELETE_PLAN = "DELETE FROM marketing_plan WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PlanArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public List<Long> findIdsGeneratedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(SELECT_DUE_IDS, Long.class, Timestamp.valueOf(cutoff), limit);
+    }
+
+    public List<ArchivedPlan> loadPlans(List<Long> ids) {
+        Map<String, Object> params = Map.of("ids", ids);
+
+        Map<Long, List<ArchivedPlan.Platform>> platforms = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_PLATFORMS, params, rs -> {
+            platforms.computeIfAbsent(rs.getLong("marketing_plan_id"), k -> new ArrayList<>())
+                    .add(new ArchivedPlan.Platform(
+                            rs.getLong("id"),
+                            rs.getString("platform"),
+                            rs.getInt("frequency_per_week"),
+                            rs.getString("rationale")
+                    ));
+        });
+
+        Map<Long, List<ArchivedPlan.Assumption>> assumptions = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_ASSUMPTIONS, params, rs -> {
+            assumptions.computeIfAbsent(rs.getLong("marketing_plan_id"), k -> new ArrayList<>())
+                    .add(new ArchivedPlan.Assumption(
+                            rs.getLong("id"),
+                            rs.getString("text"),
+                            rs.getString("risk_level"),
+                            rs.getString("how_to_test")
+                    ));
+        });
+
+        Map<Long, List<ArchivedPlan.Revision>> revisions = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_REVISIONS, params, rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            revisions.computeIfAbsent(rs.getLong("plan_id"), k -> new ArrayList<>())
+                    .add(new ArchivedPlan.Revision(
+                            rs.getInt("revision"),
+                            rs.getString("scope"),
+                            rs.getString("patch_json"),
+                            rs.getString("snapshot_json"),
+                            createdAt == null ? null : createdAt.toLocalDateTime()
+                    ));
+        });
+
+        return namedJdbcTemplate.query(SELECT_PLANS, params, (rs, rowNum) -> {
+            long id = rs.getLong("id");
+            Timestamp generatedAt = rs.getTimestamp("generated_at");
+            return new ArchivedPlan(
+                    id,
+                    rs.getString("industry"),
+                    rs.getString("target_audience"),
+                    rs.getString("primary_goal"),
+                    rs.getInt("resources_per_week"),
+                    generatedAt == null ? null : generatedAt.toLocalDateTime(),
+                    rs.getLong("version"),
+                    rs.getInt("revision"),
+                    rs.getString("created_by"),
+                    rs.getString("raw_json"),
+                    platforms.getOrDefault(id, List.of()),
+                    assumptions.getOrDefault(id, List.of()),
+                    revisions.getOrDefault(id, List.of())
+            );
+        });
+    }
+
+    public void insertArchived(List<Entry> entries, LocalDateTime archivedAt) {
+        Timestamp archived = Timestamp.valueOf(archivedAt);
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVE, entries, entries.size(), (ps, e) -> {
+            ps.setLong(1, e.plan().id());
+            ps.setString(2, e.plan().industry());
+            ps.setString(3, e.plan().primaryGoal());
+            ps.setTimestamp(4, e.plan().generatedAt() == null ? null : Timestamp.valueOf(e.plan().generatedAt()));
+            ps.setTimestamp(5, archived);
+            ps.setInt(6, e.rawBytes());
+            ps.setBytes(7, e.payload());
+        });
+    }
+
+    /**
+     * Deletes the plans that are still at the loaded version.
+     *
+     * @return the plans actually deleted
+     */
+    public List<ArchivedPlan> deleteUnchanged(List<ArchivedPlan> plans) {
+        int[][] counts = jdbcTemplate.batchUpdate(DELETE_PLAN, plans, plans.size(), (ps, p) -> {
+            ps.setLong(1, p.id());
+            ps.setLong(2, p.version());
+        });
+        List<ArchivedPlan> deleted = new ArrayList<>(plans.size());
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) deleted.add(plans.get(i));
+                i++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * One archive row: the plan plus its gzip'ed JSON payload and the uncompressed size.
+     */
+    public record Entry(ArchivedPlan plan, int rawBytes, byte[] payload) {
+    }
+}
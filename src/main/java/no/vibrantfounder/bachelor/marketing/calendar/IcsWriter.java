@@ -0,0 +1,102 @@
+package no.vibrantfounder.bachelor.marketing.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes iCalendar (RFC 5545) content lines: CRLF endings, TEXT escaping and folding
+ * at 75 octets without splitting a UTF-8 sequence.
+ */
+final class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] FOLD = {'\r', '\n', ' '};
+
+    private final OutputStream out;
+    private final StringBuilder line = new StringBuilder(128);
+
+    IcsWriter(OutputStream out) {
+        this.out = new BufferedOutputStream(out, 8 * 1024);
+    }
+
+    /**
+     * A property whose value is already in iCalendar syntax (dates, numbers, enumerations).
+     */
+    void property(String name, String value) throws IOException {
+        line.setLength(0);
+        line.append(name).append(':').append(value);
+        writeLine();
+    }
+
+    /**
+     * A TEXT property; skipped when the value is empty.
+     */
+    void text(String name, String value) throws IOException {
+        if (value == null || value.isBlank()) return;
+
+        line.setLength(0);
+        line.append(name).append(':');
+        escape(value);
+        writeLine();
+    }
+
+    /**
+     * A multi-valued TEXT property (e.g. CATEGORIES); blank values are left out.
+     */
+    void textList(String name, List<String> values) throws IOException {
+        line.setLength(0);
+        line.append(name).append(':');
+        int written = 0;
+        for (String value : values) {
+            if (value == null || value.isBlank()) continue;
+            if (written++ > 0) line.append(',');
+            escape(value);
+        }
+        if (written > 0) {
+            writeLine();
+        }
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case ';' -> line.append("\\;");
+                case ',' -> line.append("\\,");
+                case '\n' -> line.append("\\n");
+                case '\r' -> {
+                    // CRLF and lone CR both become one \n
+                    if (i + 1 >= value.length() || value.charAt(i + 1) != '\n') line.append("\\n");
+                }
+                default -> line.append(c);
+            }
+        }
+    }
+
+    private void writeLine() throws IOException {
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--; // do not cut inside a multi-byte character
+            }
+            out.write(bytes, start, end - start);
+            out.write(FOLD);
+            start = end;
+            limit = MAX_LINE_OCTETS - 1; // the leading space counts
+        }
+        out.write(bytes, start, bytes.length - start);
+        out.write(CRLF);
+    }
+}
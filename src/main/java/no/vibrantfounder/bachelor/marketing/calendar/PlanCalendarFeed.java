@@ -0,0 +1,251 @@
+package no.vibrantfounder.bachelor.marketing.calendar;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.marketing.api.dto.CalendarTaskDto;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlanCollectionStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * iCalendar subscription feeds built from the calendar in a plan's stored JSON.
+ *
+ * Nothing is cached: the feed is rendered on every full GET, straight from the cursor to the
+ * response. Calendar clients poll often, so the ETags are computed from version columns only
+ * (see MarketingPlanRepository); an unchanged feed costs one indexed query and a 304.
+ */
+@Component
+public class PlanCalendarFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanCalendarFeed.class);
+
+    // Part of every ETag; bump when the rendering changes so subscribed clients fetch again.
+    private static final String FORMAT = "ics1";
+
+    private static final String PRODID = "-//Vibrant Founder//Marketing Plan//EN";
+    private static final String UID_DOMAIN = "vibrantfounder.no";
+    // Tasks have a start time but no length.
+    private static final String TIMED_DURATION = "PT30M";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final PlanCalendarRepository repository;
+    private final MarketingPlanRepository marketingPlanRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlanCalendarFeed(
+            PlanCalendarRepository repository,
+            MarketingPlanRepository marketingPlanRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.repository = repository;
+        this.marketingPlanRepository = marketingPlanRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // ---------------------------
+    // ETAGS
+    // ---------------------------
+    /**
+     * Also the access check for {@link #writePlan}: a plan that exists but was generated by
+     * someone other than {@code owner} is reported as not found. A null owner (admins) sees every plan.
+     */
+    public String planEtag(long id, String owner) {
+        Optional<Long> version = owner == null
+                ? marketingPlanRepository.findVersionById(id)
+                : marketingPlanRepository.findVersionByIdAndCreatedBy(id, owner);
+        return FORMAT + "-plan-" + id + "-v" + version
+                .orElseThrow(() -> new IllegalArgumentException("MarketingPlan not found: " + id));
+    }
+
+    public String userEtag(String user) {
+        PlanCollectionStamp stamp = marketingPlanRepository.findCollectionStampByCreatedBy(user);
+        return FORMAT + "-user-" + stamp.count() + "-" + stamp.maxId() + "-" + stamp.versionSum();
+    }
+
+    // ---------------------------
+    // FEEDS
+    // ---------------------------
+    public void writePlan(long id, OutputStream out) throws IOException {
+        write("Marketing plan " + id, sink -> repository.forPlan(id, sink), out);
+    }
+
+    public void writeUser(String user, OutputStream out) throws IOException {
+        write("Marketing plans", sink -> repository.forEachPlanCreatedBy(user, sink), out);
+    }
+
+    private void write(String calendarName, Consumer<Consumer<PlanCalendarRepository.StoredPlan>> plans, OutputStream out)
+            throws IOException {
+        IcsWriter ics = new IcsWriter(out);
+        ics.property("BEGIN", "VCALENDAR");
+        ics.property("VERSION", "2.0");
+        ics.property("PRODID", PRODID);
+        ics.property("CALSCALE", "GREGORIAN");
+        ics.property("METHOD", "PUBLISH");
+        ics.text("X-WR-CALNAME", calendarName);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> plans.accept(plan -> {
+                try {
+                    writeEvents(ics, plan);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        ics.property("END", "VCALENDAR");
+        ics.flush();
+    }
+
+    private void writeEvents(IcsWriter ics, PlanCalendarRepository.StoredPlan plan) throws IOException {
+        String stamp = UTC_DATE_TIME.format(utc(plan.generatedAt()));
+        List<CalendarTaskDto> tasks = readCalendar(plan);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            CalendarTaskDto task = tasks.get(i);
+            if (task == null || task.date() == null) continue;
+
+            ics.property("BEGIN", "VEVENT");
+            ics.text("UID", uid(plan.id(), task, i));
+            ics.property("DTSTAMP", stamp);
+            ics.property("SEQUENCE", Integer.toString(plan.revision()));
+
+            LocalTime time = parseTime(task.time());
+            if (time == null) {
+                ics.property("DTSTART;VALUE=DATE", DATE.format(task.date()));
+                ics.property("DTEND;VALUE=DATE", DATE.format(task.date().plusDays(1)));
+            } else {
+                // Floating time: "09:00" means 09:00 wherever the subscriber is.
+                ics.property("DTSTART", LOCAL_DATE_TIME.format(task.date().atTime(time)));
+                ics.property("DURATION", TIMED_DURATION);
+            }
+
+            ics.text("SUMMARY", summary(task));
+            ics.text("DESCRIPTION", description(task, plan));
+            ics.textList("CATEGORIES", Arrays.asList(task.platform(), task.type()));
+            String priority = priority(task.priority());
+            if (priority != null) {
+                ics.property("PRIORITY", priority);
+            }
+            ics.property("TRANSP", "TRANSPARENT");
+            ics.property("END", "VEVENT");
+        }
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+    private List<CalendarTaskDto> readCalendar(PlanCalendarRepository.StoredPlan plan) {
+        // raw_json may carry text around the object (first AI output), same leniency as the plan reads.
+        String rawJson = plan.rawJson();
+        int start = rawJson == null ? -1 : rawJson.indexOf('{');
+        int end = rawJson == null ? -1 : rawJson.lastIndexOf('}');
+        if (start < 0 || end <= start) return List.of();
+
+        JsonNode calendar;
+        try {
+            calendar = objectMapper.readTree(rawJson.substring(start, end + 1)).path("calendar");
+        } catch (JsonProcessingException e) {
+            log.warn("Calendar of plan {} is not readable: {}", plan.id(), e.getOriginalMessage());
+            return List.of();
+        }
+        if (!calendar.isArray()) return List.of();
+
+        // Task by task, so one malformed entry does not empty the whole feed.
+        List<CalendarTaskDto> tasks = new ArrayList<>(calendar.size());
+        for (JsonNode task : calendar) {
+            try {
+                tasks.add(objectMapper.treeToValue(task, CalendarTaskDto.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable calendar task of plan {}: {}", plan.id(), e.getOriginalMessage());
+            }
+        }
+        return tasks;
+    }
+
+    private static String uid(long planId, CalendarTaskDto task, int index) {
+        String taskId = task.id() == null || task.id().isBlank()
+                ? DATE.format(task.date()) + "-" + index
+                : task.id();
+        return "plan-" + planId + "-" + taskId + "@" + UID_DOMAIN;
+    }
+
+    private static String summary(CalendarTaskDto task) {
+        if (task.label() != null && !task.label().isBlank()) return task.label();
+        String summary = ((task.platform() == null ? "" : task.platform()) + " " + (task.type() == null ? "" : task.type())).trim();
+        return summary.isEmpty() ? "Marketing task" : summary;
+    }
+
+    private static String description(CalendarTaskDto task, PlanCalendarRepository.StoredPlan plan) {
+        StringBuilder text = new StringBuilder();
+        List<String> steps = task.stepByStepGuide() == null ? List.of() : task.stepByStepGuide();
+        for (int i = 0; i < steps.size(); i++) {
+            text.append(i + 1).append(". ").append(steps.get(i)).append('\n');
+        }
+        if (task.proTip() != null && !task.proTip().isBlank()) {
+            if (!text.isEmpty()) text.append('\n');
+            text.append("Pro tip: ").append(task.proTip()).append('\n');
+        }
+        if (!text.isEmpty()) text.append('\n');
+        text.append("Marketing plan ").append(plan.id());
+        if (plan.industry() != null && !plan.industry().isBlank()) {
+            text.append(" (").append(plan.industry()).append(')');
+        }
+        return text.toString();
+    }
+
+    private static String priority(String priority) {
+        if (priority == null) return null;
+        return switch (priority.trim().toUpperCase(Locale.ROOT)) {
+            case "HIGH" -> "1";
+            case "MEDIUM" -> "5";
+            case "LOW" -> "9";
+            default -> null;
+        };
+    }
+
+    private static LocalTime parseTime(String time) {
+        if (time == null || time.isBlank()) return null;
+        try {
+            return LocalTime.parse(time.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime utc(LocalDateTime generatedAt) {
+        if (generatedAt == null) return LocalDateTime.of(LocalDate.EPOCH, LocalTime.MIDNIGHT);
+        return generatedAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+}
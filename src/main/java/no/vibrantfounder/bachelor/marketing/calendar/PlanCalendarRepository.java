@@ -0,0 +1,76 @@
+package no.vibrantfounder.bachelor.marketing.calendar;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC cursor over the stored plans a calendar feed renders.
+ *
+ * raw_json rows are large, so the fetch size is small; plans are handed on one at a time.
+ * Run inside a (read-only) transaction so PostgreSQL honours the fetch size.
+ */
+@Repository
+public class PlanCalendarRepository {
+
+    private static final int FETCH_SIZE = 20;
+
+    private static final String SELECT_PLAN = """
+            SELECT id, industry, revision, generated_at, raw_json
+            FROM marketing_plan
+            WHERE id = ?
+            """;
+
+    private static final String SELECT_USER_PLANS = """
+            SELECT id, industry, revision, generated_at, raw_json
+            FROM marketing_plan
+            WHERE created_by = ?
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlanCalendarRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forPlan(long id, Consumer<StoredPlan> sink) {
+        stream(SELECT_PLAN, id, sink);
+    }
+
+    public void forEachPlanCreatedBy(String createdBy, Consumer<StoredPlan> sink) {
+        stream(SELECT_USER_PLANS, createdBy, sink);
+    }
+
+    private void stream(String sql, Object arg, Consumer<StoredPlan> sink) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, arg);
+            return ps;
+        }, rs -> {
+            Timestamp generatedAt = rs.getTimestamp("generated_at");
+            sink.accept(new StoredPlan(
+                    rs.getLong("id"),
+                    rs.getString("industry"),
+                    rs.getInt("revision"),
+                    generatedAt == null ? null : generatedAt.toLocalDateTime(),
+                    rs.getString("raw_json")
+            ));
+        });
+    }
+
+    public record StoredPlan(
+            long id,
+            String industry,
+            int revision,
+            LocalDateTime generatedAt,
+            String rawJson
+    ) {
+    }
+}
@@ -0,0 +1,10 @@
+package no.vibrantfounder.bachelor.marketing.domain.enums;
+
+/**
+ * Parts of an existing plan that can be regenerated on their own.
+ */
+public enum RefreshScope {
+    CALENDAR,
+    PLATFORM,
+    CONTENT_IDEAS
+}
@@ -0,0 +1,19 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the plan_events outbox as claimed for delivery.
+ *
+ * {@code attempts} already counts the delivery in progress.
+ */
+public record PlanEvent(
+        long id,
+        String type,
+        long planId,
+        String payload,
+        int attempts,
+        LocalDateTime createdAt
+) {
+    public static final String PLAN_COMPLETED = "plan.completed";
+}
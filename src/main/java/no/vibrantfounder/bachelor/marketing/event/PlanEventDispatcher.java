@@ -0,0 +1,207 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.vibrantfounder.bachelor.common.WebhookProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers the plan_events outbox as signed, batched webhooks.
+ *
+ * Each round claims a batch in a short transaction (FOR UPDATE SKIP LOCKED plus a lease),
+ * POSTs it outside any transaction, then records the outcome in a second short transaction.
+ * Any number of nodes can run this side by side. Delivery is at-least-once: a node that dies
+ * after the POST but before recording it leaves the batch to be sent again once the lease
+ * runs out, so receivers should de-duplicate on the event id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "marketing.webhooks", name = "enabled", havingValue = "true")
+public class PlanEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanEventDispatcher.class);
+
+    // A full batch means more may be due; keep going, but let one run end eventually.
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final PlanEventRepository repository;
+    private final WebhookProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final RestClient restClient;
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer deliveryTimer;
+
+    public PlanEventDispatcher(
+            PlanEventRepository repository,
+            WebhookProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry
+    ) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.timeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.timeout());
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+
+        this.delivered = eventCounter(registry, "delivered");
+        this.retried = eventCounter(registry, "retried");
+        this.failed = eventCounter(registry, "failed");
+        this.deliveryTimer = Timer.builder("marketing.webhooks.delivery")
+                .description("Time to POST one webhook batch")
+                .register(registry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${marketing.webhooks.poll-interval:PT2S}",
+            initialDelayString = "${marketing.webhooks.initial-delay:PT10S}"
+    )
+    public void run() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (dispatchBatch() < properties.batchSize()) break;
+            }
+            int purged = repository.deleteDeliveredBefore(LocalDateTime.now().minus(properties.retention()));
+            if (purged > 0) {
+                log.debug("Purged {} delivered plan events", purged);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception stop the schedule; claimed rows come back when their lease ends.
+            log.warn("Plan event dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims, sends and records one batch.
+     *
+     * @return the number of events in the batch (0 when nothing was due)
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PlanEvent> batch = transactionTemplate.execute(status ->
+                repository.claimDue(now, now.plus(properties.lease()), properties.batchSize()));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        String error = post(batch);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (error == null) {
+                repository.markDelivered(batch.stream().map(PlanEvent::id).toList(), LocalDateTime.now());
+                delivered.increment(batch.size());
+                return;
+            }
+            for (PlanEvent event : batch) {
+                if (event.attempts() >= properties.maxAttempts()) {
+                    repository.markFailed(event.id(), error);
+                    failed.increment();
+                } else {
+                    repository.reschedule(event.id(), LocalDateTime.now().plus(backoff(event.attempts())), error);
+                    retried.increment();
+                }
+            }
+        });
+
+        if (error != null) {
+            log.warn("Webhook delivery of {} plan events failed: {}", batch.size(), error);
+        }
+        return batch.size();
+    }
+
+    /**
+     * @return null on a 2xx response, otherwise what went wrong
+     */
+    private String post(List<PlanEvent> batch) {
+        String deliveryId = UUID.randomUUID().toString();
+        byte[] body = body(deliveryId, batch);
+        long timestamp = Instant.now().getEpochSecond();
+
+        Timer.Sample sample = Timer.start();
+        try {
+            restClient.post()
+                    .uri(properties.url())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(WebhookSignature.ID_HEADER, deliveryId)
+                    .header(WebhookSignature.HEADER, WebhookSignature.header(properties.secret(), timestamp, body))
+                    .body(body)
+                    .retrieve()
+                    .toBodilessEntity();
+            return null;
+        } catch (RestClientException e) {
+            return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        } finally {
+            sample.stop(deliveryTimer);
+        }
+    }
+
+    private byte[] body(String deliveryId, List<PlanEvent> batch) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("deliveryId", deliveryId);
+        ArrayNode events = root.putArray("events");
+        try {
+            for (PlanEvent event : batch) {
+                ObjectNode node = events.addObject();
+                node.put("id", event.id());
+                node.put("type", event.type());
+                node.put("createdAt", event.createdAt().toString());
+                node.put("attempt", event.attempts());
+                node.set("data", objectMapper.readTree(event.payload()));
+            }
+            return objectMapper.writeValueAsBytes(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not build webhook body", e);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: half the delay is fixed, half random, so retries
+     * from many failed batches do not hit the receiver at the same moment.
+     */
+    Duration backoff(int attempts) {
+        long initial = properties.initialBackoff().toMillis();
+        long max = properties.maxBackoff().toMillis();
+        long delay = attempts >= 30 ? max : Math.min(max, initial << (attempts - 1));
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("marketing.webhooks.events")
+                .description("Plan events by delivery outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
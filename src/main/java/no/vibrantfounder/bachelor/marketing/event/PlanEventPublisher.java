@@ -0,0 +1,51 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import no.vibrantfounder.bachelor.common.WebhookProperties;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes plan events to the outbox in the caller's transaction, so an event exists
+ * exactly when the plan change it describes has been committed.
+ *
+ * With webhooks disabled nothing is written (there would be no one to drain the table).
+ */
+@Component
+public class PlanEventPublisher {
+
+    private final PlanEventRepository repository;
+    private final WebhookProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public PlanEventPublisher(PlanEventRepository repository, WebhookProperties properties, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void planCompleted(MarketingPlan plan) {
+        if (!properties.enabled()) return;
+
+        // A summary only; receivers fetch the plan itself from GET /plans/{id}.
+        ObjectNode data = objectMapper.createObjectNode();
+        data.put("planId", plan.getId());
+        data.put("revision", plan.getRevision());
+        data.put("industry", plan.getIndustry());
+        data.put("primaryGoal", plan.getPrimaryGoal());
+        data.put("generatedAt", plan.getGeneratedAt() == null ? null : plan.getGeneratedAt().toString());
+
+        try {
+            repository.insert(PlanEvent.PLAN_COMPLETED, plan.getId(), objectMapper.writeValueAsString(data), LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize plan event", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to the plan_events outbox.
+ *
+ * Claiming uses FOR UPDATE SKIP LOCKED, so dispatchers on several nodes take disjoint batches
+ * without waiting on each other; the claim moves next_attempt_at forward (the lease) before
+ * the transaction commits, so the rows stay taken while the HTTP call runs outside it.
+ *
+ * On PostgreSQL the longest-due events are claimed first. H2 returns no rows at all for a
+ * SKIP LOCKED query that has to sort, so there the batch is whichever due rows the plan
+ * finds first: delivery order is not guaranteed, only that every due event is claimed eventually.
+ */
+@Repository
+public class PlanEventRepository {
+
+    private static final String INSERT = """
+            INSERT INTO plan_events (event_type, plan_id, payload, status, attempts, created_at, next_attempt_at)
+            VALUES (?, ?, ?, 'PENDING', 0, ?, ?)
+            """;
+
+    private static final String SELECT_DUE_ORDERED = """
+            SELECT id, event_type, plan_id, payload, attempts, created_at
+            FROM plan_events
+            WHERE status = 'PENDING' AND next_attempt_at <= ?
+            ORDER BY next_attempt_at
+            FETCH FIRST ? ROWS ONLY
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // H2: no ORDER BY (see class comment).
+    private static final String SELECT_DUE_UNORDERED = """
+            SELECT id, event_type, plan_id, payload, attempts, created_at
+            FROM plan_events
+            WHERE status = 'PENDING' AND next_attempt_at <= ?
+            FETCH FIRST ? ROWS ONLY
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String CLAIM = """
+            UPDATE plan_events SET attempts = attempts + 1, next_attempt_at = :leaseUntil
+            WHERE id IN (:ids)
+            """;
+
+    private static final String MARK_DELIVERED = """
+            UPDATE plan_events SET status = 'DELIVERED', delivered_at = :now, last_error = NULL
+            WHERE id IN (:ids)
+            """;
+
+    private static final String RESCHEDULE = """
+            UPDATE plan_events SET next_attempt_at = ?, last_error = ?
+            WHERE id = ?
+            """;
+
+    // Given up: kept (with the last error) for inspection, never claimed again.
+    private static final String MARK_FAILED = """
+            UPDATE plan_events SET status = 'FAILED', last_error = ?
+            WHERE id = ?
+            """;
+
+    private static final String DELETE_DELIVERED = """
+            DELETE FROM plan_events
+            WHERE status = 'DELIVERED' AND delivered_at < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    // Picked on the first claim, not at startup, so creating the bean never opens a connection.
+    private volatile String selectDue;
+
+    public PlanEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void insert(String type, long planId, String payload, LocalDateTime now) {
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbcTemplate.update(INSERT, type, planId, payload, ts, ts);
+    }
+
+    /**
+     * Locks up to {@code limit} due events and leases them until {@code leaseUntil}.
+     * Must run inside a transaction; the lease is what protects the rows after it commits.
+     */
+    public List<PlanEvent> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        List<PlanEvent> due = jdbcTemplate.query(selectDue(), (rs, rowNum) -> new PlanEvent(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getLong("plan_id"),
+                rs.getString("payload"),
+                rs.getInt("attempts") + 1,
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), Timestamp.valueOf(now), limit);
+
+        if (!due.isEmpty()) {
+            namedJdbcTemplate.update(CLAIM, Map.of(
+                    "leaseUntil", Timestamp.valueOf(leaseUntil),
+                    "ids", due.stream().map(PlanEvent::id).toList()
+            ));
+        }
+        return due;
+    }
+
+    public void markDelivered(List<Long> ids, LocalDateTime now) {
+        namedJdbcTemplate.update(MARK_DELIVERED, Map.of("now", Timestamp.valueOf(now), "ids", ids));
+    }
+
+    public void reschedule(long id, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(RESCHEDULE, Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(MARK_FAILED, truncate(error), id);
+    }
+
+    public int deleteDeliveredBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_DELIVERED, Timestamp.valueOf(cutoff));
+    }
+
+    private String selectDue() {
+        String query = selectDue;
+        if (query == null) {
+            // Reads the vendor from the claim transaction's own connection.
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            query = "H2".equalsIgnoreCase(product) ? SELECT_DUE_UNORDERED : SELECT_DUE_ORDERED;
+            selectDue = query;
+        }
+        return query;
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,40 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA256 webhook signatures.
+ *
+ * The signed string is {@code <timestamp>.<body>}, so a receiver can reject replays by
+ * checking the timestamp as well as the MAC. Header value: {@code t=<epoch seconds>,v1=<hex>}.
+ */
+public final class WebhookSignature {
+
+    public static final String HEADER = "X-Webhook-Signature";
+    public static final String ID_HEADER = "X-Webhook-Id";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private WebhookSignature() {
+        // Utility class
+    }
+
+    public static String header(String secret, long timestamp, byte[] body) {
+        return "t=" + timestamp + ",v1=" + sign(secret, timestamp, body);
+    }
+
+    public static String sign(String secret, long timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
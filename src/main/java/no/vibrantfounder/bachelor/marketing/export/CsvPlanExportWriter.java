@@ -0,0 +1,81 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row. Platforms go in one column as {@code PLATFORM:frequency}
+ * pairs separated by ';', so there is still exactly one line per plan.
+ */
+final class CsvPlanExportWriter implements PlanExportWriter {
+
+    private static final String HEADER =
+            "id,industry,target_audience,primary_goal,resources_per_week,generated_at,revision,platforms\r\n";
+
+    private final Writer writer;
+    private final StringBuilder platforms = new StringBuilder();
+
+    CsvPlanExportWriter(OutputStream out) throws IOException {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        this.writer.write(HEADER);
+    }
+
+    @Override
+    public void write(ExportedPlan plan) throws IOException {
+        writer.write(Long.toString(plan.id()));
+        writer.write(',');
+        text(plan.industry());
+        writer.write(',');
+        text(plan.targetAudience());
+        writer.write(',');
+        text(plan.primaryGoal());
+        writer.write(',');
+        writer.write(Integer.toString(plan.resourcesPerWeek()));
+        writer.write(',');
+        if (plan.generatedAt() != null) {
+            writer.write(TIMESTAMP.format(plan.generatedAt()));
+        }
+        writer.write(',');
+        writer.write(Integer.toString(plan.revision()));
+        writer.write(',');
+
+        platforms.setLength(0);
+        for (ExportedPlan.Platform platform : plan.platforms()) {
+            if (!platforms.isEmpty()) platforms.append(';');
+            platforms.append(platform.platform()).append(':').append(platform.frequencyPerWeek());
+        }
+        text(platforms.toString());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void text(String value) throws IOException {
+        if (value == null || value.isEmpty()) return;
+
+        // Free-text fields come from users; a leading = + - @ would run as a formula in a spreadsheet.
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,21 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One plan as written by the export: the summary columns plus its platforms, without raw_json.
+ */
+public record ExportedPlan(
+        long id,
+        String industry,
+        String targetAudience,
+        String primaryGoal,
+        int resourcesPerWeek,
+        LocalDateTime generatedAt,
+        int revision,
+        List<Platform> platforms
+) {
+    public record Platform(String platform, int frequencyPerWeek) {
+    }
+}
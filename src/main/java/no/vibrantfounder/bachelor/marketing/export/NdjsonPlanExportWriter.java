@@ -0,0 +1,53 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line (application/x-ndjson), written with the streaming generator
+ * so no tree or intermediate string is built per plan.
+ */
+final class NdjsonPlanExportWriter implements PlanExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonPlanExportWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Every line ends with '\n' (written below), not only the ones between values.
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(ExportedPlan plan) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", plan.id());
+        generator.writeStringField("industry", plan.industry());
+        generator.writeStringField("targetAudience", plan.targetAudience());
+        generator.writeStringField("primaryGoal", plan.primaryGoal());
+        generator.writeNumberField("resourcesPerWeek", plan.resourcesPerWeek());
+        generator.writeStringField("generatedAt", plan.generatedAt() == null ? null : TIMESTAMP.format(plan.generatedAt()));
+        generator.writeNumberField("revision", plan.revision());
+
+        generator.writeArrayFieldStart("platforms");
+        for (ExportedPlan.Platform platform : plan.platforms()) {
+            generator.writeStartObject();
+            generator.writeStringField("platform", platform.platform());
+            generator.writeNumberField("frequencyPerWeek", platform.frequencyPerWeek());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,120 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC cursor over marketing_plan joined with platform_plan, for the streaming export.
+ *
+ * The statement is forward-only and read-only with an explicit fetch size, so the driver
+ * holds one fetch of rows at a time instead of the whole result. PostgreSQL only honours the
+ * fetch size with autocommit off, so callers must run {@link #forEach} inside a transaction.
+ */
+@Repository
+public class PlanExportRepository {
+
+    // Ordered by plan so the joined platform rows of one plan arrive together and can be folded.
+    // Only by plan: a second sort key (pp.id) cannot come from an index, so the database would
+    // have to sort the whole join before returning the first row.
+    private static final String SELECT_PLANS = """
+            SELECT p.id, p.industry, p.target_audience, p.primary_goal, p.resources_per_week,
+                   p.generated_at, p.revision, pp.platform, pp.frequency_per_week
+            FROM marketing_plan p
+            LEFT JOIN platform_plan pp ON pp.marketing_plan_id = p.id
+            """;
+
+    private static final String ORDER_BY = " ORDER BY p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlanExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams every plan matching the filters to {@code sink}, in id order.
+     * Filters behave like the list endpoint: industry is a case-insensitive substring, goal a case-insensitive match.
+     */
+    public void forEach(String industry, String primaryGoal, int fetchSize, Consumer<ExportedPlan> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_PLANS);
+        List<String> args = new ArrayList<>(2);
+        if (industry != null && !industry.isBlank()) {
+            sql.append(args.isEmpty() ? " WHERE " : " AND ").append("LOWER(p.industry) LIKE ?");
+            args.add("%" + industry.trim().toLowerCase(Locale.ROOT) + "%");
+        }
+        if (primaryGoal != null && !primaryGoal.isBlank()) {
+            sql.append(args.isEmpty() ? " WHERE " : " AND ").append("LOWER(p.primary_goal) = ?");
+            args.add(primaryGoal.trim().toLowerCase(Locale.ROOT));
+        }
+        sql.append(ORDER_BY);
+
+        PlanFolder folder = new PlanFolder(sink);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setString(i + 1, args.get(i));
+            }
+            return ps;
+        }, folder);
+        folder.finish();
+    }
+
+    /**
+     * Collects the platform rows of the current plan and hands the plan on when the id changes,
+     * so only one plan is ever held in memory.
+     */
+    private static final class PlanFolder implements RowCallbackHandler {
+
+        private final Consumer<ExportedPlan> sink;
+
+        private ExportedPlan current;
+        private List<ExportedPlan.Platform> platforms;
+
+        PlanFolder(Consumer<ExportedPlan> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id() != id) {
+                finish();
+                Timestamp generatedAt = rs.getTimestamp("generated_at");
+                platforms = new ArrayList<>(4);
+                current = new ExportedPlan(
+                        id,
+                        rs.getString("industry"),
+                        rs.getString("target_audience"),
+                        rs.getString("primary_goal"),
+                        rs.getInt("resources_per_week"),
+                        generatedAt == null ? null : generatedAt.toLocalDateTime(),
+                        rs.getInt("revision"),
+                        platforms
+                );
+            }
+
+            String platform = rs.getString("platform");
+            if (platform != null) {
+                platforms.add(new ExportedPlan.Platform(platform, rs.getInt("frequency_per_week")));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                sink.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes exported plans one at a time; nothing is kept after {@link #write} returns.
+ */
+interface PlanExportWriter extends Flushable {
+
+    DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    void write(ExportedPlan plan) throws IOException;
+
+    static PlanExportWriter create(PlanExportFormat format, OutputStream out, JsonFactory jsonFactory) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonPlanExportWriter(jsonFactory, out);
+            case CSV -> new CsvPlanExportWriter(out);
+        };
+    }
+}
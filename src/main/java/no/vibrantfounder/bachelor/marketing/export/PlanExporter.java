@@ -0,0 +1,98 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.vibrantfounder.bachelor.common.PlanExportProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams all plans (optionally filtered) to an output stream as NDJSON or CSV.
+ *
+ * Each plan is written as soon as its rows have been read from the cursor, and the output is
+ * flushed every {@code flushEveryRows} plans, so memory use does not depend on the number of
+ * plans. The cursor lives in one read-only transaction (routed to the replica when configured)
+ * for the duration of the export; if the client goes away, the write fails and the cursor is closed.
+ */
+@Component
+public class PlanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanExporter.class);
+
+    private final PlanExportRepository repository;
+    private final PlanExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+
+    public PlanExporter(
+            PlanExportRepository repository,
+            PlanExportProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry
+    ) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.registry = registry;
+    }
+
+    /**
+     * @return the number of plans written
+     */
+    public long export(PlanExportFormat format, String industry, String primaryGoal, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        long[] written = {0};
+
+        try {
+            PlanExportWriter writer = PlanExportWriter.create(format, out, objectMapper.getFactory());
+            int flushEvery = properties.flushEveryRows();
+
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.forEach(industry, primaryGoal, properties.fetchSize(), plan -> {
+                        try {
+                            writer.write(plan);
+                            if (++written[0] % flushEvery == 0) {
+                                writer.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+
+            writer.flush();
+            outcome = "success";
+        } catch (UncheckedIOException e) {
+            outcome = "aborted";
+            log.debug("Plan export aborted after {} plans: {}", written[0], e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            Counter.builder("marketing.export.plans")
+                    .description("Plans written by the streaming export")
+                    .tag("format", format.extension())
+                    .register(registry)
+                    .increment(written[0]);
+            sample.stop(Timer.builder("marketing.export.duration")
+                    .description("Time to stream one export")
+                    .tag("format", format.extension())
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+
+        log.debug("Exported {} plans as {}", written[0], format);
+        return written[0];
+    }
+}
@@ -1,33 +1,212 @@
 package no.vibrantfounder.bachelor.marketing.memory;
 
-import no.vibrantfounder.bachelor.marketing.domain.MarketingPlan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import no.vibrantfounder.bachelor.marketing.domain.*;
 
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Simple in-memory store for marketing plans.
+ * Bounded, memory-aware in-memory store for marketing plans.
  *
- * This is a temporary persistence mechanism used to support
- * development and testing without introducing a database.
+ * Tiers:
+ * - Hot: Caffeine cache bounded by estimated heap bytes (W-TinyLFU eviction)
+ * - Cold (optional): plans evicted from the hot tier are serialized into a
+ *   memory-mapped ring buffer file and promoted back on access
+ *
+ * Nothing here is durable; the application itself persists plans through
+ * MarketingPlanRepository. This store is for development, tests and tools that
+ * hold domain plans in memory without a database.
  */
-public class InMemoryPlanStore {
+public class InMemoryPlanStore implements AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, MarketingPlan> hot;
+    private final MappedPlanTier cold;
 
-    private final Map<UUID, MarketingPlan> store = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder coldHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder spills = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param hotMaxBytes   Upper bound for the estimated heap used by the hot tier
+     * @param spillFile     Memory-mapped spill file, or null to drop evicted plans
+     * @param spillBytes    Size of the spill file (ignored without a spill file)
+     */
+    public InMemoryPlanStore(ObjectMapper objectMapper, long hotMaxBytes, Path spillFile, int spillBytes) {
+        this.objectMapper = objectMapper;
+        this.cold = spillFile == null ? null : new MappedPlanTier(spillFile, spillBytes);
+        this.hot = Caffeine.newBuilder()
+                // Run maintenance (and therefore spilling) on the calling thread so evicted
+                // plans are in the cold tier before the write that evicted them returns.
+                .executor(Runnable::run)
+                .maximumWeight(hotMaxBytes)
+                .weigher((Long id, MarketingPlan plan) -> estimateBytes(plan))
+                .evictionListener((Long id, MarketingPlan plan, RemovalCause cause) -> spill(id, plan))
+                .recordStats()
+                .build();
+    }
 
-    public UUID save(MarketingPlan plan) {
-        UUID id = UUID.randomUUID();
-        store.put(id, plan);
+    public Long save(MarketingPlan plan) {
+        Long id = sequence.incrementAndGet();
+        hot.put(id, plan);
         return id;
     }
 
-    public Optional<MarketingPlan> findById(UUID id) {
-        return Optional.ofNullable(store.get(id));
+    public Optional<MarketingPlan> findById(Long id) {
+        MarketingPlan plan = hot.getIfPresent(id);
+        if (plan != null) {
+            return Optional.of(plan);
+        }
+
+        byte[] bytes = cold == null ? null : cold.get(id);
+        if (bytes == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        MarketingPlan promoted = deserialize(bytes);
+        cold.remove(id);
+        hot.put(id, promoted);
+        coldHits.increment();
+        return Optional.of(promoted);
+    }
+
+    public boolean delete(Long id) {
+        boolean removed = hot.asMap().remove(id) != null;
+        if (cold != null) {
+            removed |= cold.remove(id);
+        }
+        return removed;
+    }
+
+    public PlanStoreStats stats() {
+        long hotWeight = hot.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+
+        return new PlanStoreStats(
+                hot.estimatedSize(),
+                hotWeight,
+                hot.stats().hitCount(),
+                cold == null ? 0 : cold.entries(),
+                cold == null ? 0 : cold.bytesUsed(),
+                coldHits.sum(),
+                misses.sum(),
+                spills.sum(),
+                dropped.sum() + (cold == null ? 0 : cold.overwritten())
+        );
     }
 
     public void clear() {
-        store.clear();
+        hot.invalidateAll();
+        if (cold != null) {
+            cold.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        hot.invalidateAll();
+        if (cold != null) {
+            cold.close();
+        }
+    }
+
+    private void spill(Long id, MarketingPlan plan) {
+        if (cold == null || plan == null) {
+            dropped.increment();
+            return;
+        }
+        try {
+            if (cold.put(id, objectMapper.writeValueAsBytes(plan))) {
+                spills.increment();
+            } else {
+                dropped.increment();
+            }
+        } catch (IOException e) {
+            dropped.increment();
+        }
+    }
+
+    private MarketingPlan deserialize(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, MarketingPlan.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt plan in spill tier", e);
+        }
+    }
+
+    // ---------------------------
+    // Heap size estimate (rough, used only for bounding the hot tier)
+    // ---------------------------
+    private static final int OBJECT = 16;
+    private static final int REF = 8;
+    private static final int STRING = 40;
+
+    static int estimateBytes(MarketingPlan plan) {
+        long bytes = OBJECT + 6L * REF + str(plan.summary()) + str(plan.generatedAt());
+
+        if (plan.platformPlans() != null) {
+            bytes += list(plan.platformPlans());
+            for (PlatformPlan p : plan.platformPlans()) {
+                if (p == null) continue;
+                bytes += OBJECT + 7L * REF + str(p.rationale()) + list(p.formats())
+                        + strings(p.hooks()) + strings(p.ctaExamples());
+                if (p.contentPillars() != null) {
+                    bytes += list(p.contentPillars());
+                    for (ContentPillar c : p.contentPillars()) {
+                        if (c == null) continue;
+                        bytes += OBJECT + 3L * REF + str(c.name()) + str(c.angle()) + strings(c.examples());
+                    }
+                }
+            }
+        }
+
+        Measurement m = plan.measurement();
+        if (m != null) {
+            bytes += OBJECT + 3L * REF + str(m.northStarMetric()) + strings(m.kpis()) + str(m.reportingCadence());
+        }
+
+        if (plan.assumptions() != null) {
+            bytes += list(plan.assumptions());
+            for (Assumption a : plan.assumptions()) {
+                if (a == null) continue;
+                bytes += OBJECT + 3L * REF + str(a.assumption()) + str(a.howToTest());
+            }
+        }
+
+        Confidence c = plan.confidence();
+        if (c != null) {
+            bytes += OBJECT + 16 + strings(c.reasons());
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long str(String s) {
+        return s == null ? 0 : STRING + s.length();
+    }
+
+    private static long list(List<?> l) {
+        return l == null ? 0 : OBJECT + (long) l.size() * REF;
+    }
+
+    private static long strings(List<String> l) {
+        if (l == null) return 0;
+        long bytes = list(l);
+        for (String s : l) {
+            bytes += str(s);
+        }
+        return bytes;
     }
 }
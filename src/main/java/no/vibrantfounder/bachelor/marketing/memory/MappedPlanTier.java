@@ -0,0 +1,145 @@
+package no.vibrantfounder.bachelor.marketing.memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Off-heap spill tier: a fixed-size memory-mapped file used as a ring buffer.
+ *
+ * Serialized plans are appended at the write position; when the ring wraps, the
+ * oldest entries are overwritten and dropped from the index. The index is kept in
+ * write order, so the oldest entries are always at its head.
+ *
+ * All methods are synchronized; the tier is only touched on hot-tier misses and evictions.
+ */
+final class MappedPlanTier implements AutoCloseable {
+
+    private record Slot(int offset, int length) {
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private final LinkedHashMap<Long, Slot> index = new LinkedHashMap<>();
+    private int writePosition;
+    private long bytesUsed;
+    private long overwritten;
+
+    MappedPlanTier(Path file, int capacityBytes) {
+        this.file = file;
+        this.capacity = capacityBytes;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(
+                    file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+            );
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map plan spill file " + file, e);
+        }
+    }
+
+    synchronized boolean put(Long id, byte[] bytes) {
+        remove(id);
+
+        int length = bytes.length;
+        if (length == 0 || length > capacity) {
+            return false;
+        }
+
+        if (writePosition + length > capacity) {
+            // Entries between the write position and the end of the ring are the oldest.
+            int wrapAt = writePosition;
+            dropOldestWhile(slot -> slot.offset() >= wrapAt);
+            writePosition = 0;
+        }
+
+        int start = writePosition;
+        int end = start + length;
+        dropOldestWhile(slot -> slot.offset() < end && slot.offset() + slot.length() > start);
+
+        buffer.put(start, bytes);
+        index.put(id, new Slot(start, length));
+        bytesUsed += length;
+        writePosition = end;
+        return true;
+    }
+
+    synchronized byte[] get(Long id) {
+        Slot slot = index.get(id);
+        if (slot == null) {
+            return null;
+        }
+        byte[] bytes = new byte[slot.length()];
+        buffer.get(slot.offset(), bytes);
+        return bytes;
+    }
+
+    synchronized boolean remove(Long id) {
+        Slot slot = index.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        bytesUsed -= slot.length();
+        return true;
+    }
+
+    synchronized void clear() {
+        index.clear();
+        writePosition = 0;
+        bytesUsed = 0;
+    }
+
+    synchronized int entries() {
+        return index.size();
+    }
+
+    synchronized long bytesUsed() {
+        return bytesUsed;
+    }
+
+    synchronized long overwritten() {
+        return overwritten;
+    }
+
+    @Override
+    public synchronized void close() {
+        index.clear();
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Best effort: the file is scratch space.
+        }
+    }
+
+    private void dropOldestWhile(Predicate<Slot> condition) {
+        Iterator<Map.Entry<Long, Slot>> it = index.entrySet().iterator();
+        while (it.hasNext()) {
+            Slot slot = it.next().getValue();
+            if (!condition.test(slot)) {
+                return;
+            }
+            it.remove();
+            bytesUsed -= slot.length();
+            overwritten++;
+        }
+    }
+}
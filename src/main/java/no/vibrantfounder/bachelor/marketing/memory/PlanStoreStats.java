@@ -0,0 +1,29 @@
+package no.vibrantfounder.bachelor.marketing.memory;
+
+/**
+ * Point-in-time statistics for an {@link InMemoryPlanStore}.
+ *
+ * Cold-tier values are 0 when the store has no spill file.
+ *
+ * @param hotEntries      Plans currently held in the heap tier
+ * @param hotWeightBytes  Estimated heap used by the hot tier
+ * @param hotHits         Lookups served from the hot tier
+ * @param coldEntries     Plans currently held in the spill tier
+ * @param coldBytesUsed   Bytes of the spill region holding live plans
+ * @param coldHits        Lookups served from the spill tier (and promoted back)
+ * @param misses          Lookups that found nothing
+ * @param spills          Plans moved from the hot tier to the spill tier
+ * @param dropped         Plans evicted with nowhere to go (no spill, or spill overwritten)
+ */
+public record PlanStoreStats(
+        long hotEntries,
+        long hotWeightBytes,
+        long hotHits,
+        long coldEntries,
+        long coldBytesUsed,
+        long coldHits,
+        long misses,
+        long spills,
+        long dropped
+) {
+}
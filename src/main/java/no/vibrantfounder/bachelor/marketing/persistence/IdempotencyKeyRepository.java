@@ -0,0 +1,127 @@
+package no.vibrantfounder.bachelor.marketing.persistence;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to the idempotency_key table.
+ *
+ * Every call is a single auto-committed statement, so a claim is visible to other
+ * nodes immediately instead of at the end of the (long) generation transaction.
+ * A claim carries an owner token; writes on behalf of a running attempt only apply while
+ * the row still holds that token.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String INSERT = """
+            INSERT INTO idempotency_key (principal, idem_key, request_hash, status, owner_token, created_at, updated_at, expires_at)
+            VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT = """
+            SELECT request_hash, status, plan_id, response_json, updated_at
+            FROM idempotency_key
+            WHERE principal = ? AND idem_key = ?
+            """;
+
+    // Take over a key whose previous attempt failed or was abandoned by a crashed node.
+    private static final String RECLAIM = """
+            UPDATE idempotency_key
+            SET status = 'IN_PROGRESS', owner_token = ?, updated_at = ?, expires_at = ?
+            WHERE principal = ? AND idem_key = ? AND request_hash = ?
+              AND (status = 'FAILED' OR (status = 'IN_PROGRESS' AND updated_at < ?))
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_key
+            SET status = 'COMPLETED', plan_id = ?, response_json = ?, updated_at = ?
+            WHERE principal = ? AND idem_key = ? AND owner_token = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String FAIL = """
+            UPDATE idempotency_key
+            SET status = 'FAILED', updated_at = ?
+            WHERE principal = ? AND idem_key = ? AND owner_token = ? AND status = 'IN_PROGRESS'
+            """;
+
+    // Keeps a long generation from looking abandoned (see RECLAIM).
+    private static final String HEARTBEAT = """
+            UPDATE idempotency_key
+            SET updated_at = ?
+            WHERE principal = ? AND idem_key = ? AND owner_token = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String DELETE_EXPIRED = "DELETE FROM idempotency_key WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return true if this call created the key (the caller now owns the generation)
+     */
+    public boolean tryInsert(String principal, String key, String requestHash, String ownerToken,
+                             LocalDateTime now, LocalDateTime expiresAt) {
+        try {
+            jdbcTemplate.update(INSERT, principal, key, requestHash, ownerToken, ts(now), ts(now), ts(expiresAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public Optional<IdempotencyRecord> find(String principal, String key) {
+        List<IdempotencyRecord> rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new IdempotencyRecord(
+                rs.getString("request_hash"),
+                IdempotencyRecord.Status.valueOf(rs.getString("status")),
+                rs.getObject("plan_id", Long.class),
+                rs.getString("response_json"),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        ), principal, key);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * @return true if the key was FAILED or stale IN_PROGRESS and now belongs to the caller
+     */
+    public boolean reclaim(String principal, String key, String requestHash, String ownerToken,
+                           LocalDateTime now, LocalDateTime expiresAt, LocalDateTime staleBefore) {
+        return jdbcTemplate.update(RECLAIM, ownerToken, ts(now), ts(expiresAt), principal, key, requestHash, ts(staleBefore)) == 1;
+    }
+
+    /**
+     * @param responseJson the response to replay, or null when only the plan id could be stored
+     * @return false if the key no longer belongs to {@code ownerToken}
+     */
+    public boolean complete(String principal, String key, String ownerToken, Long planId, String responseJson, LocalDateTime now) {
+        return jdbcTemplate.update(COMPLETE, planId, responseJson, ts(now), principal, key, ownerToken) == 1;
+    }
+
+    public void fail(String principal, String key, String ownerToken, LocalDateTime now) {
+        jdbcTemplate.update(FAIL, ts(now), principal, key, ownerToken);
+    }
+
+    /**
+     * @return false if the key no longer belongs to {@code ownerToken}
+     */
+    public boolean heartbeat(String principal, String key, String ownerToken, LocalDateTime now) {
+        return jdbcTemplate.update(HEARTBEAT, ts(now), principal, key, ownerToken) == 1;
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update(DELETE_EXPIRED, ts(now));
+    }
+
+    private static Timestamp ts(LocalDateTime value) {
+        return Timestamp.valueOf(value);
+    }
+}
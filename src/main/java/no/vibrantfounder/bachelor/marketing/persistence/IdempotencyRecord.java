@@ -0,0 +1,26 @@
+package no.vibrantfounder.bachelor.marketing.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of idempotency_key.
+ *
+ * @param requestHash  SHA-256 of the request body the key was first used with
+ * @param status       IN_PROGRESS, COMPLETED or FAILED
+ * @param planId       Stored plan, once COMPLETED
+ * @param responseJson Response returned to the first caller, once COMPLETED; null if it could not be serialized
+ * @param updatedAt    Last status change or owner heartbeat (used to detect abandoned IN_PROGRESS keys)
+ */
+public record IdempotencyRecord(
+        String requestHash,
+        Status status,
+        Long planId,
+        String responseJson,
+        LocalDateTime updatedAt
+) {
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -1,12 +1,16 @@
 package no.vibrantfounder.bachelor.marketing.persistence;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "marketing_plan")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class MarketingPlan {
 
     @Id
@@ -33,10 +37,24 @@ public class MarketingPlan {
     @Column(name = "generated_at")
     private LocalDateTime generatedAt;
 
+    // Principal that generated the plan; backs the per-user calendar feed.
+    @Column(name = "created_by")
+    private String createdBy;
+
+    // Current revision; older ones live in marketing_plan_revision (see PlanRevisions).
+    @Column(name = "revision", nullable = false)
+    private int revision = 1;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "marketingPlan", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<PlatformPlan> platforms = new ArrayList<>();
 
     @OneToMany(mappedBy = "marketingPlan", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Assumption> assumptions = new ArrayList<>();
 
     // Helpers
@@ -74,6 +92,15 @@ public class MarketingPlan {
     public LocalDateTime getGeneratedAt() { return generatedAt; }
     public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
 
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public int getRevision() { return revision; }
+    public void setRevision(int revision) { this.revision = revision; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public List<PlatformPlan> getPlatforms() { return platforms; }
     public void setPlatforms(List<PlatformPlan> platforms) { this.platforms = platforms; }
 
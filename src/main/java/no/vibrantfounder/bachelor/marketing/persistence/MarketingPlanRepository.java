@@ -3,9 +3,38 @@ package no.vibrantfounder.bachelor.marketing.persistence;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface MarketingPlanRepository extends JpaRepository<MarketingPlan, Long> {
 
+    // Used for conditional GETs: reads only the version column, no child collections.
+    @Query("select p.version from MarketingPlan p where p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Same, only if the plan belongs to createdBy (per-plan calendar feed).
+    @Query("select p.version from MarketingPlan p where p.id = :id and p.createdBy = :createdBy")
+    Optional<Long> findVersionByIdAndCreatedBy(Long id, String createdBy);
+
+    @Query("""
+            select new no.vibrantfounder.bachelor.marketing.persistence.PlanCollectionStamp(
+                count(p), coalesce(max(p.id), 0), coalesce(sum(p.version), 0)
+            )
+            from MarketingPlan p
+            """)
+    PlanCollectionStamp findCollectionStamp();
+
+    // Same fingerprint, limited to one user's plans (per-user calendar feed).
+    @Query("""
+            select new no.vibrantfounder.bachelor.marketing.persistence.PlanCollectionStamp(
+                count(p), coalesce(max(p.id), 0), coalesce(sum(p.version), 0)
+            )
+            from MarketingPlan p
+            where p.createdBy = :createdBy
+            """)
+    PlanCollectionStamp findCollectionStampByCreatedBy(String createdBy);
+
     Page<MarketingPlan> findByIndustryContainingIgnoreCase(String industry, Pageable pageable);
 
     Page<MarketingPlan> findByPrimaryGoalIgnoreCase(String primaryGoal, Pageable pageable);
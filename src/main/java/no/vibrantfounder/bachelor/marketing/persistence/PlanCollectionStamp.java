@@ -0,0 +1,14 @@
+package no.vibrantfounder.bachelor.marketing.persistence;
+
+/**
+ * Cheap fingerprint of the whole marketing_plan table.
+ *
+ * Any insert, delete or version bump changes at least one of the values,
+ * so it can back ETags for list endpoints without loading any plans.
+ */
+public record PlanCollectionStamp(
+        long count,
+        long maxId,
+        long versionSum
+) {
+}
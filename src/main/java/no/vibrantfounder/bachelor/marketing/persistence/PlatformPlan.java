@@ -1,9 +1,13 @@
 package no.vibrantfounder.bachelor.marketing.persistence;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "platform_plan")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PlatformPlan {
 
     @Id
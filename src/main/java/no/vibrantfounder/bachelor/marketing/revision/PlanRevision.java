@@ -0,0 +1,18 @@
+package no.vibrantfounder.bachelor.marketing.revision;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of marketing_plan_revision.
+ *
+ * patchJson is the JSON Patch from the previous revision (null for revision 1);
+ * snapshotJson is the full plan at this revision, present for revision 1 and compacted revisions.
+ */
+public record PlanRevision(
+        int revision,
+        String scope,
+        String patchJson,
+        String snapshotJson,
+        LocalDateTime createdAt
+) {
+}
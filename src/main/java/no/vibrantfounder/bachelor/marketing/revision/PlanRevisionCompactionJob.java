@@ -0,0 +1,83 @@
+package no.vibrantfounder.bachelor.marketing.revision;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.vibrantfounder.bachelor.common.PlanRevisionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically snapshots plans whose revision chain has grown past
+ * marketing.revisions.snapshot-every patches.
+ *
+ * Each snapshot is a single UPDATE of an existing revision row (only if it has none yet),
+ * so running on several instances at once is harmless.
+ * Switched off with marketing.revisions.compaction-enabled=false (e.g. on all but one instance).
+ */
+@Component
+@ConditionalOnProperty(prefix = "marketing.revisions", name = "compaction-enabled", havingValue = "true", matchIfMissing = true)
+public class PlanRevisionCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanRevisionCompactionJob.class);
+
+    private final PlanRevisionRepository repository;
+    private final PlanRevisions planRevisions;
+    private final PlanRevisionProperties properties;
+
+    private final Counter snapshots;
+    private final Counter failures;
+
+    public PlanRevisionCompactionJob(
+            PlanRevisionRepository repository,
+            PlanRevisions planRevisions,
+            PlanRevisionProperties properties,
+            MeterRegistry registry
+    ) {
+        this.repository = repository;
+        this.planRevisions = planRevisions;
+        this.properties = properties;
+
+        this.snapshots = Counter.builder("marketing.plan.revision.compactions")
+                .description("Snapshots written by revision compaction")
+                .register(registry);
+        this.failures = Counter.builder("marketing.plan.revision.compaction.failures")
+                .description("Plans whose revision chain could not be compacted")
+                .register(registry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${marketing.revisions.compaction-initial-delay:PT2M}",
+            fixedDelayString = "${marketing.revisions.compaction-interval:PT15M}"
+    )
+    public void run() {
+        int compacted = compact();
+        if (compacted > 0) {
+            log.info("Compacted revision history of {} marketing plans", compacted);
+        }
+    }
+
+    /**
+     * Snapshots up to one batch of due plans at their latest revision.
+     *
+     * @return number of snapshots written
+     */
+    public int compact() {
+        int compacted = 0;
+        for (PlanRevisionRepository.Head head : repository.findCompactionCandidates(
+                properties.snapshotEvery(), properties.compactionBatchSize())) {
+            try {
+                if (planRevisions.compact(head.planId(), head.revision())) {
+                    snapshots.increment();
+                    compacted++;
+                }
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Could not compact revisions of MarketingPlan {}: {}", head.planId(), e.toString());
+            }
+        }
+        return compacted;
+    }
+}
@@ -0,0 +1,120 @@
+package no.vibrantfounder.bachelor.marketing.revision;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the marketing_plan_revision table.
+ *
+ * Rows are append-only except for snapshot_json, which compaction fills in later.
+ */
+@Repository
+public class PlanRevisionRepository {
+
+    private static final String INSERT = """
+            INSERT INTO marketing_plan_revision (plan_id, revision, scope, patch_json, snapshot_json, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    // Everything needed to rebuild one revision: the nearest snapshot at or below it plus the patches after it.
+    private static final String SELECT_CHAIN = """
+            SELECT revision, scope, patch_json, snapshot_json, created_at
+            FROM marketing_plan_revision
+            WHERE plan_id = ? AND revision <= ?
+              AND revision >= (
+                  SELECT MAX(revision) FROM marketing_plan_revision
+                  WHERE plan_id = ? AND revision <= ? AND snapshot_json IS NOT NULL
+              )
+            ORDER BY revision
+            """;
+
+    // Listing only needs sizes, not the JSON itself.
+    private static final String SELECT_SUMMARIES = """
+            SELECT revision, scope, created_at,
+                   CASE WHEN snapshot_json IS NULL THEN 0 ELSE 1 END AS has_snapshot,
+                   COALESCE(LENGTH(patch_json), 0) + COALESCE(LENGTH(snapshot_json), 0) AS stored_chars
+            FROM marketing_plan_revision
+            WHERE plan_id = ?
+            ORDER BY revision
+            """;
+
+    private static final String SELECT_COMPACTION_CANDIDATES = """
+            SELECT plan_id, MAX(revision) AS head
+            FROM marketing_plan_revision
+            GROUP BY plan_id
+            HAVING MAX(revision) - MAX(CASE WHEN snapshot_json IS NOT NULL THEN revision ELSE 0 END) >= ?
+            ORDER BY plan_id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_SNAPSHOT = """
+            UPDATE marketing_plan_revision SET snapshot_json = ?
+            WHERE plan_id = ? AND revision = ? AND snapshot_json IS NULL
+            """;
+
+    private static final RowMapper<PlanRevision> CHAIN_ROW = (rs, rowNum) -> new PlanRevision(
+            rs.getInt("revision"),
+            rs.getString("scope"),
+            rs.getString("patch_json"),
+            rs.getString("snapshot_json"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlanRevisionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException if the revision already exists
+     *         (another refresh of the same plan got there first)
+     */
+    public void insert(long planId, PlanRevision revision) {
+        jdbcTemplate.update(INSERT,
+                planId,
+                revision.revision(),
+                revision.scope(),
+                revision.patchJson(),
+                revision.snapshotJson(),
+                Timestamp.valueOf(revision.createdAt()));
+    }
+
+    public List<PlanRevision> findChain(long planId, int revision) {
+        return jdbcTemplate.query(SELECT_CHAIN, CHAIN_ROW, planId, revision, planId, revision);
+    }
+
+    public List<Summary> findSummaries(long planId) {
+        return jdbcTemplate.query(SELECT_SUMMARIES, (rs, rowNum) -> new Summary(
+                rs.getInt("revision"),
+                rs.getString("scope"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("has_snapshot") == 1,
+                rs.getLong("stored_chars")
+        ), planId);
+    }
+
+    /**
+     * Plans whose head revision is at least {@code snapshotEvery} patches away from their last snapshot.
+     */
+    public List<Head> findCompactionCandidates(int snapshotEvery, int limit) {
+        return jdbcTemplate.query(SELECT_COMPACTION_CANDIDATES,
+                (rs, rowNum) -> new Head(rs.getLong("plan_id"), rs.getInt("head")),
+                snapshotEvery, limit);
+    }
+
+    public boolean storeSnapshot(long planId, int revision, String snapshotJson) {
+        return jdbcTemplate.update(UPDATE_SNAPSHOT, snapshotJson, planId, revision) == 1;
+    }
+
+    public record Summary(int revision, String scope, LocalDateTime createdAt, boolean snapshot, long storedChars) {
+    }
+
+    public record Head(long planId, int revision) {
+    }
+}
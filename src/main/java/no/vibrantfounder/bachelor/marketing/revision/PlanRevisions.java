@@ -0,0 +1,126 @@
+package no.vibrantfounder.bachelor.marketing.revision;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.vibrantfounder.bachelor.common.jsonpatch.JsonPatch;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Revision history of a plan, stored as a base snapshot plus JSON Patch deltas.
+ *
+ * The current revision stays materialized in marketing_plan.raw_json, so normal reads
+ * never touch this table. A plan that is never refreshed has no rows here at all; its
+ * first refresh writes revision 1 (snapshot of the plan as generated) and revision 2 (patch).
+ */
+@Component
+public class PlanRevisions {
+
+    /** Scope recorded for revision 1, the plan as originally generated. */
+    public static final String GENERATED = "GENERATED";
+
+    private final PlanRevisionRepository repository;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary patchBytes;
+    private final DistributionSummary snapshotBytes;
+
+    public PlanRevisions(PlanRevisionRepository repository, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.patchBytes = DistributionSummary.builder("marketing.plan.revision.size")
+                .description("Stored size of a plan revision")
+                .baseUnit("bytes")
+                .tag("kind", "patch")
+                .register(registry);
+        this.snapshotBytes = DistributionSummary.builder("marketing.plan.revision.size")
+                .description("Stored size of a plan revision")
+                .baseUnit("bytes")
+                .tag("kind", "snapshot")
+                .register(registry);
+    }
+
+    /**
+     * Records {@code after} as the next revision of {@code plan} (whose current content is {@code before}).
+     * Must run in the same transaction that updates the plan row.
+     *
+     * @return the new revision number
+     * @throws ObjectOptimisticLockingFailureException if a concurrent refresh already wrote that revision
+     */
+    public int append(MarketingPlan plan, JsonNode before, JsonNode after, String scope, LocalDateTime now) {
+        long planId = plan.getId();
+        int next = plan.getRevision() + 1;
+
+        try {
+            if (plan.getRevision() == 1) {
+                String snapshot = before.toString();
+                LocalDateTime generatedAt = plan.getGeneratedAt() == null ? now : plan.getGeneratedAt();
+                repository.insert(planId, new PlanRevision(1, GENERATED, null, snapshot, generatedAt));
+                snapshotBytes.record(utf8Length(snapshot));
+            }
+
+            String patch = JsonPatch.diff(before, after).toString();
+            repository.insert(planId, new PlanRevision(next, scope, patch, null, now));
+            patchBytes.record(utf8Length(patch));
+        } catch (DuplicateKeyException e) {
+            throw new ObjectOptimisticLockingFailureException(MarketingPlan.class, planId, e);
+        }
+        return next;
+    }
+
+    /**
+     * Rebuilds one stored revision from its nearest snapshot.
+     *
+     * @throws IllegalArgumentException if the plan has no such stored revision
+     */
+    public JsonNode reconstruct(long planId, int revision) {
+        List<PlanRevision> chain = repository.findChain(planId, revision);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).revision() != revision) {
+            throw new IllegalArgumentException("Revision " + revision + " not found for MarketingPlan " + planId);
+        }
+
+        JsonNode plan = read(chain.get(0).snapshotJson());
+        for (PlanRevision next : chain.subList(1, chain.size())) {
+            plan = JsonPatch.apply(plan, read(next.patchJson()));
+        }
+        return plan;
+    }
+
+    public List<PlanRevisionRepository.Summary> summaries(long planId) {
+        return repository.findSummaries(planId);
+    }
+
+    /**
+     * Stores a full snapshot at the given revision so later reconstructions start there.
+     *
+     * @return false if the revision already had one
+     */
+    public boolean compact(long planId, int revision) {
+        String snapshot = reconstruct(planId, revision).toString();
+        boolean stored = repository.storeSnapshot(planId, revision, snapshot);
+        if (stored) {
+            snapshotBytes.record(utf8Length(snapshot));
+        }
+        return stored;
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt plan revision JSON", e);
+        }
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
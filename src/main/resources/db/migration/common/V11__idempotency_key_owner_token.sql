@@ -0,0 +1,4 @@
+-- Random token of the attempt that currently owns an IN_PROGRESS key. Completing, failing and
+-- the heartbeat only touch the row while it still carries the caller's token, so an attempt
+-- whose key was reclaimed as abandoned cannot overwrite the new owner's result.
+ALTER TABLE idempotency_key ADD COLUMN owner_token VARCHAR(36);
@@ -0,0 +1,19 @@
+CREATE TABLE ai_call (
+                         id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                         prompt_id VARCHAR(64) NOT NULL,
+                         model VARCHAR(128),
+                         outcome VARCHAR(16) NOT NULL,
+                         stop_reason VARCHAR(64),
+                         error_type VARCHAR(32),
+                         repair_attempted BOOLEAN NOT NULL,
+                         provider_calls INTEGER NOT NULL,
+                         total_latency_ms BIGINT NOT NULL,
+                         provider_latency_ms BIGINT NOT NULL,
+                         input_tokens BIGINT NOT NULL,
+                         output_tokens BIGINT NOT NULL,
+                         correlation_id VARCHAR(128),
+                         started_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_ai_call_started_at ON ai_call(started_at);
+CREATE INDEX idx_ai_call_correlation_id ON ai_call(correlation_id);
@@ -0,0 +1 @@
+ALTER TABLE marketing_plan ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
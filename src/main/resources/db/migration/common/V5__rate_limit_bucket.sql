@@ -0,0 +1,5 @@
+CREATE TABLE rate_limit_bucket (
+                                   bucket_key VARCHAR(255) PRIMARY KEY,
+                                   permits DOUBLE PRECISION NOT NULL,
+                                   updated_at_ms BIGINT NOT NULL
+);
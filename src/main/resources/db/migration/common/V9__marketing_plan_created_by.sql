@@ -0,0 +1,2 @@
+ALTER TABLE marketing_plan ADD COLUMN created_by VARCHAR(255);
+CREATE INDEX idx_marketing_plan_created_by ON marketing_plan (created_by);
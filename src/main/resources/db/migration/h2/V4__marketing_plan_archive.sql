@@ -0,0 +1,11 @@
+CREATE TABLE marketing_plan_archive (
+                                        id BIGINT PRIMARY KEY,
+                                        industry VARCHAR(255),
+                                        primary_goal VARCHAR(255),
+                                        generated_at TIMESTAMP,
+                                        archived_at TIMESTAMP NOT NULL,
+                                        raw_bytes INTEGER NOT NULL,
+                                        payload VARBINARY NOT NULL
+);
+
+CREATE INDEX idx_marketing_plan_archive_generated_at ON marketing_plan_archive(generated_at);
@@ -0,0 +1,14 @@
+CREATE TABLE idempotency_key (
+                                 principal VARCHAR(255) NOT NULL,
+                                 idem_key VARCHAR(255) NOT NULL,
+                                 request_hash VARCHAR(64) NOT NULL,
+                                 status VARCHAR(16) NOT NULL,
+                                 plan_id BIGINT,
+                                 response_json CLOB,
+                                 created_at TIMESTAMP NOT NULL,
+                                 updated_at TIMESTAMP NOT NULL,
+                                 expires_at TIMESTAMP NOT NULL,
+                                 PRIMARY KEY (principal, idem_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key(expires_at);
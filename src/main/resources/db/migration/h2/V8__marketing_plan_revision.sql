@@ -0,0 +1,16 @@
+-- Refreshes write revisions of the same plan instead of new rows.
+ALTER TABLE marketing_plan ADD COLUMN revision INT DEFAULT 1 NOT NULL;
+
+-- Revision 1 holds a full snapshot, later revisions a JSON Patch (RFC 6902) against the previous one.
+-- Compaction adds snapshot_json to some later revisions so reconstruction never replays a long chain.
+CREATE TABLE marketing_plan_revision (
+                                         plan_id BIGINT NOT NULL,
+                                         revision INT NOT NULL,
+                                         scope VARCHAR(32) NOT NULL,
+                                         patch_json CLOB,
+                                         snapshot_json CLOB,
+                                         created_at TIMESTAMP NOT NULL,
+                                         PRIMARY KEY (plan_id, revision),
+                                         CONSTRAINT fk_marketing_plan_revision_plan
+                                             FOREIGN KEY (plan_id) REFERENCES marketing_plan (id) ON DELETE CASCADE
+);
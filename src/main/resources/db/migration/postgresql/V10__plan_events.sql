@@ -0,0 +1,18 @@
+-- Transactional outbox: rows are inserted in the same transaction as the plan they describe
+-- and delivered as webhooks by PlanEventDispatcher. No FK, an event outlives a deleted plan.
+-- next_attempt_at doubles as the claim lease: a claimed row is pushed into the future until
+-- its delivery is recorded, so a crashed node's claims become due again on their own.
+CREATE TABLE plan_events (
+                             id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                             event_type VARCHAR(64) NOT NULL,
+                             plan_id BIGINT NOT NULL,
+                             payload TEXT NOT NULL,
+                             status VARCHAR(16) NOT NULL,
+                             attempts INT DEFAULT 0 NOT NULL,
+                             created_at TIMESTAMP NOT NULL,
+                             next_attempt_at TIMESTAMP NOT NULL,
+                             delivered_at TIMESTAMP,
+                             last_error VARCHAR(1000)
+);
+
+CREATE INDEX idx_plan_events_due ON plan_events(status, next_attempt_at);
@@ -0,0 +1,70 @@
+package no.vibrantfounder.bachelor.ai.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.vibrantfounder.bachelor.ai.config.AnthropicHttpProperties;
+import no.vibrantfounder.bachelor.loadtest.AnthropicStubServer;
+import no.vibrantfounder.bachelor.loadtest.LatencyDistribution;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnthropicHttpTransportTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void reusesTheConnectionAndCountsResponsesByVersion() throws Exception {
+        try (AnthropicStubServer stub = AnthropicStubServer.start(AnthropicStubServer.Options.defaults());
+             AnthropicHttpTransport transport = transport(HttpClient.Version.HTTP_1_1, null, Duration.ofSeconds(10))) {
+
+            RestClient client = RestClient.builder().baseUrl(stub.baseUrl()).requestFactory(transport).build();
+            for (int i = 0; i < 3; i++) {
+                assertThat(client.post().uri("/v1/messages").body("{}").retrieve().body(String.class)).contains("msg_stub_");
+            }
+
+            assertThat(stub.connections()).isEqualTo(1);
+            assertThat(registry.get("ai.anthropic.http.responses").tag("version", "HTTP_1_1").counter().count()).isEqualTo(3);
+            assertThat(registry.get("ai.anthropic.http.in_flight").gauge().value()).isZero();
+            // Plain http:// opens no TLS connections, so every response counts as reused.
+            assertThat(registry.get("ai.anthropic.http.connection.reuse").gauge().value()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    void separatesReadTimeoutFromTotalDeadline() throws Exception {
+        AnthropicStubServer.Options slow = new AnthropicStubServer.Options(
+                0, new LatencyDistribution.Fixed(1_000), 0.0, 0.0, AnthropicStubServer.Options.defaults().planTemplate());
+
+        try (AnthropicStubServer stub = AnthropicStubServer.start(slow);
+             AnthropicHttpTransport readLimited = transport(HttpClient.Version.HTTP_2, Duration.ofMillis(200), Duration.ofSeconds(10));
+             AnthropicHttpTransport deadlineLimited = transport(HttpClient.Version.HTTP_2, null, Duration.ofMillis(300))) {
+
+            assertThatThrownBy(() -> post(stub, readLimited))
+                    .isInstanceOf(ResourceAccessException.class)
+                    .hasRootCauseInstanceOf(HttpTimeoutException.class);
+            assertThatThrownBy(() -> post(stub, deadlineLimited))
+                    .isInstanceOf(ResourceAccessException.class)
+                    .hasMessageContaining("total deadline");
+
+            assertThat(registry.get("ai.anthropic.http.timeouts").tag("type", "read").counter().count()).isEqualTo(1);
+            assertThat(registry.get("ai.anthropic.http.timeouts").tag("type", "deadline").counter().count()).isEqualTo(1);
+        }
+    }
+
+    private AnthropicHttpTransport transport(HttpClient.Version version, Duration readTimeout, Duration deadline) {
+        AnthropicHttpProperties properties = new AnthropicHttpProperties(version, null, readTimeout, 2, null, null, null);
+        return AnthropicHttpTransport.create(properties, deadline, registry);
+    }
+
+    private static String post(AnthropicStubServer stub, AnthropicHttpTransport transport) {
+        return RestClient.builder().baseUrl(stub.baseUrl()).requestFactory(transport).build()
+                .post().uri("/v1/messages").body("{}").retrieve().body(String.class);
+    }
+}
@@ -0,0 +1,66 @@
+package no.vibrantfounder.bachelor.ai.client;
+
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Smoke test for offline load testing: one plan generation served from the replay
+ * fixtures, through the controller, orchestrator, validator and database.
+ */
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:replay_plan_generation_test;DB_CLOSE_DELAY=-1",
+        "ai.anthropic.replay.mode=REPLAY",
+        "ai.anthropic.replay.strict=false"
+})
+class ReplayPlanGenerationTest {
+
+    private static final String REQUEST = """
+            {"industry":"B2B SaaS","targetAudience":"Small agency owners","primaryGoal":"LEADS",
+             "secondaryGoals":["AWARENESS"],"platforms":["LINKEDIN","INSTAGRAM"],"resourcesPerWeek":5,
+             "tone":"Practical","constraints":["No paid ads"]}
+            """;
+
+    @DynamicPropertySource
+    static void replayDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ai.anthropic.replay.directory", () -> TestFixtures.resourceDirectory(TestFixtures.REPLAY_DIR).toString());
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesAndStoresAPlanFromARecordedResponse() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        mvc.perform(post("/api/v1/marketing/plan")
+                        .with(user("replay"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.platformPlans[0].platform").value("LINKEDIN"))
+                .andExpect(jsonPath("$.calendar[0].date").value("2026-01-05"));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM marketing_plan WHERE created_by = 'replay'", Integer.class)).isEqualTo(1);
+    }
+}
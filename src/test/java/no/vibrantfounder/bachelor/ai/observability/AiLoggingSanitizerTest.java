@@ -0,0 +1,60 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiLoggingSanitizerTest {
+
+    @Test
+    void redactsKeyFieldsInJsonHeadersAndQueryStrings() {
+        assertThat(AiLoggingSanitizer.sanitize("{\"api_key\": \"abc123\", \"model\": \"claude\"}"))
+                .isEqualTo("{\"api_key\": \"[REDACTED]\", \"model\": \"claude\"}");
+        assertThat(AiLoggingSanitizer.sanitize("x-api-key: abc123 sent"))
+                .isEqualTo("x-api-key: [REDACTED] sent");
+        assertThat(AiLoggingSanitizer.sanitize("Authorization: Bearer eyAbc.def"))
+                .isEqualTo("Authorization: Bearer [REDACTED]");
+        assertThat(AiLoggingSanitizer.sanitize("GET /v1?ANTHROPIC_API_KEY=abc&x=1"))
+                .isEqualTo("GET /v1?ANTHROPIC_API_KEY=[REDACTED]&x=1");
+        assertThat(AiLoggingSanitizer.sanitize("api key = abc"))
+                .isEqualTo("api key = [REDACTED]");
+    }
+
+    @Test
+    void redactsBareKeysEmailsAndPhoneNumbers() {
+        String input = "key sk-ant-REDACTED, mail ola.nordmann+x@firma.no. ring +47 123 45 678 eller 987-65-432.";
+
+        assertThat(AiLoggingSanitizer.sanitize(input))
+                .isEqualTo("key [REDACTED], mail [EMAIL]. ring [PHONE] eller [PHONE].");
+    }
+
+    @Test
+    void leavesDatesTimesAndOrdinaryTextAlone() {
+        String input = "{\"date\":\"2026-01-06\",\"time\":\"09:00\",\"at\":\"2026-01-06 09:00\",\"maxTokens\":4096,\"note\":\"@handle 2x\"}";
+
+        assertThat(AiLoggingSanitizer.sanitize(input)).isEqualTo(input);
+    }
+
+    @Test
+    void leavesIdsEpochMillisAndErrorCodesAlone() {
+        String input = "at 1767225600000 plan 98765432 failed [90011-224], +4798765432 called";
+
+        assertThat(AiLoggingSanitizer.sanitize(input))
+                .isEqualTo("at 1767225600000 plan 98765432 failed [90011-224], [PHONE] called");
+    }
+
+    @Test
+    void truncatesAfterMaxLengthWithoutSplittingASecret() {
+        StringBuilder out = new StringBuilder("prefix ");
+
+        AiLoggingSanitizer.sanitize("  token=abcdefghijklmnop and more text  ", 12, out);
+
+        assertThat(out).hasToString("prefix token=[REDAC...");
+    }
+
+    @Test
+    void shortInputIsOnlyStripped() {
+        assertThat(AiLoggingSanitizer.sanitize("  plain text \n")).isEqualTo("plain text");
+        assertThat(AiLoggingSanitizer.sanitize(null)).isNull();
+    }
+}
@@ -0,0 +1,84 @@
+package no.vibrantfounder.bachelor.ai.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiRequestTimingCollectorTest {
+
+    private final AiRequestTimingCollector collector = new AiRequestTimingCollector();
+    private final ObservationRegistry registry = ObservationRegistry.create();
+
+    {
+        registry.observationConfig().observationHandler(collector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        AiRequestTimings.end();
+    }
+
+    @Test
+    void timesStageObservationsOfTheCurrentRequest() {
+        AiRequestTimings timings = AiRequestTimings.begin();
+
+        observe("ai.prompt.render", 2);
+        observe("ai.provider.call", 5);
+        observe("marketing.plan.persist", 1);
+        observe("http.client.requests", 5);
+
+        assertThat(timings.stageNanos(AiRequestTimings.Stage.RENDER)).isGreaterThanOrEqualTo(2_000_000);
+        assertThat(timings.stageNanos(AiRequestTimings.Stage.PROVIDER)).isGreaterThanOrEqualTo(5_000_000);
+        assertThat(timings.stageNanos(AiRequestTimings.Stage.PERSIST)).isGreaterThanOrEqualTo(1_000_000);
+        assertThat(timings.stageNanos(AiRequestTimings.Stage.REPAIR)).isZero();
+        assertThat(timings.elapsedNanos()).isGreaterThanOrEqualTo(13_000_000);
+    }
+
+    @Test
+    void aggregatesCallsToTheWorstOutcomeAndSummedTokens() {
+        AiRequestTimings timings = AiRequestTimings.begin();
+
+        collector.onCallCompleted(record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.REPAIRED, null, 100, 200));
+        collector.onCallCompleted(record(PromptId.MARKETING_PLAN_REFRESH_V1, AiCallRecord.Outcome.FAILED, AiException.Type.TIMEOUT, 10, 0));
+
+        assertThat(timings.hasAiCalls()).isTrue();
+        assertThat(timings.promptIds()).isEqualTo("MARKETING_PLAN_V1,MARKETING_PLAN_REFRESH_V1");
+        assertThat(timings.outcome()).isEqualTo(AiCallRecord.Outcome.FAILED);
+        assertThat(timings.errorType()).isEqualTo(AiException.Type.TIMEOUT);
+        assertThat(timings.correlationId()).isEqualTo("corr-1");
+        assertThat(timings.inputTokens()).isEqualTo(110);
+        assertThat(timings.outputTokens()).isEqualTo(200);
+    }
+
+    @Test
+    void isANoOpOutsideARequest() {
+        observe("ai.provider.call", 0);
+        collector.onCallCompleted(record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.OK, null, 1, 1));
+
+        assertThat(AiRequestTimings.current()).isNull();
+    }
+
+    private void observe(String name, long sleepMillis) {
+        Observation.createNotStarted(name, registry).observe(() -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static AiCallRecord record(PromptId prompt, AiCallRecord.Outcome outcome, AiException.Type error, long in, long out) {
+        AiProviderCall call = new AiProviderCall(prompt, "claude", Duration.ofMillis(5), "end_turn", in, out, error);
+        return new AiCallRecord(prompt, "claude", outcome, "end_turn", error, Instant.now(), Duration.ofMillis(5), List.of(call), "corr-1");
+    }
+}
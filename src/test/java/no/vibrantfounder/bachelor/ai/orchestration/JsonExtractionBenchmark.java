@@ -0,0 +1,46 @@
+package no.vibrantfounder.bachelor.ai.orchestration;
+
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures AiOrchestrator.extractJsonObjectLenient on plain, fenced and chatty model output.
+ *
+ * Lives in the orchestration package because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonExtractionBenchmark {
+
+    private String plain;
+    private String fenced;
+    private String chatty;
+
+    @Setup
+    public void setUp() {
+        plain = TestFixtures.resource(TestFixtures.VALID_PLAN);
+        fenced = "```json\n" + plain + "\n```";
+        chatty = "Here is your plan:\n" + plain + "\nLet me know if you need changes.";
+    }
+
+    @Benchmark
+    public String plain() {
+        return AiOrchestrator.extractJsonObjectLenient(plain);
+    }
+
+    @Benchmark
+    public String fenced() {
+        return AiOrchestrator.extractJsonObjectLenient(fenced);
+    }
+
+    @Benchmark
+    public String chatty() {
+        return AiOrchestrator.extractJsonObjectLenient(chatty);
+    }
+}
@@ -0,0 +1,76 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import no.vibrantfounder.bachelor.ai.observability.AiProviderCall;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:ai_usage_controller_test;DB_CLOSE_DELAY=-1"
+})
+class AiUsageControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private AiUsageRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        jdbcTemplate.update("DELETE FROM ai_call");
+    }
+
+    @Test
+    void adminsSeeDailyAggregatesAcrossAllUsers() throws Exception {
+        AiProviderCall call = new AiProviderCall(PromptId.MARKETING_PLAN_V1, "claude", Duration.ofMillis(40), "end_turn", 10, 20, null);
+        repository.insertBatch(List.of(new AiCallRecord(PromptId.MARKETING_PLAN_V1, "claude", AiCallRecord.Outcome.OK, "end_turn",
+                null, Instant.now(), Duration.ofMillis(40), List.of(call), "corr")));
+
+        mvc.perform(get("/api/v1/ai/usage/daily").param("days", "7").with(user("ops").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].promptId").value("MARKETING_PLAN_V1"))
+                .andExpect(jsonPath("$[0].calls").value(1))
+                .andExpect(jsonPath("$[0].outputTokens").value(20));
+    }
+
+    @Test
+    void otherUsersAreForbidden() throws Exception {
+        mvc.perform(get("/api/v1/ai/usage/daily").with(user("alice").roles("USER")))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/v1/ai/usage/daily"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsDayRangesOutsideTheLimit() throws Exception {
+        mvc.perform(get("/api/v1/ai/usage/daily").param("days", "0").with(user("ops").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/ai/usage/daily").param("days", "367").with(user("ops").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,82 @@
+package no.vibrantfounder.bachelor.ai.usage;
+
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import no.vibrantfounder.bachelor.ai.observability.AiProviderCall;
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:ai_usage_repository_test;DB_CLOSE_DELAY=-1"
+})
+class AiUsageRepositoryTest {
+
+    @Autowired
+    private AiUsageRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM ai_call");
+    }
+
+    @Test
+    void aggregatesCallsPerDayAndPrompt() {
+        Instant now = Instant.now();
+        repository.insertBatch(List.of(
+                record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.OK, null, now, 100, 1000, 2000),
+                record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.REPAIRED, null, now, 300, 500, 700),
+                record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.FAILED, AiException.Type.TIMEOUT, now, 900, 10, 0),
+                record(PromptId.FORMAT_REPAIR_V1, AiCallRecord.Outcome.OK, null, now, 50, 300, 400),
+                record(PromptId.MARKETING_PLAN_V1, AiCallRecord.Outcome.OK, null, now.minus(40, ChronoUnit.DAYS), 100, 1, 1)
+        ));
+
+        List<DailyAiUsage> usage = repository.findDailyUsageSince(LocalDate.now().minusDays(29).atStartOfDay());
+
+        assertThat(usage).hasSize(2);
+        DailyAiUsage plan = usage.stream()
+                .filter(u -> u.promptId().equals(PromptId.MARKETING_PLAN_V1.name()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(plan.calls()).isEqualTo(3);
+        assertThat(plan.repairedCalls()).isEqualTo(1);
+        assertThat(plan.failedCalls()).isEqualTo(1);
+        assertThat(plan.p50LatencyMs()).isEqualTo(300.0);
+        assertThat(plan.inputTokens()).isEqualTo(1510);
+        assertThat(plan.outputTokens()).isEqualTo(2700);
+    }
+
+    @Test
+    void truncatesOverlongCorrelationIds() {
+        AiCallRecord record = new AiCallRecord(PromptId.MARKETING_PLAN_V1, "claude", AiCallRecord.Outcome.OK, "end_turn", null,
+                Instant.now(), Duration.ofMillis(5), List.of(), "x".repeat(300));
+
+        repository.insertBatch(List.of(record));
+
+        String stored = jdbcTemplate.queryForObject("SELECT correlation_id FROM ai_call", String.class);
+        assertThat(stored).hasSize(128);
+        assertThat(jdbcTemplate.queryForObject("SELECT started_at FROM ai_call", LocalDateTime.class)).isNotNull();
+    }
+
+    private static AiCallRecord record(PromptId prompt, AiCallRecord.Outcome outcome, AiException.Type error,
+                                       Instant startedAt, long latencyMs, long in, long out) {
+        AiProviderCall call = new AiProviderCall(prompt, "claude", Duration.ofMillis(latencyMs), "end_turn", in, out, error);
+        return new AiCallRecord(prompt, "claude", outcome, "end_turn", error, startedAt, Duration.ofMillis(latencyMs), List.of(call), "corr");
+    }
+}
@@ -0,0 +1,115 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.vibrantfounder.bachelor.ai.client.AnthropicHttpClient;
+import no.vibrantfounder.bachelor.ai.client.AnthropicHttpTransport;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicContentBlock;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessage;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageRequest;
+import no.vibrantfounder.bachelor.ai.client.dto.AnthropicMessageResponse;
+import no.vibrantfounder.bachelor.ai.config.AnthropicHttpProperties;
+import no.vibrantfounder.bachelor.ai.config.AnthropicProperties;
+import no.vibrantfounder.bachelor.loadtest.AnthropicStubServer;
+import no.vibrantfounder.bachelor.loadtest.LatencyDistribution;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anthropic client transport against the embedded AnthropicStubServer:
+ * - DEFAULT: the previous setup (default JDK HttpClient via JdkClientHttpRequestFactory)
+ * - HTTP_1_1 / HTTP_2: AnthropicHttpTransport with that version
+ *
+ * Run with several threads to see how connections are shared; TearDown prints how many
+ * connections the stub saw. The stub (com.sun.net.httpserver) only speaks HTTP/1.1 over
+ * plain http, so HTTP_2 falls back to HTTP/1.1 here; multiplexing only shows against the
+ * real API over TLS.
+ *
+ * Example: ./mvnw -Pbenchmarks verify -Djmh.include=AnthropicTransportBenchmark -Djmh.args="-t 16 -p latencyMs=20"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnthropicTransportBenchmark {
+
+    @Param({"DEFAULT", "HTTP_1_1", "HTTP_2"})
+    public String transport;
+
+    @Param({"0"})
+    public long latencyMs;
+
+    private AnthropicStubServer stub;
+    private AutoCloseable closeable;
+    private AnthropicHttpClient client;
+    private AnthropicMessageRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = AnthropicStubServer.start(new AnthropicStubServer.Options(
+                0,
+                new LatencyDistribution.Fixed(latencyMs),
+                0.0,
+                0.0,
+                AnthropicStubServer.Options.defaults().planTemplate()
+        ));
+
+        AnthropicProperties properties = new AnthropicProperties(stub.baseUrl(), "bench", "stub", 8192, 0.2, Duration.ofSeconds(30));
+        ClientHttpRequestFactory requestFactory;
+        if ("DEFAULT".equals(transport)) {
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(properties.timeout()).build();
+            JdkClientHttpRequestFactory jdk = new JdkClientHttpRequestFactory(httpClient);
+            jdk.setReadTimeout(properties.timeout());
+            requestFactory = jdk;
+            closeable = httpClient::close;
+        } else {
+            AnthropicHttpTransport tuned = AnthropicHttpTransport.create(
+                    new AnthropicHttpProperties(HttpClient.Version.valueOf(transport), null, null, null, null, null, null),
+                    properties.timeout(),
+                    new SimpleMeterRegistry()
+            );
+            requestFactory = tuned;
+            closeable = tuned;
+        }
+
+        RestClient restClient = RestClient.builder()
+                .baseUrl(properties.baseUrl())
+                .requestFactory(requestFactory)
+                .defaultHeader("x-api-key", properties.apiKey())
+                .defaultHeader("anthropic-version", "2023-06-01")
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        client = new AnthropicHttpClient(restClient, properties);
+
+        request = new AnthropicMessageRequest(
+                properties.model(),
+                properties.maxTokens(),
+                properties.temperature(),
+                "You are a marketing planner.",
+                List.of(new AnthropicMessage("user", List.of(new AnthropicContentBlock("text", "Make a 5 day plan for a B2B SaaS."))))
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.out.printf("%n%s: %d requests over %d connections%n", transport, stub.requests(), stub.connections());
+        closeable.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public AnthropicMessageResponse createMessage() {
+        return client.createMessage(request);
+    }
+}
@@ -0,0 +1,86 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import no.vibrantfounder.bachelor.BachelorApplication;
+import no.vibrantfounder.bachelor.marketing.api.dto.GeneratePlanRequest;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.application.MarketingPlanService;
+import no.vibrantfounder.bachelor.marketing.domain.enums.Goal;
+import no.vibrantfounder.bachelor.marketing.domain.enums.Platform;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole MarketingPlanService.generatePlan path offline:
+ * render -> replayed provider response -> parse -> validate -> persist (+ outbox row).
+ *
+ * The application context is started as in production, with ai.anthropic.replay.mode=REPLAY
+ * serving the captured responses in fixtures/replay with configurable latency and an
+ * in-memory H2 database, so this measures application overhead and (with latencyMs > 0
+ * and more threads) concurrency behaviour.
+ *
+ * Example: ./mvnw -Pbenchmarks verify -Djmh.include=GeneratePlanBenchmark -Djmh.args="-t 16 -p latencyMs=200"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratePlanBenchmark {
+
+    @Param({"0"})
+    public long latencyMs;
+
+    @Param({"0"})
+    public long jitterMs;
+
+    private ConfigurableApplicationContext app;
+    private MarketingPlanService service;
+    private GeneratePlanRequest request;
+
+    @Setup
+    public void setUp() {
+        app = new SpringApplicationBuilder(BachelorApplication.class)
+                .properties(
+                        "server.port=0",
+                        "ai.anthropic.api-key=replay",
+                        "ai.anthropic.replay.mode=REPLAY",
+                        "ai.anthropic.replay.directory=" + TestFixtures.resourceDirectory(TestFixtures.REPLAY_DIR),
+                        "ai.anthropic.replay.latency=" + latencyMs + "ms",
+                        "ai.anthropic.replay.latency-jitter=" + jitterMs + "ms",
+                        "spring.datasource.url=jdbc:h2:mem:generate_plan_benchmark",
+                        "logging.level.no.vibrantfounder.bachelor=WARN",
+                        "management.tracing.sampling.probability=0.0",
+                        // the benchmark measures the generation path, not the per-user limiter
+                        "marketing.rate-limit.enabled=false"
+                )
+                .run();
+        service = app.getBean(MarketingPlanService.class);
+
+        request = new GeneratePlanRequest(
+                "B2B SaaS",
+                "Small agency owners",
+                Goal.LEADS,
+                List.of(Goal.AWARENESS),
+                List.of(Platform.LINKEDIN, Platform.INSTAGRAM),
+                5,
+                "Practical",
+                List.of("No paid ads")
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public MarketingPlanResponse generatePlan() {
+        return service.generatePlan(request);
+    }
+}
@@ -0,0 +1,42 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a full AI plan JSON into MarketingPlanResponse, the way AiOrchestrator does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBindingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        objectMapper = TestFixtures.objectMapper();
+        reader = objectMapper.readerFor(MarketingPlanResponse.class);
+        json = TestFixtures.resource(TestFixtures.VALID_PLAN);
+    }
+
+    @Benchmark
+    public MarketingPlanResponse objectMapperReadValue() throws Exception {
+        return objectMapper.readValue(json, MarketingPlanResponse.class);
+    }
+
+    @Benchmark
+    public MarketingPlanResponse objectReader() throws Exception {
+        return reader.readValue(json);
+    }
+}
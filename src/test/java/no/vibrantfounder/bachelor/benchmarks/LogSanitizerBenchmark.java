@@ -0,0 +1,56 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import no.vibrantfounder.bachelor.ai.observability.AiLoggingSanitizer;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sanitizes a full model output (the valid plan fixture with a key and contact data mixed in),
+ * comparing the single-pass scanner with the previous strip/substring/regex implementation.
+ *
+ * Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogSanitizerBenchmark {
+
+    private static final Pattern KEY_LIKE = Pattern.compile(
+            "(?i)(api[-_ ]?key|secret|token)\\s*[:=]\\s*[^\\s\"']+"
+    );
+
+    @Param({"500", "100000"})
+    public int maxLength;
+
+    private String output;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        String plan = TestFixtures.resource(TestFixtures.VALID_PLAN);
+        output = "Contact ola@firma.no or +47 123 45 678, api_key=sk-ant-REDACTED\n" + plan;
+        buffer = new StringBuilder(Math.min(output.length(), maxLength) + 3);
+    }
+
+    @Benchmark
+    public StringBuilder scanner() {
+        buffer.setLength(0);
+        AiLoggingSanitizer.sanitize(output, maxLength, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public String regex() {
+        String trimmed = output.strip();
+        if (trimmed.length() > maxLength) {
+            trimmed = trimmed.substring(0, maxLength) + "...";
+        }
+        return KEY_LIKE.matcher(trimmed).replaceAll("[REDACTED]");
+    }
+}
@@ -0,0 +1,158 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smoke test + startup/memory comparison of the native image against the JVM jar.
+ *
+ * Each build is started on a free port and timed until /actuator/health answers. Then a few
+ * requests exercise security, JSON binding, bean validation and the database. RSS is read
+ * from /proc after the smoke requests (Linux only; reported as -1 elsewhere).
+ *
+ * Run by the native Maven profile (./mvnw -Pnative verify).
+ * Args: native binary, JVM jar, result file.
+ */
+public final class NativeComparison {
+
+    private static final String AUTH = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private record Result(String build, long startupMs, long rssKb) {
+    }
+
+    private NativeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path nativeBinary = Path.of(args[0]);
+        Path jar = Path.of(args[1]);
+        Path resultFile = args.length > 2 ? Path.of(args[2]) : Path.of("target/native-comparison.json");
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Result> results = List.of(
+                run("native", List.of(nativeBinary.toString())),
+                run("jvm", List.of(java, "-jar", jar.toString()))
+        );
+
+        List<String> json = new ArrayList<>();
+        System.out.printf("%-8s %12s %12s%n", "build", "startup ms", "rss MiB");
+        for (Result r : results) {
+            System.out.printf("%-8s %12d %12d%n", r.build(), r.startupMs(), r.rssKb() < 0 ? -1 : r.rssKb() / 1024);
+            json.add(String.format(Locale.ROOT, "{\"build\":\"%s\",\"startupMs\":%d,\"rssKb\":%d}",
+                    r.build(), r.startupMs(), r.rssKb()));
+        }
+
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        Files.writeString(resultFile, "[" + String.join(",", json) + "]\n");
+    }
+
+    private static Result run(String build, List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(launch);
+        command.add("--server.port=" + port);
+        command.add("--ai.anthropic.api-key=native-smoke");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            String base = "http://localhost:" + port;
+            awaitHealthy(base, process);
+            long startupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            smoke(base, build);
+            return new Result(build, startupMs, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void smoke(String base, String build) throws Exception {
+        expect(build, "GET /plans", 200, get(base + "/api/v1/marketing/plans?page=0&size=5"));
+        // Unknown id -> IllegalArgumentException -> 400 via GlobalExceptionHandler
+        expect(build, "GET /plans/{id}", 400, get(base + "/api/v1/marketing/plans/999999"));
+        // Empty body -> bean validation on GeneratePlanRequest, never reaches the AI client
+        expect(build, "POST /plan", 400, send(HttpRequest.newBuilder(URI.create(base + "/api/v1/marketing/plan"))
+                .header("Authorization", AUTH)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build()));
+        expect(build, "unauthenticated", 401, send(HttpRequest.newBuilder(URI.create(base + "/api/v1/marketing/plans")).build()));
+    }
+
+    private static void awaitHealthy(String base, Process process) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue() + " before becoming healthy");
+            }
+            try {
+                if (get(base + "/actuator/health").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Not healthy within 2 minutes: " + base);
+    }
+
+    private static HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(url)).header("Authorization", AUTH).GET().build());
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expect(String build, String name, int status, HttpResponse<String> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(build + " smoke check '" + name + "' expected " + status
+                    + " but got " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static long rssKb(long pid) {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux or process already gone
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
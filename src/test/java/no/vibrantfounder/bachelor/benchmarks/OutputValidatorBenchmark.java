@@ -0,0 +1,46 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.application.MarketingPlanOutputValidator;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures MarketingPlanOutputValidator on a valid plan (happy path, no allocation of
+ * path strings expected) and on a plan with several violations (full collection).
+ *
+ * Run with: ./mvnw -Pbenchmarks verify -Djmh.include=OutputValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputValidatorBenchmark {
+
+    private MarketingPlanOutputValidator validator;
+    private MarketingPlanResponse validPlan;
+    private MarketingPlanResponse invalidPlan;
+
+    @Setup
+    public void setUp() {
+        validator = new MarketingPlanOutputValidator();
+        validPlan = TestFixtures.validPlan();
+        invalidPlan = TestFixtures.invalidPlan();
+    }
+
+    @Benchmark
+    public MarketingPlanResponse validPlan() {
+        validator.validate(validPlan);
+        return validPlan;
+    }
+
+    @Benchmark
+    public List<String> invalidPlan() {
+        return MarketingPlanOutputValidator.MARKETING_PLAN.check(invalidPlan);
+    }
+}
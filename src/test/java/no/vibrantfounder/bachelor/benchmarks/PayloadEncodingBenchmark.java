@@ -0,0 +1,68 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes a full MarketingPlanResponse in each encoding the API can negotiate
+ * (JSON, gzip'ed JSON, Smile, CBOR) with the same Jackson 3 stack Spring MVC uses.
+ * Payload sizes are printed once per fork so time and bytes can be compared side by side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private MarketingPlanResponse plan;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = JsonMapper.builder().build();
+        smile = SmileMapper.builder().build();
+        cbor = CBORMapper.builder().build();
+        plan = TestFixtures.validPlan();
+
+        System.out.printf("%npayload bytes: json=%d json+gzip=%d smile=%d cbor=%d%n",
+                json().length, jsonGzip().length, smile().length, cbor().length);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return json.writeValueAsBytes(plan);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            json.writeValue(gzip, plan);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] smile() {
+        return smile.writeValueAsBytes(plan);
+    }
+
+    @Benchmark
+    public byte[] cbor() {
+        return cbor.writeValueAsBytes(plan);
+    }
+}
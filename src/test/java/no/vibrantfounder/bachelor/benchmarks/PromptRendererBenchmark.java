@@ -0,0 +1,47 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import no.vibrantfounder.bachelor.ai.prompting.PromptRenderer;
+import no.vibrantfounder.bachelor.ai.prompting.PromptTemplateService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the real marketing plan user prompt with a typical set of variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptRendererBenchmark {
+
+    private PromptRenderer renderer;
+    private String template;
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        renderer = new PromptRenderer();
+        template = new PromptTemplateService(new DefaultResourceLoader()).loadUser(PromptId.MARKETING_PLAN_V1);
+        variables = Map.of(
+                "industry", "B2B SaaS",
+                "targetAudience", "Small agency owners",
+                "primaryGoal", "LEADS",
+                "secondaryGoals", "AWARENESS, COMMUNITY",
+                "platforms", "LINKEDIN, INSTAGRAM",
+                "resourcesPerWeek", "5",
+                "tone", "Practical and friendly",
+                "constraints", "No paid ads, Max 2 videos per week"
+        );
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(template, variables);
+    }
+}
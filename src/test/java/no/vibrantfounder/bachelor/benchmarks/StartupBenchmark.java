@@ -0,0 +1,102 @@
+package no.vibrantfounder.bachelor.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start comparison of the packaged app in each startup mode.
+ *
+ * Every run starts a fresh JVM with spring.context.exit=onRefresh, so the measured time is
+ * JVM boot + context refresh (Flyway, JPA, Security, Actuator) up to the point where the
+ * app would start taking traffic. With lazy init some of that cost moves to the first request.
+ *
+ * Run by the startup Maven profile (./mvnw -Pstartup verify), which builds the AOT jar and CDS archive.
+ * Args: extracted jar, CDS archive, runs per mode, result file.
+ */
+public final class StartupBenchmark {
+
+    private record Mode(String name, boolean aot, boolean cds, boolean fastStart) {
+    }
+
+    private static final List<Mode> MODES = List.of(
+            new Mode("jvm", false, false, false),
+            new Mode("jvm+fast-start", false, false, true),
+            new Mode("aot", true, false, false),
+            new Mode("aot+cds", true, true, false),
+            new Mode("aot+cds+fast-start", true, true, true)
+    );
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path cdsArchive = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Path resultFile = args.length > 3 ? Path.of(args[3]) : Path.of("target/startup-benchmark.json");
+
+        List<String> json = new ArrayList<>();
+        System.out.printf("%-22s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+
+        for (Mode mode : MODES) {
+            if (mode.cds() && !Files.exists(cdsArchive)) {
+                System.out.printf("%-22s skipped (no CDS archive at %s)%n", mode.name(), cdsArchive);
+                continue;
+            }
+
+            start(jar, cdsArchive, mode); // warm the OS page cache, not measured
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = start(jar, cdsArchive, mode);
+            }
+            Arrays.sort(millis);
+
+            long median = millis[runs / 2];
+            System.out.printf("%-22s %10d %10d %10d%n", mode.name(), millis[0], median, millis[runs - 1]);
+            json.add(String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"runs\":%d,\"minMs\":%d,\"medianMs\":%d,\"maxMs\":%d}",
+                    mode.name(), runs, millis[0], median, millis[runs - 1]));
+        }
+
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        Files.writeString(resultFile, "[" + String.join(",", json) + "]\n");
+    }
+
+    private static long start(Path jar, Path cdsArchive, Mode mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.cds()) {
+            command.add("-XX:SharedArchiveFile=" + cdsArchive);
+        }
+        if (mode.aot()) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--ai.anthropic.api-key=startup-benchmark");
+        if (mode.fastStart()) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(2, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException(mode.name() + " did not start within 2 minutes");
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(mode.name() + " exited with " + process.exitValue());
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+}
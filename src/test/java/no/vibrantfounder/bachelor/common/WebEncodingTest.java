@@ -0,0 +1,124 @@
+package no.vibrantfounder.bachelor.common;
+
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Content negotiation against the running server (Tomcat does the gzip, so no MockMvc).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:web_encoding_test;DB_CLOSE_DELAY=-1"
+})
+class WebEncodingTest {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("encoding");
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson("{\"summary\":\"encoding\"}");
+        plan.setGeneratedAt(LocalDateTime.now());
+
+        // Two long rationales push the body past server.compression.min-response-size.
+        for (String name : new String[]{"LINKEDIN", "INSTAGRAM"}) {
+            PlatformPlan platform = new PlatformPlan();
+            platform.setPlatform(name);
+            platform.setFrequencyPerWeek(2);
+            platform.setRationale("Decision makers read long-form posts. ".repeat(40));
+            plan.addPlatform(platform);
+        }
+
+        id = marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+
+    @Test
+    void jsonIsGzippedWhenTheClientAcceptsIt() throws Exception {
+        HttpResponse<byte[]> response = get("application/json", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(industry(new ObjectMapper(), in.readAllBytes())).isEqualTo("encoding");
+        }
+    }
+
+    @Test
+    void smileIsServedWhenAskedFor() throws Exception {
+        HttpResponse<byte[]> response = get("application/x-jackson-smile", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+        assertThat(industry(new SmileMapper(), response.body())).isEqualTo("encoding");
+    }
+
+    @Test
+    void cborIsServedWhenAskedFor() throws Exception {
+        HttpResponse<byte[]> response = get("application/cbor", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(industry(new CBORMapper(), response.body())).isEqualTo("encoding");
+    }
+
+    @Test
+    void wildcardAcceptStaysJson() throws Exception {
+        HttpResponse<byte[]> response = get("*/*", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(industry(new ObjectMapper(), response.body())).isEqualTo("encoding");
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/marketing/plans/" + id))
+                .header("Authorization", AUTHORIZATION)
+                .header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String industry(ObjectMapper mapper, byte[] body) {
+        JsonNode plan = mapper.readTree(body);
+        return plan.get("industry").asString();
+    }
+}
@@ -0,0 +1,59 @@
+package no.vibrantfounder.bachelor.common.jsonpatch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void diffThenApplyReproducesTheTarget() throws Exception {
+        JsonNode source = mapper.readTree(TestFixtures.resource(TestFixtures.VALID_PLAN));
+        ObjectNode target = source.deepCopy();
+        ArrayNode calendar = (ArrayNode) target.get("calendar");
+        calendar.remove(1);
+        calendar.insert(1, mapper.readTree("{\"id\":\"n1\",\"date\":\"2026-01-07\",\"platform\":\"LINKEDIN\"}"));
+        calendar.add(mapper.readTree("{\"id\":\"n2\",\"date\":\"2026-01-09\",\"platform\":\"INSTAGRAM\"}"));
+        target.put("summary", "Refreshed");
+        target.remove("todayTasks");
+        target.put("a/b~c", 1);
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+        assertThat(patch.toString().length()).isLessThan(target.toString().length() / 4);
+        assertThat(patch.findValuesAsText("path")).contains("/summary", "/todayTasks", "/a~1b~0c", "/calendar/3");
+    }
+
+    @Test
+    void equalDocumentsGiveAnEmptyPatch() throws Exception {
+        JsonNode plan = mapper.readTree(TestFixtures.resource(TestFixtures.VALID_PLAN));
+
+        assertThat(JsonPatch.diff(plan, plan.deepCopy())).isEmpty();
+    }
+
+    @Test
+    void applyLeavesTheInputUntouched() throws Exception {
+        JsonNode source = mapper.readTree("{\"list\":[1,2,3]}");
+        JsonNode patch = mapper.readTree("[{\"op\":\"remove\",\"path\":\"/list/0\"},{\"op\":\"add\",\"path\":\"/list/-\",\"value\":4}]");
+
+        assertThat(JsonPatch.apply(source, patch)).isEqualTo(mapper.readTree("{\"list\":[2,3,4]}"));
+        assertThat(source).isEqualTo(mapper.readTree("{\"list\":[1,2,3]}"));
+    }
+
+    @Test
+    void patchThatDoesNotFitIsRejected() throws Exception {
+        JsonNode source = mapper.readTree("{\"list\":[1]}");
+        JsonNode patch = mapper.readTree("[{\"op\":\"replace\",\"path\":\"/list/5\",\"value\":0}]");
+
+        assertThatThrownBy(() -> JsonPatch.apply(source, patch)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package no.vibrantfounder.bachelor.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitBackendTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryRateLimitBackend backend = new InMemoryRateLimitBackend(clock, Duration.ofDays(1));
+
+    @Test
+    void rejectsWhenEmptyAndRefillsOverTime() {
+        BucketSpec spec = new BucketSpec(2, Duration.ofMinutes(2));
+
+        assertThat(backend.tryAcquire("u", spec, 1).allowed()).isTrue();
+        assertThat(backend.tryAcquire("u", spec, 1).allowed()).isTrue();
+
+        RateLimitDecision rejected = backend.tryAcquire("u", spec, 1);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(backend.tryAcquire("u", spec, 1).allowed()).isTrue();
+        assertThat(backend.tryAcquire("other", spec, 1).allowed()).isTrue();
+    }
+
+    @Test
+    void debtBlocksUntilPaidBack() {
+        BucketSpec spec = new BucketSpec(1_000, Duration.ofSeconds(1_000));
+
+        backend.consume("u", spec, 1_500);
+
+        RateLimitDecision rejected = backend.tryAcquire("u", spec, 0);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofSeconds(500));
+
+        clock.advance(Duration.ofSeconds(500));
+        assertThat(backend.tryAcquire("u", spec, 0).allowed()).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
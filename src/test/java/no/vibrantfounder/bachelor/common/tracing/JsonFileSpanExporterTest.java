@@ -0,0 +1,72 @@
+package no.vibrantfounder.bachelor.common.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFileSpanExporterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesOneJsonLinePerFinishedSpan() throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonFileSpanExporter(file, mapper)))
+                .build();
+        Tracer tracer = provider.get("test");
+
+        Span parent = tracer.spanBuilder("plan.generate").startSpan();
+        Span child = tracer.spanBuilder("ai.call")
+                .setParent(Context.current().with(parent))
+                .setAttribute("ai.model", "claude-test")
+                .setAttribute("ai.tokens", 42L)
+                .startSpan();
+        child.end();
+        parent.end();
+        provider.shutdown().join(5, TimeUnit.SECONDS);
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = mapper.readTree(lines.get(0));
+        JsonNode second = mapper.readTree(lines.get(1));
+        assertThat(first.get("name").asText()).isEqualTo("ai.call");
+        assertThat(first.get("attributes").get("ai.model").asText()).isEqualTo("claude-test");
+        assertThat(first.get("attributes").get("ai.tokens").asLong()).isEqualTo(42);
+        assertThat(first.get("parentSpanId").asText()).isEqualTo(second.get("spanId").asText());
+        assertThat(first.get("traceId").asText()).isEqualTo(second.get("traceId").asText()).hasSize(32);
+        assertThat(second.get("name").asText()).isEqualTo("plan.generate");
+        assertThat(second.get("kind").asText()).isEqualTo("INTERNAL");
+    }
+
+    @Test
+    void appendsToAnExistingFile() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        Files.writeString(file, "{\"existing\":true}\n");
+        SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonFileSpanExporter(file, mapper)))
+                .build();
+
+        provider.get("test").spanBuilder("one").startSpan().end();
+        provider.shutdown().join(5, TimeUnit.SECONDS);
+
+        assertThat(Files.readAllLines(file)).hasSize(2).first().isEqualTo("{\"existing\":true}");
+    }
+}
@@ -0,0 +1,216 @@
+package no.vibrantfounder.bachelor.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddable stub of the Anthropic Messages API (POST /v1/messages) for capacity testing.
+ *
+ * Point the app at it with ai.anthropic.base-url=http://localhost:PORT. Every request
+ * waits for a sampled latency, then either fails with 429/529 at the configured rates or
+ * returns a plan body. Templated bodies may use {{uuid}} and {{today+N}} placeholders.
+ * Client connections are counted by remote address, so connection reuse can be checked.
+ *
+ * Standalone:
+ *   java ... AnthropicStubServer --port=8089 --latency=lognormal:20000:0.5 --rate-limit=0.05 --overloaded=0.01 [--body=plan.json]
+ */
+public final class AnthropicStubServer implements AutoCloseable {
+
+    public record Options(
+            int port,
+            LatencyDistribution latency,
+            double rateLimitRate,
+            double overloadedRate,
+            String planTemplate
+    ) {
+        public static Options defaults() {
+            return new Options(
+                    0,
+                    new LatencyDistribution.Fixed(0),
+                    0.0,
+                    0.0,
+                    TestFixtures.resource(TestFixtures.VALID_PLAN)
+            );
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private AnthropicStubServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port()), 512);
+        this.server.createContext("/v1/messages", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static AnthropicStubServer start(Options options) throws IOException {
+        AnthropicStubServer stub = new AnthropicStubServer(options);
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    public long overloaded() {
+        return overloaded.get();
+    }
+
+    /**
+     * Distinct client connections seen so far (HTTP/1.1 keep-alive reuses one for many requests).
+     */
+    public int connections() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            requests.incrementAndGet();
+            connections.add(exchange.getRemoteAddress());
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, error("invalid_request_error", "Only POST is supported"));
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(options.latency().sampleMillis(random));
+
+            double roll = random.nextDouble();
+            if (roll < options.rateLimitRate()) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().set("retry-after", "1");
+                send(exchange, 429, error("rate_limit_error", "Number of requests has exceeded your rate limit"));
+                return;
+            }
+            if (roll < options.rateLimitRate() + options.overloadedRate()) {
+                overloaded.incrementAndGet();
+                send(exchange, 529, error("overloaded_error", "Overloaded"));
+                return;
+            }
+
+            send(exchange, 200, message(render(options.planTemplate())));
+        }
+    }
+
+    private static String render(String template) {
+        String out = template;
+        while (out.contains("{{uuid}}")) {
+            out = out.replaceFirst("\\{\\{uuid}}", UUID.randomUUID().toString());
+        }
+        LocalDate today = LocalDate.now();
+        for (int days = 0; days <= 31 && out.contains("{{today"); days++) {
+            out = out.replace("{{today+" + days + "}}", today.plusDays(days).toString());
+        }
+        return out.replace("{{today}}", today.toString());
+    }
+
+    private static String message(String text) throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", "msg_stub_" + UUID.randomUUID());
+        response.put("type", "message");
+        response.put("role", "assistant");
+        response.put("model", "stub");
+        response.put("content", List.of(Map.of("type", "text", "text", text)));
+        response.put("stop_reason", "end_turn");
+        response.put("usage", Map.of("input_tokens", 1800, "output_tokens", Math.max(1, text.length() / 4)));
+        return MAPPER.writeValueAsString(response);
+    }
+
+    private static String error(String type, String message) throws IOException {
+        return MAPPER.writeValueAsString(Map.of(
+                "type", "error",
+                "error", Map.of("type", type, "message", message)
+        ));
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("content-type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options defaults = Options.defaults();
+        int port = 8089;
+        LatencyDistribution latency = defaults.latency();
+        double rateLimit = defaults.rateLimitRate();
+        double overloadedRate = defaults.overloadedRate();
+        String template = defaults.planTemplate();
+
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "port" -> port = Integer.parseInt(kv[1]);
+                case "latency" -> latency = LatencyDistribution.parse(kv[1]);
+                case "rate-limit" -> rateLimit = Double.parseDouble(kv[1]);
+                case "overloaded" -> overloadedRate = Double.parseDouble(kv[1]);
+                case "body" -> template = Files.readString(Path.of(kv[1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        AnthropicStubServer stub = start(new Options(port, latency, rateLimit, overloadedRate, template));
+        System.out.println("Anthropic stub listening on " + stub.baseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,70 @@
+package no.vibrantfounder.bachelor.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The stub's default body must be a plan the application accepts for PlanLoadScenario's
+ * request, otherwise every load-test request fails and the numbers measure the error path.
+ */
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=stub",
+        "spring.datasource.url=jdbc:h2:mem:anthropic_stub_server_test;DB_CLOSE_DELAY=-1"
+})
+class AnthropicStubServerTest {
+
+    private static final AnthropicStubServer STUB = start();
+
+    @DynamicPropertySource
+    static void stubBaseUrl(DynamicPropertyRegistry registry) {
+        registry.add("ai.anthropic.base-url", STUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    void defaultBodyIsAcceptedForTheLoadScenarioRequest() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        mvc.perform(post("/api/v1/marketing/plan")
+                        .with(user("load"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PlanLoadScenario.PLAN_BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.platformPlans.length()").value(2));
+
+        assertThat(STUB.requests()).isEqualTo(1);
+    }
+
+    private static AnthropicStubServer start() {
+        try {
+            return AnthropicStubServer.start(AnthropicStubServer.Options.defaults());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
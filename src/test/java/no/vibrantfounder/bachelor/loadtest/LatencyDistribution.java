@@ -0,0 +1,47 @@
+package no.vibrantfounder.bachelor.loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated provider latency.
+ *
+ * Spec format (used by the stub server CLI):
+ * - fixed:MS
+ * - uniform:MIN_MS:MAX_MS
+ * - lognormal:MEDIAN_MS:SIGMA   (long tail, closest to real model latency)
+ */
+public sealed interface LatencyDistribution {
+
+    long sampleMillis(RandomGenerator random);
+
+    record Fixed(long millis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return millis;
+        }
+    }
+
+    record Uniform(long minMillis, long maxMillis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return minMillis >= maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1);
+        }
+    }
+
+    record LogNormal(long medianMillis, double sigma) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split(":");
+        return switch (parts[0]) {
+            case "fixed" -> new Fixed(Long.parseLong(parts[1]));
+            case "uniform" -> new Uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            case "lognormal" -> new LogNormal(Long.parseLong(parts[1]), Double.parseDouble(parts[2]));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        };
+    }
+}
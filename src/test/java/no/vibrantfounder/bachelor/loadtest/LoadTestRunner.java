@@ -0,0 +1,79 @@
+package no.vibrantfounder.bachelor.loadtest;
+
+import no.vibrantfounder.bachelor.BachelorApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Starts the Anthropic stub and the application in-process, then runs PlanLoadScenario.
+ *
+ * ./mvnw -Ploadtest verify
+ *     -Dloadtest.latency=lognormal:2000:0.5 -Dloadtest.rateLimit=0.05 -Dloadtest.overloaded=0.01
+ *     -Dloadtest.steps=1,4,16,64 -Dloadtest.stepSeconds=30
+ *
+ * Set -Dloadtest.target=http://host:port to drive an already running instance instead
+ * (that instance must itself point ai.anthropic.base-url at a stub).
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] steps = Arrays.stream(System.getProperty("loadtest.steps", "1,4,16,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration stepDuration = Duration.ofSeconds(Long.getLong("loadtest.stepSeconds", 30));
+        String target = System.getProperty("loadtest.target");
+
+        AnthropicStubServer.Options defaults = AnthropicStubServer.Options.defaults();
+        AnthropicStubServer.Options options = new AnthropicStubServer.Options(
+                0,
+                LatencyDistribution.parse(System.getProperty("loadtest.latency", "lognormal:2000:0.5")),
+                Double.parseDouble(System.getProperty("loadtest.rateLimit", "0.0")),
+                Double.parseDouble(System.getProperty("loadtest.overloaded", "0.0")),
+                defaults.planTemplate()
+        );
+
+        try (AnthropicStubServer stub = AnthropicStubServer.start(options)) {
+            ConfigurableApplicationContext app = null;
+            try {
+                if (target == null) {
+                    app = new SpringApplicationBuilder(BachelorApplication.class)
+                            .properties(
+                                    "server.port=0",
+                                    "ai.anthropic.base-url=" + stub.baseUrl(),
+                                    "ai.anthropic.api-key=stub",
+                                    "logging.level.no.vibrantfounder.bachelor=INFO",
+                                    "tracing.file-export.enabled=false",
+                                    "management.tracing.sampling.probability=0.0",
+                                    // every virtual user shares one login; per-user budgets would cap the ramp
+                                    "marketing.rate-limit.enabled=false"
+                            )
+                            .run();
+                    target = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+                }
+
+                PlanLoadScenario scenario = new PlanLoadScenario(
+                        URI.create(target),
+                        System.getProperty("loadtest.user", "admin"),
+                        System.getProperty("loadtest.password", "admin123")
+                );
+
+                System.out.println("Load test against " + target + " (stub " + stub.baseUrl() + ")");
+                scenario.run(steps, stepDuration).forEach(System.out::println);
+                System.out.printf("Stub: requests=%d rateLimited=%d overloaded=%d%n",
+                        stub.requests(), stub.rateLimited(), stub.overloaded());
+            } finally {
+                if (app != null) {
+                    app.close();
+                }
+            }
+        }
+    }
+}
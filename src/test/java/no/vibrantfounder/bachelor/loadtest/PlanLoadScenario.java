@@ -0,0 +1,197 @@
+package no.vibrantfounder.bachelor.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load scenario for POST /plan and GET /plans with ramping concurrency.
+ *
+ * For each concurrency step, N virtual-thread clients send requests back to back for
+ * the step duration. Each step reports throughput, p50/p99 latency and error rate; any
+ * status outside 2xx counts as an error. Before the ramp, one request per endpoint must
+ * succeed, so a misconfigured target fails the run instead of measuring the error path.
+ */
+public final class PlanLoadScenario {
+
+    public record StepResult(
+            String endpoint,
+            int concurrency,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            long p50Millis,
+            long p99Millis
+    ) {
+        public double errorRate() {
+            return requests == 0 ? 0.0 : (double) errors / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-14s c=%-4d req=%-7d rps=%-8.2f p50=%-7dms p99=%-7dms errors=%.2f%%",
+                    endpoint, concurrency, requests, throughputPerSecond, p50Millis, p99Millis, errorRate() * 100
+            );
+        }
+    }
+
+    static final String PLAN_BODY = """
+            {
+              "industry": "B2B SaaS",
+              "targetAudience": "Small agency owners",
+              "primaryGoal": "LEADS",
+              "secondaryGoals": ["AWARENESS"],
+              "platforms": ["LINKEDIN", "INSTAGRAM"],
+              "resourcesPerWeek": 5,
+              "tone": "Practical",
+              "constraints": ["No paid ads"]
+            }
+            """;
+
+    private final URI baseUrl;
+    private final String authorization;
+    private final HttpClient httpClient;
+
+    public PlanLoadScenario(URI baseUrl, String username, String password) {
+        this.baseUrl = baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public List<StepResult> run(int[] concurrencySteps, Duration stepDuration) throws InterruptedException {
+        expectSuccess("POST /plan", generatePlanRequest());
+        expectSuccess("GET /plans", listPlansRequest());
+
+        List<StepResult> results = new ArrayList<>();
+        for (int concurrency : concurrencySteps) {
+            results.add(runStep("POST /plan", concurrency, stepDuration, this::generatePlanRequest));
+        }
+        for (int concurrency : concurrencySteps) {
+            results.add(runStep("GET /plans", concurrency, stepDuration, this::listPlansRequest));
+        }
+        return results;
+    }
+
+    private void expectSuccess(String endpoint, HttpRequest request) throws InterruptedException {
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(endpoint + " failed before the load test started", e);
+        }
+        if (!isSuccess(response.statusCode())) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode()
+                    + " before the load test started: " + response.body());
+        }
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest generatePlanRequest() {
+        return HttpRequest.newBuilder(baseUrl.resolve("/api/v1/marketing/plan"))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(6))
+                .POST(HttpRequest.BodyPublishers.ofString(PLAN_BODY))
+                .build();
+    }
+
+    private HttpRequest listPlansRequest() {
+        return HttpRequest.newBuilder(baseUrl.resolve("/api/v1/marketing/plans?page=0&size=20&sort=generatedAt,desc"))
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private StepResult runStep(
+            String endpoint,
+            int concurrency,
+            Duration stepDuration,
+            Supplier<HttpRequest> requestFactory
+    ) throws InterruptedException {
+        long deadline = System.nanoTime() + stepDuration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClientLatencies = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                LatencyBuffer buffer = new LatencyBuffer();
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(requestFactory.get(), HttpResponse.BodyHandlers.discarding());
+                            if (!isSuccess(response.statusCode())) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        buffer.add((System.nanoTime() - t0) / 1_000_000);
+                    }
+                    synchronized (perClientLatencies) {
+                        perClientLatencies.add(buffer.toArray());
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long[] all = perClientLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new StepResult(
+                endpoint,
+                concurrency,
+                all.length,
+                errors.get(),
+                all.length / elapsedSeconds,
+                percentile(all, 0.50),
+                percentile(all, 0.99)
+        );
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Growable primitive buffer so recording a latency doesn't box.
+     */
+    private static final class LatencyBuffer {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
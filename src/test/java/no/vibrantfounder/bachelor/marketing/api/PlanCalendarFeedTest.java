@@ -0,0 +1,93 @@
+package no.vibrantfounder.bachelor.marketing.api;
+
+import no.vibrantfounder.bachelor.marketing.api.dto.CalendarTaskDto;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_calendar_feed_test;DB_CLOSE_DELAY=-1"
+})
+class PlanCalendarFeedTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void planFeedHasOneEventPerCalendarTask() throws Exception {
+        Long id = save("alice");
+        List<CalendarTaskDto> calendar = TestFixtures.validPlan().calendar();
+
+        MvcResult started = mvc.perform(get("/api/v1/marketing/plans/{id}/calendar.ics", id).with(user("alice")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String ics = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics.split("BEGIN:VEVENT", -1)).hasSize(calendar.size() + 1);
+        for (CalendarTaskDto task : calendar) {
+            assertThat(ics)
+                    .contains("UID:plan-" + id + "-" + task.id() + "@")
+                    .contains("DTSTART:" + task.date().format(DateTimeFormatter.BASIC_ISO_DATE) + "T" + task.time().replace(":", "") + "00");
+        }
+    }
+
+    @Test
+    void planFeedIsOnlyServedToItsCreatorAndAdmins() throws Exception {
+        Long id = save("alice");
+
+        mvc.perform(get("/api/v1/marketing/plans/{id}/calendar.ics", id).with(user("bob")))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/marketing/plans/{id}/calendar.ics", id).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    private Long save(String createdBy) {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("saas");
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson(TestFixtures.resource(TestFixtures.VALID_PLAN));
+        plan.setGeneratedAt(LocalDateTime.now());
+        plan.setCreatedBy(createdBy);
+
+        PlatformPlan platform = new PlatformPlan();
+        platform.setPlatform("LINKEDIN");
+        platform.setFrequencyPerWeek(2);
+        plan.addPlatform(platform);
+
+        return marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+}
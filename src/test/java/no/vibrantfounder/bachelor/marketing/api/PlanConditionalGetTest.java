@@ -0,0 +1,111 @@
+package no.vibrantfounder.bachelor.marketing.api;
+
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_conditional_get_test;DB_CLOSE_DELAY=-1"
+})
+class PlanConditionalGetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void planIsRevalidatedWithItsEtag() throws Exception {
+        Long id = save("etag");
+        String etag = "W/\"plan-" + id + "-v0\"";
+
+        mvc.perform(get("/api/v1/marketing/plans/{id}", id).with(user("u")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+
+        mvc.perform(get("/api/v1/marketing/plans/{id}", id).with(user("u")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+
+        // If-None-Match uses weak comparison, so the unprefixed form matches too.
+        mvc.perform(get("/api/v1/marketing/plans/{id}", id).with(user("u")).header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void newVersionInvalidatesTheOldEtag() throws Exception {
+        Long id = save("refreshed");
+        String oldEtag = "W/\"plan-" + id + "-v0\"";
+        jdbcTemplate.update("UPDATE marketing_plan SET version = version + 1 WHERE id = ?", id);
+
+        mvc.perform(get("/api/v1/marketing/plans/{id}", id).with(user("u")).header(HttpHeaders.IF_NONE_MATCH, oldEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"plan-" + id + "-v1\""));
+    }
+
+    @Test
+    void listEtagChangesWhenAPlanIsAdded() throws Exception {
+        save("first");
+        String etag = mvc.perform(get("/api/v1/marketing/plans").param("size", "5").with(user("u")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"plans-");
+
+        mvc.perform(get("/api/v1/marketing/plans").param("size", "5").with(user("u")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        save("second");
+
+        mvc.perform(get("/api/v1/marketing/plans").param("size", "5").with(user("u")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private Long save(String industry) {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry(industry);
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson("{\"summary\":\"" + industry + "\"}");
+        plan.setGeneratedAt(LocalDateTime.now());
+
+        PlatformPlan platform = new PlatformPlan();
+        platform.setPlatform("LINKEDIN");
+        platform.setFrequencyPerWeek(2);
+        plan.addPlatform(platform);
+
+        return marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+}
@@ -0,0 +1,75 @@
+package no.vibrantfounder.bachelor.marketing.api;
+
+import no.vibrantfounder.bachelor.marketing.application.PlanGenerationQuota;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refreshing someone else's plan is rejected before any budget is spent
+ * (one request per user, so a spent permit would make the later acquire fail).
+ */
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_refresh_access_test;DB_CLOSE_DELAY=-1",
+        "marketing.rate-limit.requests.capacity=1"
+})
+class PlanRefreshAccessTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private PlanGenerationQuota planGenerationQuota;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void otherUsersPlanIsNotFoundAndCostsNothing() throws Exception {
+        Long id = save("alice");
+
+        mvc.perform(post("/api/v1/marketing/plans/{id}/refresh", id)
+                        .with(user("bob"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scope\":\"CALENDAR\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThatCode(() -> planGenerationQuota.acquire("bob")).doesNotThrowAnyException();
+        assertThat(marketingPlanRepository.findById(id).orElseThrow().getRevision()).isEqualTo(1);
+    }
+
+    private Long save(String createdBy) {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("saas");
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson(TestFixtures.resource(TestFixtures.VALID_PLAN));
+        plan.setGeneratedAt(LocalDateTime.now());
+        plan.setCreatedBy(createdBy);
+        return marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+}
@@ -0,0 +1,192 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.marketing.persistence.IdempotencyKeyRepository;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Idempotency-Key flow end to end, with the AI served from the replay fixtures
+ * (1 s latency, so a second request can arrive while the first is generating).
+ */
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:idempotent_plan_generation_test;DB_CLOSE_DELAY=-1",
+        "ai.anthropic.replay.mode=REPLAY",
+        "ai.anthropic.replay.latency=PT1S",
+        "marketing.idempotency.wait-timeout=PT3S",
+        "marketing.idempotency.poll-interval=PT0.1S"
+})
+class IdempotentPlanGenerationTest {
+
+    private static final String REQUEST = """
+            {"industry":"B2B SaaS","targetAudience":"Small agency owners","primaryGoal":"LEADS",
+             "secondaryGoals":["AWARENESS"],"platforms":["LINKEDIN","INSTAGRAM"],"resourcesPerWeek":5,
+             "tone":"Practical","constraints":["No paid ads"]}
+            """;
+
+    private static final String OTHER_REQUEST = REQUEST.replace("B2B SaaS", "Retail");
+
+    @DynamicPropertySource
+    static void replayDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ai.anthropic.replay.directory", () -> TestFixtures.resourceDirectory(TestFixtures.REPLAY_DIR).toString());
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdempotentPlanGeneration idempotentPlanGeneration;
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void retryReturnsTheStoredResponseWithoutGeneratingAgain() throws Exception {
+        MockHttpServletResponse first = generate("replayer", "key-1", REQUEST);
+        MockHttpServletResponse retry = generate("replayer", "key-1", REQUEST);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(plansBy("replayer")).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsRejected() throws Exception {
+        generate("conflicter", "key-1", REQUEST);
+
+        MockHttpServletResponse conflict = generate("conflicter", "key-1", OTHER_REQUEST);
+
+        assertThat(conflict.getStatus()).isEqualTo(409);
+        assertThat(conflict.getContentAsString()).contains("IDEMPOTENCY_CONFLICT");
+        assertThat(conflict.getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+        assertThat(plansBy("conflicter")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheRunningGeneration() throws Exception {
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> generateUnchecked("waiter", "key-1"));
+        Thread.sleep(300);
+
+        MockHttpServletResponse duplicate = generate("waiter", "key-1", REQUEST);
+
+        assertThat(duplicate.getStatus()).isEqualTo(200);
+        assertThat(duplicate.getContentAsString()).isEqualTo(first.get(10, TimeUnit.SECONDS).getContentAsString());
+        assertThat(plansBy("waiter")).isEqualTo(1);
+    }
+
+    @Test
+    void waitIsCappedWith409AndRetryAfter() throws Exception {
+        generate("stuck", "key-1", REQUEST);
+        // Looks like another node is still generating for this key.
+        jdbcTemplate.update("UPDATE idempotency_key SET status = 'IN_PROGRESS', updated_at = CURRENT_TIMESTAMP WHERE principal = 'stuck'");
+
+        long start = System.nanoTime();
+        MockHttpServletResponse busy = generate("stuck", "key-1", REQUEST);
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(busy.getStatus()).isEqualTo(409);
+        assertThat(busy.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(waitedMillis).isBetween(3_000L, 8_000L);
+    }
+
+    @Test
+    void retryOfAPlanWithoutStoredResponseLoadsThePlan() throws Exception {
+        MockHttpServletResponse first = generate("unserialized", "key-1", REQUEST);
+        // As if the response could not be serialized: only the plan id was recorded.
+        jdbcTemplate.update("UPDATE idempotency_key SET response_json = NULL WHERE principal = 'unserialized'");
+
+        MockHttpServletResponse retry = generate("unserialized", "key-1", REQUEST);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getContentAsString()).contains("\"summary\":\"Focus on LinkedIn thought leadership");
+        assertThat(plansBy("unserialized")).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatKeepsARunningGenerationFromLookingAbandoned() throws Exception {
+        CompletableFuture<MockHttpServletResponse> running = CompletableFuture.supplyAsync(() -> generateUnchecked("slow", "key-1"));
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_key WHERE principal = 'slow'", Integer.class) == 0) {
+            Thread.sleep(50);
+        }
+        jdbcTemplate.update("UPDATE idempotency_key SET updated_at = ? WHERE principal = 'slow'",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+
+        idempotentPlanGeneration.heartbeat();
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(repository.reclaim("slow", "key-1", hashOf("slow"), "other", now, now.plusDays(1), now.minusMinutes(10))).isFalse();
+        assertThat(running.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(plansBy("slow")).isEqualTo(1);
+    }
+
+    @Test
+    void onlyTheCurrentOwnerCanCompleteAKey() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(repository.tryInsert("owners", "key-1", "hash", "first", now.minusHours(1), now.plusDays(1))).isTrue();
+        assertThat(repository.reclaim("owners", "key-1", "hash", "second", now, now.plusDays(1), now.minusMinutes(10))).isTrue();
+
+        assertThat(repository.complete("owners", "key-1", "first", 1L, "{}", now)).isFalse();
+        assertThat(repository.complete("owners", "key-1", "second", 2L, "{}", now)).isTrue();
+        assertThat(repository.find("owners", "key-1").orElseThrow().planId()).isEqualTo(2L);
+    }
+
+    private MockHttpServletResponse generate(String user, String key, String body) throws Exception {
+        return mvc.perform(post("/api/v1/marketing/plan")
+                        .with(user(user))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn()
+                .getResponse();
+    }
+
+    private MockHttpServletResponse generateUnchecked(String user, String key) {
+        try {
+            return generate(user, key, REQUEST);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hashOf(String user) {
+        return jdbcTemplate.queryForObject("SELECT request_hash FROM idempotency_key WHERE principal = ?", String.class, user);
+    }
+
+    private int plansBy(String user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM marketing_plan WHERE created_by = ?", Integer.class, user);
+    }
+}
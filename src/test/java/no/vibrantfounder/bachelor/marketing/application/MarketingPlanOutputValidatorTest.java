@@ -0,0 +1,47 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.ai.orchestration.contract.OutputContractException;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MarketingPlanOutputValidatorTest {
+
+    private final MarketingPlanOutputValidator validator = new MarketingPlanOutputValidator();
+
+    @Test
+    void validPlanPasses() {
+        validator.validate(TestFixtures.validPlan());
+
+        assertThat(MarketingPlanOutputValidator.MARKETING_PLAN.check(TestFixtures.validPlan())).isEmpty();
+    }
+
+    @Test
+    void invalidPlanReportsAllViolationsWithPaths() {
+        List<String> violations = MarketingPlanOutputValidator.MARKETING_PLAN.check(TestFixtures.invalidPlan());
+
+        assertThat(violations).containsExactly(
+                "summary must not be blank",
+                "measurement.kpis must have between 3 and 6 items",
+                "platformPlans[0].frequencyPerWeek must be between 1 and 14",
+                "platformPlans[0].hooks[2] must not be blank"
+        );
+    }
+
+    @Test
+    void invalidPlanThrowsContractException() {
+        assertThatThrownBy(() -> validator.validate(TestFixtures.invalidPlan()))
+                .isInstanceOf(OutputContractException.class)
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void otherTypesPassThrough() {
+        validator.validate("not a plan");
+        validator.validate(null);
+    }
+}
@@ -0,0 +1,90 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.marketing.api.dto.GeneratePlanRequest;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A generation must not hold a pooled connection while it waits for the AI, and must never need two at once.
+ * The pool has two connections (Flyway needs both at startup) and the replayed AI call takes 2 s.
+ * The JDBC rate-limit backend runs in its own transaction, so a quota step inside the plan transaction would need a second one.
+ */
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_generation_connection_test;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "ai.anthropic.replay.mode=REPLAY",
+        "ai.anthropic.replay.latency=PT2S",
+        "marketing.rate-limit.backend=jdbc"
+})
+class PlanGenerationConnectionTest {
+
+    private static final String REQUEST = """
+            {"industry":"B2B SaaS","targetAudience":"Small agency owners","primaryGoal":"LEADS",
+             "secondaryGoals":["AWARENESS"],"platforms":["LINKEDIN","INSTAGRAM"],"resourcesPerWeek":5,
+             "tone":"Practical","constraints":["No paid ads"]}
+            """;
+
+    @DynamicPropertySource
+    static void replayDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ai.anthropic.replay.directory", () -> TestFixtures.resourceDirectory(TestFixtures.REPLAY_DIR).toString());
+    }
+
+    @Autowired
+    private MarketingPlanService marketingPlanService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void thePoolStaysFreeDuringTheAiCall() throws Exception {
+        GeneratePlanRequest request = objectMapper.readValue(REQUEST, GeneratePlanRequest.class);
+        Integer before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM marketing_plan", Integer.class);
+
+        CompletableFuture<GeneratedPlan> generation = CompletableFuture.supplyAsync(() -> marketingPlanService.generateAndStore(request));
+        Thread.sleep(500);
+
+        assertThat(generation).isNotDone();
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(first.isValid(1)).isTrue();
+            assertThat(second.isValid(1)).isTrue();
+        }
+
+        GeneratedPlan plan = generation.get(10, TimeUnit.SECONDS);
+        assertThat(plan.planId()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM marketing_plan", Integer.class)).isEqualTo(before + 1);
+    }
+
+    @Test
+    void aGenerationGetsByOnOneConnection() throws Exception {
+        GeneratePlanRequest request = objectMapper.readValue(REQUEST, GeneratePlanRequest.class);
+
+        try (Connection held = dataSource.getConnection()) {
+            GeneratedPlan plan = CompletableFuture.supplyAsync(() -> marketingPlanService.generateAndStore(request))
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(plan.planId()).isNotNull();
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rate_limit_bucket WHERE bucket_key LIKE 'plan:%'", Integer.class)).isPositive();
+    }
+}
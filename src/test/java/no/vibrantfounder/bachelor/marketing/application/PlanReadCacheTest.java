@@ -0,0 +1,138 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.common.CacheConfig;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanReadResponse;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_read_cache_test;DB_CLOSE_DELAY=-1"
+})
+class PlanReadCacheTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MarketingPlanService service;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MockMvc mvc;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        cache = cacheManager.getCache(CacheConfig.PLAN_CACHE);
+        cache.clear();
+    }
+
+    @Test
+    void secondReadIsServedFromTheCache() {
+        Long id = save("cached");
+
+        MarketingPlanReadResponse first = service.getPlan(id, 0);
+        // Removed behind the service's back: only a cache hit can still answer.
+        jdbcTemplate.update("DELETE FROM platform_plan WHERE marketing_plan_id = ?", id);
+        jdbcTemplate.update("DELETE FROM marketing_plan WHERE id = ?", id);
+
+        assertThat(service.getPlan(id, 0)).isSameAs(first);
+        assertThat(cache.get(CacheConfig.planKey(id, 0), MarketingPlanReadResponse.class)).isSameAs(first);
+    }
+
+    @Test
+    void olderVersionThanRequestedIsNotCached() {
+        Long id = save("lagging");
+
+        // As if the version came from the primary and the body from a replica that is one refresh behind.
+        MarketingPlanReadResponse stale = service.getPlan(id, 1);
+
+        assertThat(stale.version()).isZero();
+        assertThat(cache.get(CacheConfig.planKey(id, 1))).isNull();
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForTheCommit() {
+        Long id = save("committed");
+        service.getPlan(id, 0);
+        String key = CacheConfig.planKey(id, 0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.evict(key);
+            assertThat(cache.get(key)).isNotNull();
+        });
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    void deleteEvictsTheCachedPlan() throws Exception {
+        Long id = save("deleted");
+        service.getPlan(id, 0);
+        assertThat(cache.get(CacheConfig.planKey(id, 0))).isNotNull();
+
+        mvc.perform(delete("/api/v1/marketing/plans/{id}", id).with(user("ops").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        assertThat(cache.get(CacheConfig.planKey(id, 0))).isNull();
+        assertThatThrownBy(() -> service.getPlan(id, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void onlyAdminsMayDelete() throws Exception {
+        Long id = save("kept");
+
+        mvc.perform(delete("/api/v1/marketing/plans/{id}", id).with(user("someone").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        assertThat(marketingPlanRepository.existsById(id)).isTrue();
+    }
+
+    private Long save(String industry) {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry(industry);
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson("{\"summary\":\"" + industry + "\"}");
+        plan.setGeneratedAt(LocalDateTime.now());
+
+        PlatformPlan platform = new PlatformPlan();
+        platform.setPlatform("LINKEDIN");
+        platform.setFrequencyPerWeek(2);
+        plan.addPlatform(platform);
+
+        return marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+}
@@ -0,0 +1,129 @@
+package no.vibrantfounder.bachelor.marketing.application;
+
+import no.vibrantfounder.bachelor.ai.orchestration.AiException;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import no.vibrantfounder.bachelor.marketing.api.dto.CalendarTaskDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlanRefreshResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlatformPlanDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.RefreshPlanRequest;
+import no.vibrantfounder.bachelor.marketing.domain.enums.Platform;
+import no.vibrantfounder.bachelor.marketing.domain.enums.RefreshScope;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlanRefreshSlicesTest {
+
+    private static final LocalDate FROM = LocalDate.parse("2026-01-06");
+    private static final LocalDate TO = LocalDate.parse("2026-01-08");
+
+    private final MarketingPlanResponse plan = TestFixtures.validPlan();
+
+    @Test
+    void calendarSliceOnlyCarriesTheRangeAndAPlatformOutline() throws Exception {
+        PlanRefreshSlices.Refresh refresh = calendarRefresh();
+
+        Map<String, Object> slice = PlanRefreshSlices.slice(plan, refresh);
+
+        assertThat(slice).containsOnlyKeys("platformPlans", "calendar");
+        assertThat((List<?>) slice.get("calendar")).extracting("id").containsExactly("c2", "c3");
+
+        int sliceSize = TestFixtures.objectMapper().writeValueAsString(slice).length();
+        int planSize = TestFixtures.objectMapper().writeValueAsString(plan).length();
+        assertThat(sliceSize).isLessThan(planSize / 3);
+    }
+
+    @Test
+    void calendarMergeReplacesTheRangeAndKeepsTheRest() {
+        PlanRefreshSlices.Refresh refresh = calendarRefresh();
+        PlanRefreshResponse output = new PlanRefreshResponse(List.of(
+                task("n2", "2026-01-08"),
+                task("n1", "2026-01-07"),
+                task("outside", "2026-02-01")
+        ), null, null);
+
+        MarketingPlanResponse merged = PlanRefreshSlices.merge(plan, refresh, output, 5, "2026-01-05T12:00:00Z");
+
+        assertThat(merged.calendar()).extracting(CalendarTaskDto::id).containsExactly("c1", "n1", "n2");
+        assertThat(merged.platformPlans()).isEqualTo(plan.platformPlans());
+        assertThat(merged.generatedAt()).isEqualTo("2026-01-05T12:00:00Z");
+        assertThat(merged.todayTasks()).isNull();
+    }
+
+    @Test
+    void calendarMergeWithoutEntriesInRangeIsBadOutput() {
+        PlanRefreshResponse output = new PlanRefreshResponse(List.of(task("x", "2026-03-01")), null, null);
+
+        assertThatThrownBy(() -> PlanRefreshSlices.merge(plan, calendarRefresh(), output, 5, "now"))
+                .isInstanceOf(AiException.class);
+    }
+
+    @Test
+    void nullEntriesInTheAiOutputAreDropped() {
+        PlanRefreshResponse calendarOutput = new PlanRefreshResponse(Arrays.asList(null, task("n1", "2026-01-07")), null, null);
+        PlatformPlanDto current = plan.platformPlans().get(0);
+        PlanRefreshSlices.Refresh platformRefresh = PlanRefreshSlices.resolve(
+                new RefreshPlanRequest(RefreshScope.PLATFORM, null, null, current.platform(), null), plan, 5, FROM);
+        PlanRefreshResponse platformOutput = new PlanRefreshResponse(null, Arrays.asList(null, current), null);
+
+        assertThat(PlanRefreshSlices.merge(plan, calendarRefresh(), calendarOutput, 5, "now").calendar())
+                .extracting(CalendarTaskDto::id).containsExactly("c1", "n1");
+        assertThat(PlanRefreshSlices.merge(plan, platformRefresh, platformOutput, 5, "now").platformPlans())
+                .isEqualTo(plan.platformPlans());
+    }
+
+    @Test
+    void platformScopeRequiresAPlatformThePlanHas() {
+        RefreshPlanRequest missing = new RefreshPlanRequest(RefreshScope.PLATFORM, null, null, null, null);
+        RefreshPlanRequest unknown = new RefreshPlanRequest(RefreshScope.PLATFORM, null, null, Platform.TIKTOK, null);
+
+        assertThatThrownBy(() -> PlanRefreshSlices.resolve(missing, plan, 5, FROM))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PlanRefreshSlices.resolve(unknown, plan, 5, FROM))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void platformMergeOverTheWeeklyBudgetIsBadOutput() {
+        PlatformPlanDto current = plan.platformPlans().get(0);
+        PlanRefreshSlices.Refresh refresh = PlanRefreshSlices.resolve(
+                new RefreshPlanRequest(RefreshScope.PLATFORM, null, null, current.platform(), null), plan, 5, FROM);
+        PlatformPlanDto fresh = new PlatformPlanDto(current.platform(), current.rationale(), 9,
+                current.formats(), current.contentPillars(), current.hooks(), current.ctaExamples());
+        PlanRefreshResponse output = new PlanRefreshResponse(null, List.of(fresh), null);
+
+        assertThatThrownBy(() -> PlanRefreshSlices.merge(plan, refresh, output, 5, "now"))
+                .isInstanceOf(AiException.class)
+                .extracting(e -> ((AiException) e).getType())
+                .isEqualTo(AiException.Type.BAD_OUTPUT);
+    }
+
+    @Test
+    void calendarRangeDefaultsToAWeekAndIsCapped() {
+        RefreshPlanRequest defaults = new RefreshPlanRequest(RefreshScope.CALENDAR, null, null, null, null);
+        RefreshPlanRequest tooLong = new RefreshPlanRequest(RefreshScope.CALENDAR, FROM, FROM.plusDays(60), null, null);
+
+        PlanRefreshSlices.Refresh refresh = PlanRefreshSlices.resolve(defaults, plan, 5, FROM);
+
+        assertThat(refresh.from()).isEqualTo(FROM);
+        assertThat(refresh.to()).isEqualTo(FROM.plusDays(6));
+        assertThat(refresh.maxItems()).isEqualTo(5);
+        assertThatThrownBy(() -> PlanRefreshSlices.resolve(tooLong, plan, 5, FROM))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PlanRefreshSlices.Refresh calendarRefresh() {
+        return PlanRefreshSlices.resolve(new RefreshPlanRequest(RefreshScope.CALENDAR, FROM, TO, null, null), plan, 5, FROM);
+    }
+
+    private static CalendarTaskDto task(String id, String date) {
+        return new CalendarTaskDto(id, LocalDate.parse(date), "09:00", "LINKEDIN", "LinkedIn Post", "POST", "HIGH", List.of("Draft"), null);
+    }
+}
@@ -0,0 +1,110 @@
+package no.vibrantfounder.bachelor.marketing.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import no.vibrantfounder.bachelor.marketing.persistence.PlatformPlan;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:archive_test;DB_CLOSE_DELAY=-1",
+        "marketing.archive.enabled=true",
+        "marketing.archive.retention=P30D",
+        "marketing.archive.initial-delay=PT24H"
+})
+class PlanArchiveJobTest {
+
+    @Autowired
+    private PlanArchiveJob job;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlanArchiveRepository repository;
+
+    @Test
+    void movesOnlyPlansOlderThanRetentionIntoCompressedArchive() throws IOException {
+        Long oldId = save("old", LocalDateTime.now().minusDays(90));
+        Long recentId = save("recent", LocalDateTime.now().minusDays(1));
+        jdbcTemplate.update("""
+                INSERT INTO marketing_plan_revision (plan_id, revision, scope, patch_json, snapshot_json, created_at)
+                VALUES (?, 2, 'CALENDAR', '[{"op":"replace","path":"/summary","value":"new"}]', NULL, ?)
+                """, oldId, LocalDateTime.now().minusDays(60));
+
+        int archived = job.archiveBatch(LocalDateTime.now().minusDays(30));
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(marketingPlanRepository.existsById(oldId)).isFalse();
+        assertThat(marketingPlanRepository.existsById(recentId)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM platform_plan WHERE marketing_plan_id = ?", Long.class, oldId)).isZero();
+
+        byte[] payload = jdbcTemplate.queryForObject(
+                "SELECT payload FROM marketing_plan_archive WHERE id = ?", byte[].class, oldId);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            ArchivedPlan restored = objectMapper.readValue(in.readAllBytes(), ArchivedPlan.class);
+            assertThat(restored.industry()).isEqualTo("old");
+            assertThat(restored.createdBy()).isEqualTo("owner");
+            assertThat(restored.rawJson()).isEqualTo("{\"summary\":\"old\"}");
+            assertThat(restored.platforms()).extracting(ArchivedPlan.Platform::platform).containsExactly("LINKEDIN");
+            assertThat(restored.revisions()).singleElement().satisfies(r -> {
+                assertThat(r.revision()).isEqualTo(2);
+                assertThat(r.scope()).isEqualTo("CALENDAR");
+                assertThat(r.patchJson()).contains("/summary");
+            });
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM marketing_plan_revision WHERE plan_id = ?", Long.class, oldId)).isZero();
+    }
+
+    @Test
+    void planChangedAfterItWasLoadedIsNotDeleted() {
+        Long changedId = save("changed", LocalDateTime.now().minusDays(90));
+        Long unchangedId = save("unchanged", LocalDateTime.now().minusDays(90));
+        List<ArchivedPlan> loaded = repository.loadPlans(List.of(changedId, unchangedId));
+
+        // A refresh commits between the batch's load and its delete.
+        jdbcTemplate.update("UPDATE marketing_plan SET version = version + 1 WHERE id = ?", changedId);
+
+        assertThat(repository.deleteUnchanged(loaded)).extracting(ArchivedPlan::id).containsExactly(unchangedId);
+        assertThat(marketingPlanRepository.existsById(changedId)).isTrue();
+        assertThat(marketingPlanRepository.existsById(unchangedId)).isFalse();
+
+        marketingPlanRepository.deleteById(changedId);
+    }
+
+    private Long save(String industry, LocalDateTime generatedAt) {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry(industry);
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson("{\"summary\":\"" + industry + "\"}");
+        plan.setGeneratedAt(generatedAt);
+        plan.setCreatedBy("owner");
+
+        PlatformPlan platform = new PlatformPlan();
+        platform.setPlatform("LINKEDIN");
+        platform.setFrequencyPerWeek(2);
+        plan.addPlatform(platform);
+
+        return marketingPlanRepository.saveAndFlush(plan).getId();
+    }
+}
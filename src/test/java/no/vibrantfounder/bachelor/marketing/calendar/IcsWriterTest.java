@@ -0,0 +1,48 @@
+package no.vibrantfounder.bachelor.marketing.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IcsWriterTest {
+
+    @Test
+    void textIsEscapedAndLinesEndWithCrlf() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IcsWriter ics = new IcsWriter(out);
+
+        ics.text("SUMMARY", "Post; then reply, fast\\now\r\nline two");
+        ics.text("DESCRIPTION", " ");
+        ics.textList("CATEGORIES", Arrays.asList("LINKEDIN", null, "POST, LONG"));
+        ics.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "SUMMARY:Post\\; then reply\\, fast\\\\now\\nline two\r\n"
+                        + "CATEGORIES:LINKEDIN,POST\\, LONG\r\n");
+    }
+
+    @Test
+    void longLinesAreFoldedAt75OctetsWithoutSplittingCharacters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IcsWriter ics = new IcsWriter(out);
+
+        String value = "æøå".repeat(60);
+        ics.text("DESCRIPTION", value);
+        ics.flush();
+
+        byte[] bytes = out.toByteArray();
+        String written = new String(bytes, StandardCharsets.UTF_8);
+        List<String> lines = Arrays.asList(written.split("\r\n"));
+
+        assertThat(written).doesNotContain("�");
+        assertThat(lines).hasSizeGreaterThan(1);
+        assertThat(lines.subList(1, lines.size())).allMatch(l -> l.startsWith(" "));
+        assertThat(lines).allMatch(l -> l.getBytes(StandardCharsets.UTF_8).length <= 75);
+        assertThat(written.replace("\r\n ", "")).isEqualTo("DESCRIPTION:" + value + "\r\n");
+    }
+}
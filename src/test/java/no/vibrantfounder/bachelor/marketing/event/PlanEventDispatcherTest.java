@@ -0,0 +1,218 @@
+package no.vibrantfounder.bachelor.marketing.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:plan_events_test;DB_CLOSE_DELAY=-1",
+        "marketing.webhooks.enabled=true",
+        "marketing.webhooks.secret=test-secret",
+        "marketing.webhooks.max-attempts=2",
+        "marketing.webhooks.initial-delay=PT24H"
+})
+class PlanEventDispatcherTest {
+
+    private static final String SECRET = "test-secret";
+
+    private static final HttpServer RECEIVER = startReceiver();
+    private static final List<Received> RECEIVED = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger STATUS = new AtomicInteger(204);
+
+    record Received(String id, String signature, byte[] body) {
+    }
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("marketing.webhooks.url",
+                () -> "http://127.0.0.1:" + RECEIVER.getAddress().getPort() + "/hooks/plans");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        RECEIVER.stop(0);
+    }
+
+    @Autowired
+    private PlanEventDispatcher dispatcher;
+
+    @Autowired
+    private PlanEventPublisher publisher;
+
+    @Autowired
+    private PlanEventRepository repository;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM plan_events");
+        RECEIVED.clear();
+        STATUS.set(204);
+    }
+
+    @Test
+    void committedPlansAreDeliveredAsOneSignedBatch() throws Exception {
+        long first = saveAndPublish();
+        long second = saveAndPublish();
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+
+        assertThat(RECEIVED).hasSize(1);
+        Received request = RECEIVED.get(0);
+        long timestamp = Long.parseLong(request.signature().substring(2, request.signature().indexOf(',')));
+        assertThat(request.signature()).endsWith(",v1=" + WebhookSignature.sign(SECRET, timestamp, request.body()));
+
+        JsonNode body = objectMapper.readTree(request.body());
+        assertThat(body.path("deliveryId").asText()).isEqualTo(request.id());
+        assertThat(body.path("events")).hasSize(2);
+        assertThat(body.path("events")).extracting(e -> e.path("type").asText()).containsOnly(PlanEvent.PLAN_COMPLETED);
+        assertThat(body.path("events")).extracting(e -> e.path("data").path("planId").asLong()).containsExactlyInAnyOrder(first, second);
+
+        assertThat(statuses()).containsOnly("DELIVERED");
+        assertThat(dispatcher.dispatchBatch()).isZero();
+    }
+
+    @Test
+    void eventsOnlyExistForCommittedPlans() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            publisher.planCompleted(savePlan());
+            status.setRollbackOnly();
+        });
+
+        assertThat(statuses()).isEmpty();
+        assertThatThrownBy(() -> publisher.planCompleted(savePlan()))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void failedDeliveriesBackOffAndGiveUpAfterMaxAttempts() {
+        saveAndPublish();
+        STATUS.set(500);
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+        assertThat(statuses()).containsExactly("PENDING");
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM plan_events", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM plan_events", String.class)).contains("500");
+        // Backing off: not due again yet.
+        assertThat(dispatcher.dispatchBatch()).isZero();
+
+        jdbcTemplate.update("UPDATE plan_events SET next_attempt_at = ?", LocalDateTime.now().minusSeconds(1));
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+        assertThat(statuses()).containsExactly("FAILED");
+        assertThat(RECEIVED).hasSize(2);
+    }
+
+    @Test
+    void concurrentClaimsSkipLockedRowsInsteadOfWaiting() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            saveAndPublish();
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<PlanEvent>> slow = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            List<PlanEvent> batch = repository.claimDue(LocalDateTime.now(), LocalDateTime.now().plusMinutes(1), 2);
+            claimed.countDown();
+            await(release);
+            return batch;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<PlanEvent> fast = tx.execute(status ->
+                repository.claimDue(LocalDateTime.now(), LocalDateTime.now().plusMinutes(1), 4));
+        release.countDown();
+
+        assertThat(fast).hasSize(2);
+        assertThat(fast).extracting(PlanEvent::id).doesNotContainAnyElementsOf(
+                slow.get(10, TimeUnit.SECONDS).stream().map(PlanEvent::id).toList());
+    }
+
+    private long saveAndPublish() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            MarketingPlan plan = savePlan();
+            publisher.planCompleted(plan);
+            return plan.getId();
+        });
+    }
+
+    private MarketingPlan savePlan() {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("saas");
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson("{}");
+        plan.setGeneratedAt(LocalDateTime.now());
+        return marketingPlanRepository.saveAndFlush(plan);
+    }
+
+    private List<String> statuses() {
+        return jdbcTemplate.queryForList("SELECT status FROM plan_events ORDER BY id", String.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/hooks/plans", exchange -> {
+                RECEIVED.add(new Received(
+                        exchange.getRequestHeaders().getFirst(WebhookSignature.ID_HEADER),
+                        exchange.getRequestHeaders().getFirst(WebhookSignature.HEADER),
+                        exchange.getRequestBody().readAllBytes()
+                ));
+                exchange.sendResponseHeaders(STATUS.get(), -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
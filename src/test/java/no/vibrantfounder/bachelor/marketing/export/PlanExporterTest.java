@@ -0,0 +1,129 @@
+package no.vibrantfounder.bachelor.marketing.export;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        // Embedded H2 buffers whole results unless queries run lazily; PostgreSQL streams through the cursor.
+        "spring.datasource.url=jdbc:h2:mem:export_test;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE",
+        "marketing.export.fetch-size=500"
+})
+class PlanExporterTest {
+
+    private static final int PLANS = 1_000_000;
+    private static final int INSERT_BATCH = 50_000;
+    private static final int SAMPLE_EVERY = 100_000;
+
+    // A million exported plans are ~230 MB of NDJSON; holding them (or their rows) would blow far past this.
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private PlanExporter planExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsAMillionPlansWithoutGrowingTheHeap() throws Exception {
+        insertPlans();
+        long plans = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM marketing_plan", Long.class);
+        long baseline = usedHeapAfterGc();
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+        long written = planExporter.export(PlanExportFormat.NDJSON, null, null, out);
+
+        assertThat(plans).isGreaterThanOrEqualTo(PLANS);
+        assertThat(written).isEqualTo(plans);
+        assertThat(out.lines).isEqualTo(plans);
+        assertThat(out.samples).isEqualTo((int) (plans / SAMPLE_EVERY));
+        assertThat(out.peakHeap - baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    @Test
+    void csvIsQuotedAndFilteredLikeTheListEndpoint() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO marketing_plan (industry, target_audience, primary_goal, resources_per_week, generated_at)
+                VALUES ('=Kafe, "Oslo"', 'Studenter', 'GROWTH', 3, TIMESTAMP '2026-03-02 09:00:00')
+                """);
+        long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM marketing_plan", Long.class);
+        jdbcTemplate.update("INSERT INTO platform_plan (platform, frequency_per_week, marketing_plan_id) VALUES ('LINKEDIN', 2, ?)", id);
+        jdbcTemplate.update("INSERT INTO platform_plan (platform, frequency_per_week, marketing_plan_id) VALUES ('INSTAGRAM', 1, ?)", id);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = planExporter.export(PlanExportFormat.CSV, "kafe, \"OSLO", "growth", out);
+
+        assertThat(written).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,industry,target_audience,primary_goal,resources_per_week,generated_at,revision,platforms\r\n"
+                        + id + ",\"'=Kafe, \"\"Oslo\"\"\",Studenter,GROWTH,3,2026-03-02T09:00:00,1,LINKEDIN:2;INSTAGRAM:1\r\n");
+    }
+
+    private void insertPlans() {
+        long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM marketing_plan", Long.class);
+        // Batches keep H2's undo log small; one INSERT ... SELECT of a million rows is several times slower.
+        for (int from = 1; from <= PLANS; from += INSERT_BATCH) {
+            int to = Math.min(PLANS, from + INSERT_BATCH - 1);
+            jdbcTemplate.update("""
+                    INSERT INTO marketing_plan (industry, target_audience, primary_goal, resources_per_week, generated_at)
+                    SELECT 'Industry ' || MOD(X, 50), 'Audience', CASE WHEN MOD(X, 2) = 0 THEN 'GROWTH' ELSE 'LEADS' END,
+                           3, TIMESTAMP '2026-01-01 10:00:00'
+                    FROM SYSTEM_RANGE(?, ?)
+                    """, from, to);
+        }
+        long firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM marketing_plan WHERE id > ?", Long.class, lastId);
+        for (int from = 0; from < PLANS; from += INSERT_BATCH) {
+            jdbcTemplate.update("""
+                    INSERT INTO platform_plan (platform, frequency_per_week, marketing_plan_id)
+                    SELECT 'LINKEDIN', 2, X FROM SYSTEM_RANGE(?, ?)
+                    """, firstId + from, firstId + Math.min(PLANS, from + INSERT_BATCH) - 1);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Discards the export, counting lines and sampling the used heap (after a GC) every SAMPLE_EVERY lines.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        long lines;
+        int samples;
+        long peakHeap;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                line();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    line();
+                }
+            }
+        }
+
+        private void line() {
+            if (++lines % SAMPLE_EVERY == 0) {
+                samples++;
+                peakHeap = Math.max(peakHeap, usedHeapAfterGc());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package no.vibrantfounder.bachelor.marketing.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.marketing.domain.MarketingPlan;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryPlanStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void evictedPlansSpillToMappedTierAndArePromotedOnRead() {
+        MarketingPlan plan = plan("x".repeat(1_000));
+        long onePlan = InMemoryPlanStore.estimateBytes(plan);
+
+        try (InMemoryPlanStore store = new InMemoryPlanStore(objectMapper, onePlan * 3, tempDir.resolve("spill.bin"), 1024 * 1024)) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                ids.add(store.save(plan));
+            }
+
+            assertThat(store.stats().spills()).isGreaterThan(0);
+            for (Long id : ids) {
+                assertThat(store.findById(id)).contains(plan);
+            }
+            assertThat(store.stats().coldHits()).isGreaterThan(0);
+            assertThat(store.stats().misses()).isZero();
+        }
+    }
+
+    @Test
+    void withoutSpillEvictedPlansAreDropped() {
+        MarketingPlan plan = plan("x".repeat(1_000));
+        long onePlan = InMemoryPlanStore.estimateBytes(plan);
+
+        try (InMemoryPlanStore store = new InMemoryPlanStore(objectMapper, onePlan * 2, null, 0)) {
+            for (int i = 0; i < 10; i++) {
+                store.save(plan);
+            }
+
+            assertThat(store.stats().hotWeightBytes()).isLessThanOrEqualTo(onePlan * 2);
+            assertThat(store.stats().dropped()).isGreaterThan(0);
+        }
+    }
+
+    @Test
+    void mappedTierOverwritesOldestEntriesWhenRingWraps() {
+        try (MappedPlanTier tier = new MappedPlanTier(tempDir.resolve("ring.bin"), 100)) {
+            tier.put(1L, new byte[40]);
+            tier.put(2L, new byte[40]);
+            tier.put(3L, new byte[40]); // wraps, overwrites 1
+
+            assertThat(tier.get(1L)).isNull();
+            assertThat(tier.get(2L)).hasSize(40);
+            assertThat(tier.get(3L)).hasSize(40);
+
+            tier.put(4L, new byte[40]); // overwrites 2 at offset 40
+
+            assertThat(tier.get(2L)).isNull();
+            assertThat(tier.get(3L)).hasSize(40);
+            assertThat(tier.get(4L)).hasSize(40);
+            assertThat(tier.entries()).isEqualTo(2);
+        }
+    }
+
+    private static MarketingPlan plan(String summary) {
+        return new MarketingPlan(summary, List.of(), null, List.of(), null, "2026-01-01");
+    }
+}
@@ -0,0 +1,124 @@
+package no.vibrantfounder.bachelor.marketing.persistence;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import no.vibrantfounder.bachelor.ai.observability.AiCallRecord;
+import no.vibrantfounder.bachelor.ai.observability.AiProviderCall;
+import no.vibrantfounder.bachelor.ai.prompting.PromptId;
+import no.vibrantfounder.bachelor.ai.usage.AiUsageRepository;
+import no.vibrantfounder.bachelor.ai.usage.DailyAiUsage;
+import no.vibrantfounder.bachelor.marketing.event.PlanEvent;
+import no.vibrantfounder.bachelor.marketing.event.PlanEventRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the app with the prod profile against a real PostgreSQL binary,
+ * so the Flyway scripts, pgJDBC settings and native queries are checked on Postgres, not just H2.
+ */
+// The prod profile warms up a connection to the AI API; the test has no network for it.
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "ai.anthropic.http.warmup-connections=0"
+})
+@ActiveProfiles("prod")
+class PostgresPersistenceTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private AiUsageRepository aiUsageRepository;
+
+    @Autowired
+    private PlanEventRepository planEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void plansRoundTripWithVersionAndCollectionStamp() {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("saas");
+        plan.setPrimaryGoal("GROWTH");
+        plan.setResourcesPerWeek(5);
+        plan.setRawJson("{\"summary\":\"" + "x".repeat(20_000) + "\"}");
+        plan.setGeneratedAt(LocalDateTime.now());
+
+        PlatformPlan platform = new PlatformPlan();
+        platform.setPlatform("LINKEDIN");
+        platform.setFrequencyPerWeek(3);
+        plan.addPlatform(platform);
+
+        Long id = marketingPlanRepository.saveAndFlush(plan).getId();
+
+        assertThat(marketingPlanRepository.findVersionById(id)).contains(0L);
+        assertThat(marketingPlanRepository.findCollectionStamp().maxId()).isEqualTo(id);
+        assertThat(marketingPlanRepository.findById(id))
+                .hasValueSatisfying(p -> assertThat(p.getRawJson()).hasSize(20_014));
+    }
+
+    @Test
+    void dailyUsageAggregatesOnPostgres() {
+        AiProviderCall call = new AiProviderCall(PromptId.MARKETING_PLAN_V1, "model", Duration.ofMillis(900), "end_turn", 100, 200, null);
+        AiCallRecord record = new AiCallRecord(
+                PromptId.MARKETING_PLAN_V1, "model", AiCallRecord.Outcome.OK, "end_turn", null,
+                Instant.now(), Duration.ofSeconds(1), List.of(call), "test"
+        );
+
+        aiUsageRepository.insertBatch(List.of(record, record));
+
+        List<DailyAiUsage> usage = aiUsageRepository.findDailyUsageSince(LocalDateTime.now().minusDays(1));
+        assertThat(usage).isNotEmpty();
+        assertThat(usage.get(0).calls()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void dueEventsAreClaimedLongestDueFirst() {
+        LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+        planEventRepository.insert(PlanEvent.PLAN_COMPLETED, 1, "{}", base.plusMinutes(1));
+        planEventRepository.insert(PlanEvent.PLAN_COMPLETED, 2, "{}", base);
+        planEventRepository.insert(PlanEvent.PLAN_COMPLETED, 3, "{}", base.plusMinutes(2));
+
+        List<PlanEvent> claimed = transactionTemplate.execute(status ->
+                planEventRepository.claimDue(LocalDateTime.now(), LocalDateTime.now().plusMinutes(5), 2));
+
+        assertThat(claimed).extracting(PlanEvent::planId).containsExactly(2L, 1L);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
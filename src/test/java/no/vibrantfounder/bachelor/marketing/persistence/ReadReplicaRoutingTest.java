@@ -0,0 +1,76 @@
+package no.vibrantfounder.bachelor.marketing.persistence;
+
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanReadResponse;
+import no.vibrantfounder.bachelor.marketing.application.MarketingPlanService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two separate H2 databases stand in for primary and replica. Rows that exist in only one
+ * of them show which pool a call was routed to.
+ */
+@SpringBootTest(properties = "ai.anthropic.api-key=test")
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) {
+        // The app migrates the primary; the replica gets the same schema here, as replication would.
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("datasource.replica.url", () -> REPLICA_URL);
+        registry.add("datasource.replica.username", () -> "sa");
+        registry.add("datasource.replica.password", () -> "");
+    }
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private MarketingPlanService marketingPlanService;
+
+    @Test
+    void readOnlyServiceCallsGoToReplicaAndWritesToPrimary() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.update("""
+                INSERT INTO marketing_plan (id, industry, primary_goal, resources_per_week, generated_at)
+                VALUES (9001, 'replica-only', 'GROWTH', 3, ?)
+                """, LocalDateTime.now());
+
+        MarketingPlan written = new MarketingPlan();
+        written.setIndustry("primary-only");
+        written.setResourcesPerWeek(3);
+        written.setGeneratedAt(LocalDateTime.now());
+        Long primaryId = marketingPlanRepository.saveAndFlush(written).getId();
+
+        Page<MarketingPlanReadResponse> page = marketingPlanService.getPlans(null, null, PageRequest.of(0, 50));
+        assertThat(page.getContent())
+                .extracting(MarketingPlanReadResponse::industry)
+                .contains("replica-only")
+                .doesNotContain("primary-only");
+
+        assertThat(marketingPlanService.getPlan(9001L).industry()).isEqualTo("replica-only");
+        assertThatThrownBy(() -> marketingPlanService.getPlan(primaryId))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package no.vibrantfounder.bachelor.marketing.revision;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.application.MarketingPlanService;
+import no.vibrantfounder.bachelor.testsupport.TestFixtures;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlan;
+import no.vibrantfounder.bachelor.marketing.persistence.MarketingPlanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "ai.anthropic.api-key=test",
+        "spring.datasource.url=jdbc:h2:mem:revision_test;DB_CLOSE_DELAY=-1",
+        "marketing.revisions.snapshot-every=5",
+        "marketing.revisions.compaction-initial-delay=PT24H"
+})
+class PlanRevisionsTest {
+
+    @Autowired
+    private PlanRevisions planRevisions;
+
+    @Autowired
+    private PlanRevisionCompactionJob compactionJob;
+
+    @Autowired
+    private MarketingPlanRepository marketingPlanRepository;
+
+    @Autowired
+    private MarketingPlanService marketingPlanService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void revisionsAreStoredAsPatchesAndCanBeRebuiltBeforeAndAfterCompaction() throws Exception {
+        MarketingPlan plan = save();
+        List<JsonNode> versions = new ArrayList<>();
+        versions.add(objectMapper.readTree(TestFixtures.resource(TestFixtures.VALID_PLAN)));
+
+        for (int i = 1; i <= 7; i++) {
+            ObjectNode next = versions.get(i - 1).deepCopy();
+            next.put("summary", "Revision " + (i + 1));
+            int revision = planRevisions.append(plan, versions.get(i - 1), next, "CALENDAR", LocalDateTime.now());
+            plan.setRevision(revision);
+            versions.add(next);
+        }
+
+        assertThat(plan.getRevision()).isEqualTo(8);
+        assertThat(planRevisions.reconstruct(plan.getId(), 4)).isEqualTo(versions.get(3));
+
+        List<PlanRevisionRepository.Summary> summaries = planRevisions.summaries(plan.getId());
+        assertThat(summaries).hasSize(8);
+        assertThat(summaries.get(0).snapshot()).isTrue();
+        assertThat(summaries.get(1).storedChars()).isLessThan(summaries.get(0).storedChars() / 10);
+
+        assertThat(compactionJob.compact()).isEqualTo(1);
+        assertThat(compactionJob.compact()).isZero();
+        assertThat(planRevisions.summaries(plan.getId()).get(7).snapshot()).isTrue();
+        assertThat(planRevisions.reconstruct(plan.getId(), 8)).isEqualTo(versions.get(7));
+        assertThat(planRevisions.reconstruct(plan.getId(), 6)).isEqualTo(versions.get(5));
+    }
+
+    @Test
+    void revisionsOfAPlanWithACalendarReadBackThroughTheService() {
+        MarketingPlan plan = save();
+        MarketingPlanResponse generated = TestFixtures.validPlan();
+        JsonNode before = objectMapper.valueToTree(generated);
+        ObjectNode after = before.deepCopy();
+        ((ObjectNode) after.withArray("calendar").get(0)).put("date", "2026-02-02");
+
+        plan.setRevision(planRevisions.append(plan, before, after, "CALENDAR", LocalDateTime.now()));
+        plan.setRawJson(after.toString());
+        marketingPlanRepository.saveAndFlush(plan);
+
+        assertThat(marketingPlanService.getPlanRevision(plan.getId(), 1).calendar())
+                .isEqualTo(generated.calendar());
+        assertThat(marketingPlanService.getPlanRevision(plan.getId(), 2).calendar().get(0).date())
+                .isEqualTo(LocalDate.parse("2026-02-02"));
+        assertThat(marketingPlanService.getPlanDiff(plan.getId(), 1, 2))
+                .contains("/calendar/0/date")
+                .contains("2026-02-02");
+    }
+
+    @Test
+    void secondWriterOfTheSameRevisionConflicts() throws Exception {
+        MarketingPlan plan = save();
+        JsonNode before = objectMapper.readTree("{\"summary\":\"a\"}");
+        JsonNode after = objectMapper.readTree("{\"summary\":\"b\"}");
+
+        planRevisions.append(plan, before, after, "PLATFORM", LocalDateTime.now());
+
+        assertThatThrownBy(() -> planRevisions.append(plan, before, after, "PLATFORM", LocalDateTime.now()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> planRevisions.reconstruct(plan.getId(), 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MarketingPlan save() {
+        MarketingPlan plan = new MarketingPlan();
+        plan.setIndustry("saas");
+        plan.setResourcesPerWeek(3);
+        plan.setRawJson(TestFixtures.resource(TestFixtures.VALID_PLAN));
+        plan.setGeneratedAt(LocalDateTime.now());
+        return marketingPlanRepository.saveAndFlush(plan);
+    }
+}
@@ -0,0 +1,115 @@
+package no.vibrantfounder.bachelor.testsupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.vibrantfounder.bachelor.ai.config.AnthropicConfig;
+import no.vibrantfounder.bachelor.marketing.api.dto.MarketingPlanResponse;
+import no.vibrantfounder.bachelor.marketing.api.dto.MeasurementDto;
+import no.vibrantfounder.bachelor.marketing.api.dto.PlatformPlanDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for tests and benchmarks (loaded from src/test/resources/fixtures).
+ *
+ * {@link #objectMapper()} is configured exactly like the application's Jackson 2 mapper,
+ * so fixtures with calendar dates parse the same way they do in the app.
+ */
+public final class TestFixtures {
+
+    public static final String VALID_PLAN = "fixtures/marketing_plan_valid.json";
+    public static final String REPLAY_DIR = "fixtures/replay";
+
+    private static final ObjectMapper MAPPER = new AnthropicConfig().objectMapper();
+
+    private TestFixtures() {
+        // Utility class
+    }
+
+    public static ObjectMapper objectMapper() {
+        return MAPPER;
+    }
+
+    public static String resource(String classpathLocation) {
+        try (InputStream in = TestFixtures.class.getClassLoader().getResourceAsStream(classpathLocation)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + classpathLocation);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Path resourceDirectory(String classpathLocation) {
+        URL url = TestFixtures.class.getClassLoader().getResource(classpathLocation);
+        if (url == null) {
+            throw new IllegalStateException("Missing fixture directory: " + classpathLocation);
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static MarketingPlanResponse validPlan() {
+        try {
+            return MAPPER.readValue(resource(VALID_PLAN), MarketingPlanResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A plan with several independent violations spread over nested objects and lists.
+     */
+    public static MarketingPlanResponse invalidPlan() {
+        MarketingPlanResponse valid = validPlan();
+
+        PlatformPlanDto first = valid.platformPlans().get(0);
+        List<String> hooks = new ArrayList<>(first.hooks());
+        hooks.set(2, " ");
+        PlatformPlanDto brokenPlatform = new PlatformPlanDto(
+                first.platform(),
+                first.rationale(),
+                20,
+                first.formats(),
+                first.contentPillars(),
+                hooks,
+                first.ctaExamples()
+        );
+
+        List<PlatformPlanDto> platformPlans = new ArrayList<>(valid.platformPlans());
+        platformPlans.set(0, brokenPlatform);
+
+        MeasurementDto measurement = new MeasurementDto(
+                valid.measurement().northStarMetric(),
+                List.of("Only one KPI"),
+                valid.measurement().reportingCadence()
+        );
+
+        return new MarketingPlanResponse(
+                "",
+                platformPlans,
+                measurement,
+                valid.assumptions(),
+                valid.confidence(),
+                valid.planPeriodWeeks(),
+                valid.growthPotential(),
+                valid.goalProgressPct(),
+                valid.todayTasks(),
+                valid.platformMetrics(),
+                valid.contentIdeas(),
+                valid.calendar(),
+                valid.generatedAt()
+        );
+    }
+}